@@ -0,0 +1,46 @@
+package com.jdsalasca.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jdsalasca.benchmarks.support.BenchmarkEntity;
+import com.jdsalasca.crud.metrics.CrudMetrics;
+import com.jdsalasca.crud.metrics.CrudOperation;
+import com.jdsalasca.crud.metrics.CrudOutcome;
+import com.jdsalasca.crud.metrics.InMemoryCrudMetrics;
+
+/**
+ * Cost of recording one operation with {@link InMemoryCrudMetrics}, against {@link CrudMetrics#NOOP}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrudMetricsBenchmark {
+
+	private final CrudMetrics noop = CrudMetrics.NOOP;
+	private final InMemoryCrudMetrics inMemory = new InMemoryCrudMetrics();
+	private long duration = 1_000_000;
+
+	@Benchmark
+	public void noop() {
+		noop.record(BenchmarkEntity.class, CrudOperation.GET_BY_ID, CrudOutcome.OK, duration++, 1);
+	}
+
+	@Benchmark
+	public void inMemory() {
+		inMemory.record(BenchmarkEntity.class, CrudOperation.GET_BY_ID, CrudOutcome.OK, duration++, 1);
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.jdsalasca.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import com.jdsalasca.benchmarks.support.BenchmarkDto;
+import com.jdsalasca.benchmarks.support.BenchmarkEntity;
+import com.jdsalasca.benchmarks.support.BenchmarkJpaConfig;
+import com.jdsalasca.benchmarks.support.BenchmarkService;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+
+/**
+ * End to end cost of the {@link com.jdsalasca.crud.CrudServiceImpl} operations, repository and
+ * transaction included, against an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrudServiceBenchmark {
+
+	private static final int ROWS = 1000;
+
+	private AnnotationConfigApplicationContext context;
+	private BenchmarkService service;
+	private BenchmarkDto dto;
+	private BindingResult bindingResult;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext(BenchmarkJpaConfig.class);
+		service = context.getBean(BenchmarkService.class);
+		dto = BenchmarkDto.sample(42);
+		bindingResult = new BeanPropertyBindingResult(dto, "dto");
+		for (int i = 0; i < ROWS; i++) {
+			service.save(BenchmarkDto.sample(i), bindingResult, BenchmarkEntity.class);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkEntity>> getById() {
+		return service.getById(randomId());
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkEntity>> save() {
+		return service.save(dto, bindingResult, BenchmarkEntity.class);
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkEntity>> update() {
+		return service.update(randomId(), dto, bindingResult, BenchmarkEntity.class);
+	}
+
+	private static long randomId() {
+		return ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+	}
+
+}
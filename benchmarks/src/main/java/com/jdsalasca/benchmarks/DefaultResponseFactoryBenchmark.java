@@ -0,0 +1,89 @@
+package com.jdsalasca.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import com.jdsalasca.benchmarks.support.BenchmarkDto;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
+
+/**
+ * Cost of the {@link DefaultResponse} factories every service call ends with.
+ * Run with {@code -prof gc} to see the bytes allocated per response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultResponseFactoryBenchmark {
+
+	private BenchmarkDto entity;
+	private List<BenchmarkDto> entities;
+	private BindingResult bindingResult;
+
+	@Setup
+	public void setUp() {
+		entity = BenchmarkDto.sample(1);
+		entities = List.of(BenchmarkDto.sample(1), BenchmarkDto.sample(2), BenchmarkDto.sample(3));
+		bindingResult = new BeanPropertyBindingResult(entity, "dto");
+		bindingResult.rejectValue("name", "invalid", "name is invalid");
+		bindingResult.rejectValue("quantity", "invalid", "quantity is invalid");
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkDto>> ok200List() {
+		return DefaultResponse.onThrow200Response(entities);
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkDto>> ok200SingleEntity() {
+		return DefaultResponse.onThrow200Response(List.of(entity));
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkDto>> ok200Object() {
+		return DefaultResponse.onThrow200ResponseObjectData(List.of(entity));
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkDto>> ok200ObjectWithoutList() {
+		return DefaultResponse.onThrow200ResponseObject(entity);
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkDto>> notFound404() {
+		return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkDto>> badRequest400() {
+		return DefaultResponse.onThrow400ResponseTypeInfo("could not execute statement");
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkDto>> badRequest400BindingResult() {
+		return DefaultResponse.onThrow400ResponseBindingResult(bindingResult);
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkDto>> error500() {
+		return DefaultResponse.onThrow500ErrorResponse("connection refused");
+	}
+
+}
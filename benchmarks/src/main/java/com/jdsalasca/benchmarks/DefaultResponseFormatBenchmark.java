@@ -0,0 +1,80 @@
+package com.jdsalasca.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jdsalasca.benchmarks.support.BenchmarkDto;
+import com.jdsalasca.benchmarks.support.BenchmarkEnvelope;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponseFormats;
+import com.jdsalasca.defaultresponse.DefaultResponseModule;
+
+/**
+ * Encoding a {@link DefaultResponse} with a LIST data type, and decoding it on the client side, as
+ * JSON or with the binary encodings of {@link DefaultResponseFormats}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultResponseFormatBenchmark {
+
+	@Param({ "1", "100" })
+	private int size;
+
+	@Param({ "json", "cbor", "smile" })
+	private String format;
+
+	private ObjectWriter writer;
+	private ObjectReader reader;
+	private DefaultResponse<BenchmarkDto> list;
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws IOException {
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new DefaultResponseModule());
+		if ("cbor".equals(format)) {
+			objectMapper = DefaultResponseFormats.cborMapper(objectMapper);
+		} else if ("smile".equals(format)) {
+			objectMapper = DefaultResponseFormats.smileMapper(objectMapper);
+		}
+		writer = objectMapper.writer();
+		reader = objectMapper.readerFor(BenchmarkEnvelope.class);
+		List<BenchmarkDto> data = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			data.add(BenchmarkDto.sample(i));
+		}
+		list = DefaultResponse.onThrow200Response(data).getBody();
+		encoded = writer.writeValueAsBytes(list);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return writer.writeValueAsBytes(list);
+	}
+
+	@Benchmark
+	public BenchmarkEnvelope decode() throws IOException {
+		return reader.readValue(encoded);
+	}
+
+}
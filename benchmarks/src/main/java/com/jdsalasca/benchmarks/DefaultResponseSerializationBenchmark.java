@@ -0,0 +1,72 @@
+package com.jdsalasca.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdsalasca.benchmarks.support.BenchmarkDto;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponseModule;
+
+/**
+ * Jackson serialization of a {@link DefaultResponse} with a LIST data type, for several list
+ * sizes, and with an OBJECT data type, using either the bean serializer or the hand written
+ * serializers of {@link DefaultResponseModule}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultResponseSerializationBenchmark {
+
+	@Param({ "1", "100" })
+	private int size;
+
+	@Param({ "bean", "module" })
+	private String serializer;
+
+	private ObjectMapper objectMapper;
+	private DefaultResponse<BenchmarkDto> list;
+	private DefaultResponse<BenchmarkDto> object;
+
+	@Setup
+	public void setUp() {
+		objectMapper = new ObjectMapper();
+		if ("module".equals(serializer)) {
+			objectMapper.registerModule(new DefaultResponseModule());
+		}
+		List<BenchmarkDto> data = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			data.add(BenchmarkDto.sample(i));
+		}
+		list = DefaultResponse.onThrow200Response(data).getBody();
+		object = DefaultResponse.onThrow200ResponseObjectData(List.of(BenchmarkDto.sample(0))).getBody();
+	}
+
+	@Benchmark
+	public byte[] listDataType() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(list);
+	}
+
+	@Benchmark
+	public byte[] objectDataType() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(object);
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.jdsalasca.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jdsalasca.benchmarks.support.BenchmarkDto;
+import com.jdsalasca.benchmarks.support.BenchmarkEntity;
+import com.jdsalasca.crud.mapping.CompiledEntityMapper;
+import com.jdsalasca.crud.mapping.EntityMapper;
+import com.jdsalasca.crud.mapping.ModelMapperEntityMapper;
+
+/**
+ * Compiled copier versus ModelMapper for the DTO to entity mapping done by save and update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMapperBenchmark {
+
+	private EntityMapper<BenchmarkDto, BenchmarkEntity> compiled;
+	private EntityMapper<BenchmarkDto, BenchmarkEntity> modelMapper;
+	private BenchmarkDto dto;
+	private BenchmarkEntity entity;
+
+	@Setup
+	public void setUp() {
+		compiled = new CompiledEntityMapper<>(new ModelMapper());
+		modelMapper = new ModelMapperEntityMapper<>(new ModelMapper());
+		dto = BenchmarkDto.sample(7);
+		entity = new BenchmarkEntity();
+	}
+
+	@Benchmark
+	public BenchmarkEntity compiledToEntity() {
+		return compiled.toEntity(dto, BenchmarkEntity.class);
+	}
+
+	@Benchmark
+	public BenchmarkEntity modelMapperToEntity() {
+		return modelMapper.toEntity(dto, BenchmarkEntity.class);
+	}
+
+	@Benchmark
+	public BenchmarkEntity compiledCopy() {
+		compiled.copy(dto, entity);
+		return entity;
+	}
+
+	@Benchmark
+	public BenchmarkEntity modelMapperCopy() {
+		modelMapper.copy(dto, entity);
+		return entity;
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.jdsalasca.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import com.jdsalasca.benchmarks.support.BenchmarkDto;
+import com.jdsalasca.benchmarks.support.BenchmarkEntity;
+import com.jdsalasca.benchmarks.support.BenchmarkJpaConfig;
+import com.jdsalasca.benchmarks.support.BenchmarkService;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
+import com.jdsalasca.exceptions.EntityNotFoundException;
+
+/**
+ * {@link com.jdsalasca.crud.CrudServiceImpl} answering requests that all fail, as under a flood of
+ * bad input: ids that do not exist and DTOs that do not validate. Run with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorResponseBenchmark {
+
+	private static final int ROWS = 100;
+	private static final long MISSING_ID = -1L;
+
+	private AnnotationConfigApplicationContext context;
+	private BenchmarkService service;
+	private BenchmarkDto dto;
+	private BindingResult valid;
+	private BindingResult invalid;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext(BenchmarkJpaConfig.class);
+		service = context.getBean(BenchmarkService.class);
+		dto = BenchmarkDto.sample(42);
+		valid = new BeanPropertyBindingResult(dto, "dto");
+		invalid = new BeanPropertyBindingResult(dto, "dto");
+		invalid.rejectValue("name", "invalid", "name is invalid");
+		for (int i = 0; i < ROWS; i++) {
+			service.save(BenchmarkDto.sample(i), valid, BenchmarkEntity.class);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkEntity>> getByIdNotFound() {
+		return service.getById(MISSING_ID);
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkEntity>> updateNotFound() {
+		return service.update(MISSING_ID, dto, valid, BenchmarkEntity.class);
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkEntity>> updateInvalid() {
+		return service.update(1L, dto, invalid, BenchmarkEntity.class);
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkEntity>> saveInvalid() {
+		return service.save(dto, invalid, BenchmarkEntity.class);
+	}
+
+	@Benchmark
+	public EntityNotFoundException entityNotFoundException() {
+		return new EntityNotFoundException(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+	}
+
+}
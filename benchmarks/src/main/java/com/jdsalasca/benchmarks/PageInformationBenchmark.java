@@ -0,0 +1,71 @@
+package com.jdsalasca.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdsalasca.benchmarks.support.BenchmarkDto;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.PageInformationSerializer;
+
+/**
+ * Serialization of a paged {@link DefaultResponse} with the compact page information versus the
+ * legacy shape that writes the whole page. The payload size of each shape is printed on setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageInformationBenchmark {
+
+	@Param({ "20", "100" })
+	private int size;
+
+	private ObjectMapper compact;
+	private ObjectMapper legacy;
+	private DefaultResponse<BenchmarkDto> response;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		compact = new ObjectMapper();
+		legacy = PageInformationSerializer.enableLegacyShape(new ObjectMapper());
+		List<BenchmarkDto> data = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			data.add(BenchmarkDto.sample(i));
+		}
+		PageImpl<BenchmarkDto> page = new PageImpl<>(data, PageRequest.of(3, size, Sort.by("name")), 10_000);
+		response = DefaultResponse.onThrow200Response(data, page).getBody();
+		System.out.printf("%npayload bytes for %d rows: compact=%d legacy=%d%n", size,
+				compact.writeValueAsBytes(response).length, legacy.writeValueAsBytes(response).length);
+	}
+
+	@Benchmark
+	public byte[] compactShape() throws JsonProcessingException {
+		return compact.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public byte[] legacyShape() throws JsonProcessingException {
+		return legacy.writeValueAsBytes(response);
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.jdsalasca.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jdsalasca.benchmarks.support.BenchmarkDto;
+import com.jdsalasca.benchmarks.support.BenchmarkEntity;
+import com.jdsalasca.benchmarks.support.BenchmarkJpaConfig;
+import com.jdsalasca.benchmarks.support.BenchmarkRepository;
+import com.jdsalasca.benchmarks.support.BenchmarkService;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
+
+/**
+ * {@link com.jdsalasca.crud.CrudServiceImpl#getAll()} of 1000 rows along the code paths it can take:
+ * <ul>
+ * <li>{@code baseline}, the code of 0.0.4: {@code repository.findAll()} wrapped in a {@link DefaultResponse},
+ * in the read-only transaction of the repository</li>
+ * <li>{@code service}, the service as it runs now, relying on that same transaction</li>
+ * <li>{@code readOnlyTemplate}, the service inside a read-only {@link TransactionTemplate}, as the service
+ * wrapped its single repository calls before</li>
+ * <li>{@code readWrite}, the service inside a read-write transaction, as when the caller opened one</li>
+ * </ul>
+ * With a transaction of the benchmark, the setup also prints the heap retained per row while it is open,
+ * the entity plus the snapshot Hibernate keeps of it for dirty checking in a read-write transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadTransactionBenchmark {
+
+	private static final int ROWS = 1000;
+
+	@Param({ "baseline", "service", "readOnlyTemplate", "readWrite" })
+	private String path;
+
+	private AnnotationConfigApplicationContext context;
+	private BenchmarkService service;
+	private BenchmarkRepository repository;
+	private TransactionTemplate transaction;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext(BenchmarkJpaConfig.class);
+		service = context.getBean(BenchmarkService.class);
+		repository = context.getBean(BenchmarkRepository.class);
+		List<BenchmarkDto> dtos = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			dtos.add(BenchmarkDto.sample(i));
+		}
+		service.saveAll(dtos, BenchmarkEntity.class);
+		if (path.equals("readOnlyTemplate") || path.equals("readWrite")) {
+			transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+			transaction.setReadOnly(path.equals("readOnlyTemplate"));
+			System.out.printf("%npath=%s retained heap per row: %d B%n", path, retainedPerRow());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ResponseEntity<DefaultResponse<BenchmarkEntity>> getAll() {
+		return (transaction != null) ? transaction.execute(status -> call()) : call();
+	}
+
+	private ResponseEntity<DefaultResponse<BenchmarkEntity>> call() {
+		if (path.equals("baseline")) {
+			List<BenchmarkEntity> entities = repository.findAll();
+			return entities.isEmpty() ? DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value())
+					: DefaultResponse.onThrow200Response(entities);
+		}
+		return service.getAll();
+	}
+
+	private long retainedPerRow() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		long total = 0;
+		int samples = 5;
+		for (int i = 0; i < samples; i++) {
+			long before = usedHeap(memory);
+			total += transaction.execute(status -> {
+				ResponseEntity<DefaultResponse<BenchmarkEntity>> response = call();
+				long retained = usedHeap(memory) - before;
+				return (response.getBody() != null) ? retained : 0L;
+			});
+		}
+		return total / samples / ROWS;
+	}
+
+	private static long usedHeap(MemoryMXBean memory) {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.jdsalasca.benchmarks.support;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@NoArgsConstructor
+public class BenchmarkEntity {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	private Long id;
+	private String name;
+	private String description;
+	private Integer quantity;
+	private Double price;
+	private Boolean active;
+
+}
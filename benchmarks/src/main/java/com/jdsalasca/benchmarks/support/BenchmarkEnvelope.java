@@ -0,0 +1,35 @@
+package com.jdsalasca.benchmarks.support;
+
+import java.util.List;
+
+import com.jdsalasca.defaultresponse.PageInformation;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a client reads a {@code DefaultResponse<BenchmarkDto>} into.
+ */
+@Data
+@NoArgsConstructor
+public class BenchmarkEnvelope {
+
+	private List<BenchmarkDto> data;
+	private int status;
+	private List<Item> message;
+	private List<Item> error;
+	private String messageType;
+	private String dataType;
+	private PageInformation pageableInformation;
+
+	@Data
+	@NoArgsConstructor
+	public static class Item {
+
+		private String messageDesc;
+		private String message;
+		private String messageType;
+
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.jdsalasca.benchmarks.support;
+
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Minimal Spring Data JPA setup over an in-memory H2 database, shared by the benchmarks
+ * that go through {@link BenchmarkService}.
+ */
+@Configuration
+@ComponentScan(basePackageClasses = BenchmarkJpaConfig.class)
+@EnableJpaRepositories(basePackageClasses = BenchmarkJpaConfig.class)
+@EnableTransactionManagement(proxyTargetClass = true)
+public class BenchmarkJpaConfig {
+
+	@Bean
+	public DataSource dataSource() {
+		return new DriverManagerDataSource("jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1");
+	}
+
+	@Bean
+	public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(dataSource);
+		factory.setPackagesToScan(BenchmarkJpaConfig.class.getPackageName());
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		Properties properties = new Properties();
+		properties.put("hibernate.hbm2ddl.auto", "create-drop");
+		properties.put("hibernate.jdbc.batch_size", "50");
+		properties.put("hibernate.order_inserts", "true");
+		factory.setJpaProperties(properties);
+		return factory;
+	}
+
+	@Bean
+	public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+		return new JpaTransactionManager(entityManagerFactory);
+	}
+
+	@Bean
+	public ModelMapper modelMapper() {
+		return new ModelMapper();
+	}
+
+}
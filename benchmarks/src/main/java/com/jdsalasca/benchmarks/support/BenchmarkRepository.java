@@ -0,0 +1,8 @@
+package com.jdsalasca.benchmarks.support;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+public interface BenchmarkRepository extends JpaRepository<BenchmarkEntity, Long>, JpaSpecificationExecutor<BenchmarkEntity> {
+
+}
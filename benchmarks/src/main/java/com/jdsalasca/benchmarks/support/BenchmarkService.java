@@ -0,0 +1,15 @@
+package com.jdsalasca.benchmarks.support;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Service;
+
+import com.jdsalasca.crud.CrudServiceImpl;
+
+@Service
+public class BenchmarkService extends CrudServiceImpl<BenchmarkEntity, BenchmarkDto, Long, BenchmarkRepository> {
+
+	public BenchmarkService(BenchmarkRepository repository, ModelMapper modelMapper) {
+		super(repository, modelMapper);
+	}
+
+}
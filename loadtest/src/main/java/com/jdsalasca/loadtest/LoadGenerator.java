@@ -0,0 +1,178 @@
+package com.jdsalasca.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdsalasca.loadtest.support.LoadTestDto;
+
+/**
+ * Sends requests at a fixed arrival rate, an open model: the n-th request is due at
+ * {@code start + n / rate} whether or not the previous ones were answered, so a slow server gets
+ * more requests in flight instead of fewer requests, as it would from real clients.
+ * <p>
+ * The latency of a request is measured from the time it was due, not from the time it was sent,
+ * so when the generator itself falls behind the delay is still charged to the requests instead of
+ * being left out of the histogram (coordinated omission).
+ */
+public class LoadGenerator {
+
+	private static final int BODIES = 100;
+
+	private final HttpClient client;
+	private final URI base;
+	private final long[] ids;
+	private final LoadTestOptions options;
+	private final Operation[] operations;
+	private final int[] cumulativeWeights;
+	private final byte[][] bodies;
+
+	private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+	private final Map<Operation, LongAdder> sent = new EnumMap<>(Operation.class);
+	private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+	private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	/**
+	 * @param client the client the requests are sent with
+	 * @param base the URI of {@link com.jdsalasca.loadtest.support.LoadTestController}
+	 * @param ids the ids of the rows read and updated
+	 * @param options the rate, duration and mix of the run
+	 */
+	public LoadGenerator(HttpClient client, URI base, long[] ids, LoadTestOptions options) {
+		this.client = client;
+		this.base = base;
+		this.ids = ids;
+		this.options = options;
+		this.operations = options.getMix().keySet().toArray(new Operation[0]);
+		this.cumulativeWeights = new int[operations.length];
+		int total = 0;
+		for (int i = 0; i < operations.length; i++) {
+			total += options.getMix().get(operations[i]);
+			cumulativeWeights[i] = total;
+		}
+		this.bodies = new byte[BODIES][];
+		ObjectMapper objectMapper = new ObjectMapper();
+		for (int i = 0; i < BODIES; i++) {
+			try {
+				bodies[i] = objectMapper.writeValueAsBytes(LoadTestDto.sample(i));
+			} catch (JsonProcessingException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new Recorder(3));
+			sent.put(operation, new LongAdder());
+			errors.put(operation, new LongAdder());
+			dropped.put(operation, new LongAdder());
+		}
+	}
+
+	/**
+	 * Runs the warmup and then the measurement, and waits for the requests still in flight until
+	 * their timeout; those that are not answered by then count as errors.
+	 * @return the latencies and errors of the requests due during the measurement
+	 */
+	public LoadResult run() throws InterruptedException {
+		long warmupNanos = options.getWarmup().toNanos();
+		long durationNanos = options.getDuration().toNanos();
+		double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+		long start = System.nanoTime();
+		long measureStart = start + warmupNanos;
+		long end = measureStart + durationNanos;
+		for (long n = 0;; n++) {
+			long due = start + (long) (n * intervalNanos);
+			if (due >= end) {
+				break;
+			}
+			long wait = due - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			send(pick(), due, due >= measureStart);
+		}
+		long drainDeadline = System.nanoTime() + options.getTimeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+		while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+			Thread.sleep(10);
+		}
+		Map<Operation, LoadResult.OperationResult> results = new EnumMap<>(Operation.class);
+		for (Operation operation : operations) {
+			Histogram latencies = recorders.get(operation).getIntervalHistogram();
+			long requests = sent.get(operation).sum();
+			long unanswered = requests - latencies.getTotalCount();
+			results.put(operation, new LoadResult.OperationResult(latencies, requests, errors.get(operation).sum() + unanswered,
+					dropped.get(operation).sum()));
+		}
+		return new LoadResult(options.getRate(), options.getDuration(), results);
+	}
+
+	private Operation pick() {
+		int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+		return operations[operations.length - 1];
+	}
+
+	private void send(Operation operation, long due, boolean measured) {
+		if (inFlight.incrementAndGet() > options.getMaxInFlight()) {
+			inFlight.decrementAndGet();
+			if (measured) {
+				dropped.get(operation).increment();
+			}
+			return;
+		}
+		if (measured) {
+			sent.get(operation).increment();
+		}
+		client.sendAsync(request(operation), BodyHandlers.discarding()).whenComplete((response, failure) -> {
+			long latency = System.nanoTime() - due;
+			inFlight.decrementAndGet();
+			if (measured) {
+				recorders.get(operation).recordValue(latency);
+				if (failure != null || response.statusCode() >= 400) {
+					errors.get(operation).increment();
+				}
+			}
+		});
+	}
+
+	private HttpRequest request(Operation operation) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		HttpRequest.Builder request = HttpRequest.newBuilder().timeout(options.getTimeout());
+		switch (operation) {
+		case GET_BY_ID:
+			return request.uri(base.resolve(base.getPath() + "/" + ids[random.nextInt(ids.length)])).GET().build();
+		case GET_BY_ID_ASYNC:
+			return request.uri(base.resolve(base.getPath() + "/async/" + ids[random.nextInt(ids.length)])).GET().build();
+		case GET_PAGE:
+			int pages = Math.max(1, ids.length / options.getPageSize());
+			return request.uri(base.resolve(base.getPath() + "?page=" + random.nextInt(pages) + "&size=" + options.getPageSize()))
+					.GET().build();
+		case SAVE:
+			return request.uri(base).header("Content-Type", "application/json")
+					.POST(BodyPublishers.ofByteArray(bodies[random.nextInt(BODIES)])).build();
+		default:
+			return request.uri(base.resolve(base.getPath() + "/" + ids[random.nextInt(ids.length)]))
+					.header("Content-Type", "application/json")
+					.PUT(BodyPublishers.ofByteArray(bodies[random.nextInt(BODIES)])).build();
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.jdsalasca.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Throughput and latency percentiles of the requests due during the measurement, per operation and in total.
+ */
+public class LoadResult {
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	/**
+	 * What happened to the requests of one operation, latencies in nanoseconds.
+	 */
+	public static final class OperationResult {
+
+		private final Histogram latencies;
+		private final long requests;
+		private final long errors;
+		private final long dropped;
+
+		OperationResult(Histogram latencies, long requests, long errors, long dropped) {
+			this.latencies = latencies;
+			this.requests = requests;
+			this.errors = errors;
+			this.dropped = dropped;
+		}
+
+		/**
+		 * @return the latencies of the requests that were answered, or failed, before the end of the run
+		 */
+		public Histogram latencies() {
+			return latencies;
+		}
+
+		/**
+		 * @return the requests sent
+		 */
+		public long requests() {
+			return requests;
+		}
+
+		/**
+		 * @return the requests answered with a 4xx or 5xx status, failed, or not answered by the end of the run
+		 */
+		public long errors() {
+			return errors;
+		}
+
+		/**
+		 * @return the requests not sent because {@code maxInFlight} requests were waiting already
+		 */
+		public long dropped() {
+			return dropped;
+		}
+	}
+
+	private final double rate;
+	private final Duration duration;
+	private final Map<Operation, OperationResult> operations;
+
+	LoadResult(double rate, Duration duration, Map<Operation, OperationResult> operations) {
+		this.rate = rate;
+		this.duration = duration;
+		this.operations = operations;
+	}
+
+	public Map<Operation, OperationResult> operations() {
+		return operations;
+	}
+
+	/**
+	 * @return the latencies of all the operations together
+	 */
+	public Histogram total() {
+		Histogram total = new Histogram(3);
+		for (OperationResult result : operations.values()) {
+			total.add(result.latencies);
+		}
+		return total;
+	}
+
+	/**
+	 * Prints one line per operation and one for the total: the requests sent, those that failed or were dropped,
+	 * the successful responses per second and the latency percentiles.
+	 */
+	public void print(PrintStream out) {
+		double seconds = duration.toNanos() / 1e9;
+		out.printf("Target %.0f req/s for %s%n", rate, duration);
+		out.printf("%-10s %9s %7s %7s %10s %9s %9s %9s %9s%n", "operation", "requests", "errors", "dropped", "ok/s",
+				"p50 ms", "p99 ms", "p99.9 ms", "max ms");
+		long requests = 0;
+		long errors = 0;
+		long dropped = 0;
+		for (Map.Entry<Operation, OperationResult> entry : operations.entrySet()) {
+			OperationResult result = entry.getValue();
+			print(out, entry.getKey().value(), result.latencies, result.requests, result.errors, result.dropped, seconds);
+			requests += result.requests;
+			errors += result.errors;
+			dropped += result.dropped;
+		}
+		print(out, "total", total(), requests, errors, dropped, seconds);
+	}
+
+	private static void print(PrintStream out, String name, Histogram latencies, long requests, long errors, long dropped,
+			double seconds) {
+		out.printf("%-10s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, requests, errors, dropped,
+				(requests - errors) / seconds,
+				latencies.getValueAtPercentile(50) / NANOS_PER_MILLI,
+				latencies.getValueAtPercentile(99) / NANOS_PER_MILLI,
+				latencies.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+				latencies.getMaxValue() / NANOS_PER_MILLI);
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.jdsalasca.loadtest;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.loadtest.support.LoadTestController;
+import com.jdsalasca.loadtest.support.LoadTestDto;
+import com.jdsalasca.loadtest.support.LoadTestEntity;
+import com.jdsalasca.loadtest.support.LoadTestServer;
+import com.jdsalasca.loadtest.support.LoadTestService;
+
+/**
+ * Starts {@link LoadTestServer}, inserts the rows, drives the endpoints with {@link LoadGenerator} and
+ * prints the {@link LoadResult}. See {@link LoadTestOptions} for the arguments.
+ */
+public final class LoadTest {
+
+	private static final int SEED_CHUNK = 1000;
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+		try (LoadTestServer server = LoadTestServer.start(options.getThreads(), options.getPool(), options.getLatency())) {
+			long[] ids = seed(server.getBean(LoadTestService.class), options.getRows());
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(options.getTimeout()).build();
+			URI base = URI.create("http://localhost:" + server.port() + LoadTestController.PATH);
+			System.out.printf("%d rows, warmup %s, mix %s, %d Tomcat threads, %d connections, latency %s%n", ids.length,
+					options.getWarmup(), options.getMix(), options.getThreads(), options.getPool(), options.getLatency());
+			LoadResult result = new LoadGenerator(client, base, ids, options).run();
+			result.print(System.out);
+			if (options.getHistogram() != null) {
+				try (PrintStream out = new PrintStream(new FileOutputStream(options.getHistogram()))) {
+					result.total().outputPercentileDistribution(out, 1_000_000.0);
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static long[] seed(LoadTestService service, int rows) {
+		List<Long> ids = new ArrayList<>(rows);
+		for (int from = 0; from < rows; from += SEED_CHUNK) {
+			List<LoadTestDto> dtos = new ArrayList<>(SEED_CHUNK);
+			for (int i = from; i < Math.min(rows, from + SEED_CHUNK); i++) {
+				dtos.add(LoadTestDto.sample(i));
+			}
+			ResponseEntity<DefaultResponse<LoadTestEntity>> response = service.saveAll(dtos, LoadTestEntity.class);
+			for (LoadTestEntity entity : (List<LoadTestEntity>) response.getBody().getData()) {
+				ids.add(entity.getId());
+			}
+		}
+		return ids.stream().mapToLong(Long::longValue).toArray();
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.jdsalasca.loadtest;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Settings of a run, given on the command line as {@code name=value} arguments:
+ * <ul>
+ * <li>{@code rate} requests started per second, whatever the latency of the previous ones (default 200)</li>
+ * <li>{@code duration} of the measurement, such as {@code 30s} or {@code 2m} (default 30s)</li>
+ * <li>{@code warmup} before the measurement, at the same rate and not recorded (default 10s)</li>
+ * <li>{@code mix} the weights of the operations, such as {@code getById=70,getPage=10,save=10,update=10}</li>
+ * <li>{@code rows} inserted before the run, the ids read and updated (default 10000)</li>
+ * <li>{@code pageSize} of {@code getPage} (default 20)</li>
+ * <li>{@code threads} of Tomcat (default 50) and {@code pool} connections of HikariCP (default 10)</li>
+ * <li>{@code latency} added to each transaction when it borrows its connection, for a database server (default 0ms)</li>
+ * <li>{@code timeout} of a request, counted as an error past it (default 5s)</li>
+ * <li>{@code maxInFlight} requests waiting for their response, those beyond are dropped and reported (default 10000)</li>
+ * <li>{@code histogram} a file to write the HdrHistogram percentile distribution of all the requests to</li>
+ * </ul>
+ */
+@Getter
+public final class LoadTestOptions {
+
+	private double rate = 200;
+	private Duration duration = Duration.ofSeconds(30);
+	private Duration warmup = Duration.ofSeconds(10);
+	private Map<Operation, Integer> mix = defaultMix();
+	private int rows = 10_000;
+	private int pageSize = 20;
+	private int threads = 50;
+	private int pool = 10;
+	private Duration latency = Duration.ZERO;
+	private Duration timeout = Duration.ofSeconds(5);
+	private int maxInFlight = 10_000;
+	private String histogram;
+
+	private LoadTestOptions() {
+	}
+
+	/**
+	 * @param args the {@code name=value} arguments
+	 * @return the options, the defaults for those not given
+	 * @throws IllegalArgumentException if an argument is unknown or its value is invalid
+	 */
+	public static LoadTestOptions parse(String... args) {
+		LoadTestOptions options = new LoadTestOptions();
+		for (String arg : args) {
+			int equals = arg.indexOf('=');
+			if (equals < 1) {
+				throw new IllegalArgumentException("Expected name=value but got " + arg);
+			}
+			String value = arg.substring(equals + 1);
+			switch (arg.substring(0, equals)) {
+			case "rate":
+				options.rate = Double.parseDouble(value);
+				break;
+			case "duration":
+				options.duration = duration(value);
+				break;
+			case "warmup":
+				options.warmup = duration(value);
+				break;
+			case "mix":
+				options.mix = mix(value);
+				break;
+			case "rows":
+				options.rows = Integer.parseInt(value);
+				break;
+			case "pageSize":
+				options.pageSize = Integer.parseInt(value);
+				break;
+			case "threads":
+				options.threads = Integer.parseInt(value);
+				break;
+			case "pool":
+				options.pool = Integer.parseInt(value);
+				break;
+			case "latency":
+				options.latency = duration(value);
+				break;
+			case "timeout":
+				options.timeout = duration(value);
+				break;
+			case "maxInFlight":
+				options.maxInFlight = Integer.parseInt(value);
+				break;
+			case "histogram":
+				options.histogram = value;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + arg);
+			}
+		}
+		if (options.rate <= 0 || options.rows < 1 || options.pageSize < 1 || options.duration.isZero()) {
+			throw new IllegalArgumentException("rate, rows, pageSize and duration must be positive");
+		}
+		return options;
+	}
+
+	/**
+	 * @param value a number followed by {@code ms}, {@code s} or {@code m}
+	 */
+	static Duration duration(String value) {
+		if (value.endsWith("ms")) {
+			return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+		}
+		if (value.endsWith("s")) {
+			return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+		}
+		if (value.endsWith("m")) {
+			return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+		}
+		throw new IllegalArgumentException("Expected a duration such as 500ms, 30s or 2m but got " + value);
+	}
+
+	static Map<Operation, Integer> mix(String value) {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		for (String weight : value.split(",")) {
+			String[] parts = weight.split("=");
+			if (parts.length != 2 || Integer.parseInt(parts[1].trim()) < 0) {
+				throw new IllegalArgumentException("Expected operation=weight but got " + weight);
+			}
+			mix.put(Operation.of(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+		}
+		if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+			throw new IllegalArgumentException("The mix has no weight");
+		}
+		return Collections.unmodifiableMap(mix);
+	}
+
+	private static Map<Operation, Integer> defaultMix() {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		mix.put(Operation.GET_BY_ID, 70);
+		mix.put(Operation.GET_PAGE, 10);
+		mix.put(Operation.SAVE, 10);
+		mix.put(Operation.UPDATE, 10);
+		return Collections.unmodifiableMap(mix);
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.jdsalasca.loadtest;
+
+/**
+ * The requests the load test sends, each to one endpoint of {@link com.jdsalasca.loadtest.support.LoadTestController}.
+ */
+public enum Operation {
+	GET_BY_ID("getById", false), GET_BY_ID_ASYNC("getByIdAsync", false), GET_PAGE("getPage", false), SAVE("save", true), UPDATE("update", true);
+
+	private String value;
+	private boolean write;
+
+	Operation(String value, boolean write) {
+		this.value = value;
+		this.write = write;
+	}
+
+	public String value() {
+		return this.value;
+	}
+
+	public boolean isWrite() {
+		return this.write;
+	}
+
+	static Operation of(String value) {
+		for (Operation operation : values()) {
+			if (operation.value.equals(value)) {
+				return operation;
+			}
+		}
+		throw new IllegalArgumentException("Unknown operation " + value);
+	}
+}
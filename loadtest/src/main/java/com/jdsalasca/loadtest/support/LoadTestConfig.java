@@ -0,0 +1,78 @@
+package com.jdsalasca.loadtest.support;
+
+import java.util.List;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdsalasca.crud.AsyncCrudInterface;
+import com.jdsalasca.crud.AsyncCrudServiceImpl;
+import com.jdsalasca.defaultresponse.DefaultResponseModule;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Spring MVC and Spring Data JPA setup of the application under test. The {@link DataSource}, a
+ * connection pool over in-memory H2, is registered by {@link LoadTestServer}.
+ */
+@Configuration
+@EnableWebMvc
+@ComponentScan(basePackageClasses = LoadTestConfig.class)
+@EnableJpaRepositories(basePackageClasses = LoadTestConfig.class)
+@EnableTransactionManagement(proxyTargetClass = true)
+public class LoadTestConfig implements WebMvcConfigurer {
+
+	@Bean
+	public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(dataSource);
+		factory.setPackagesToScan(LoadTestConfig.class.getPackageName());
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		Properties properties = new Properties();
+		properties.put("hibernate.hbm2ddl.auto", "create-drop");
+		properties.put("hibernate.jdbc.batch_size", "50");
+		properties.put("hibernate.order_inserts", "true");
+		factory.setJpaProperties(properties);
+		return factory;
+	}
+
+	@Bean
+	public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+		return new JpaTransactionManager(entityManagerFactory);
+	}
+
+	/**
+	 * Runs {@link LoadTestService} on {@link com.jdsalasca.crud.CrudExecutors#shared()}: virtual threads on JDK 21 and
+	 * later, a bounded pool of platform threads before.
+	 */
+	@Bean
+	public AsyncCrudInterface<LoadTestEntity, LoadTestDto, Long, LoadTestRepository> asyncLoadTestService(LoadTestService service) {
+		return new AsyncCrudServiceImpl<>(service);
+	}
+
+	@Bean
+	public ModelMapper modelMapper() {
+		return new ModelMapper();
+	}
+
+	@Override
+	public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.add(new MappingJackson2HttpMessageConverter(new ObjectMapper().registerModule(new DefaultResponseModule())));
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.jdsalasca.loadtest.support;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jdsalasca.crud.AsyncCrudInterface;
+import com.jdsalasca.crud.ICrudInterface;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+
+/**
+ * The endpoints the load test drives, a thin layer over {@link ICrudInterface} as an application would write it.
+ */
+@RestController
+@RequestMapping(LoadTestController.PATH)
+public class LoadTestController {
+
+	public static final String PATH = "/items";
+
+	private final ICrudInterface<LoadTestEntity, LoadTestDto, Long, LoadTestRepository> service;
+
+	private final AsyncCrudInterface<LoadTestEntity, LoadTestDto, Long, LoadTestRepository> asyncService;
+
+	public LoadTestController(ICrudInterface<LoadTestEntity, LoadTestDto, Long, LoadTestRepository> service,
+			AsyncCrudInterface<LoadTestEntity, LoadTestDto, Long, LoadTestRepository> asyncService) {
+		this.service = service;
+		this.asyncService = asyncService;
+	}
+
+	@GetMapping("/{id}")
+	public ResponseEntity<DefaultResponse<LoadTestEntity>> getById(@PathVariable("id") Long id) {
+		return service.getById(id);
+	}
+
+	/**
+	 * The same read as {@link #getById}, run on the executor of {@link AsyncCrudInterface} so the Tomcat thread is
+	 * released while it waits for the database.
+	 */
+	@GetMapping("/async/{id}")
+	public CompletableFuture<ResponseEntity<DefaultResponse<LoadTestEntity>>> getByIdAsync(@PathVariable("id") Long id) {
+		return asyncService.getById(id);
+	}
+
+	@GetMapping
+	public ResponseEntity<DefaultResponse<LoadTestEntity>> getPage(@RequestParam("page") int page, @RequestParam("size") int size) {
+		return service.getAllSlice(PageRequest.of(page, size, Sort.by("id")));
+	}
+
+	@PostMapping
+	public ResponseEntity<DefaultResponse<LoadTestEntity>> save(@RequestBody LoadTestDto dto, BindingResult bindingResult) {
+		return service.save(dto, bindingResult, LoadTestEntity.class);
+	}
+
+	@PutMapping("/{id}")
+	public ResponseEntity<DefaultResponse<LoadTestEntity>> update(@PathVariable("id") Long id, @RequestBody LoadTestDto dto,
+			BindingResult bindingResult) {
+		return service.update(id, dto, bindingResult, LoadTestEntity.class);
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.jdsalasca.loadtest.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadTestDto {
+
+	private String name;
+	private String description;
+	private Integer quantity;
+	private Double price;
+	private Boolean active;
+
+	public static LoadTestDto sample(int index) {
+		return new LoadTestDto("name-" + index, "description of the item number " + index, index, index * 1.5, index % 2 == 0);
+	}
+
+}
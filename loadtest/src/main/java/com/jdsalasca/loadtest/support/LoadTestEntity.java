@@ -0,0 +1,27 @@
+package com.jdsalasca.loadtest.support;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@NoArgsConstructor
+public class LoadTestEntity {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	private Long id;
+	private String name;
+	private String description;
+	private Integer quantity;
+	private Double price;
+	private Boolean active;
+	@Version
+	private Long version;
+
+}
@@ -0,0 +1,8 @@
+package com.jdsalasca.loadtest.support;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+public interface LoadTestRepository extends JpaRepository<LoadTestEntity, Long>, JpaSpecificationExecutor<LoadTestEntity> {
+
+}
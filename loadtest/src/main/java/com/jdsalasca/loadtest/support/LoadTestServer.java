@@ -0,0 +1,124 @@
+package com.jdsalasca.loadtest.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The application under test: {@link LoadTestConfig} in a {@link DispatcherServlet} on an embedded
+ * Tomcat listening on a free local port, over a HikariCP pool of in-memory H2 connections. A latency can be
+ * added to each connection borrowed from the pool, to stand for the round trip to a database server.
+ */
+public final class LoadTestServer implements AutoCloseable {
+
+	private final Tomcat tomcat;
+	private final HikariDataSource dataSource;
+	private final AnnotationConfigWebApplicationContext context;
+
+	private LoadTestServer(Tomcat tomcat, HikariDataSource dataSource, AnnotationConfigWebApplicationContext context) {
+		this.tomcat = tomcat;
+		this.dataSource = dataSource;
+		this.context = context;
+	}
+
+	/**
+	 * @param threads the request processing threads of Tomcat
+	 * @param poolSize the connections of the pool
+	 * @param latency how long a connection is held, after it is borrowed, before it is handed to the application
+	 * @return the started server
+	 */
+	public static LoadTestServer start(int threads, int poolSize, Duration latency) throws LifecycleException, IOException {
+		HikariConfig pool = new HikariConfig();
+		pool.setJdbcUrl("jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+		pool.setMaximumPoolSize(poolSize);
+		pool.setMinimumIdle(poolSize);
+		HikariDataSource dataSource = new HikariDataSource(pool);
+		DataSource applicationDataSource = latency.isZero() ? dataSource : delayed(dataSource, latency);
+
+		AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+		context.register(LoadTestConfig.class);
+		context.addBeanFactoryPostProcessor(beanFactory -> beanFactory.registerSingleton("dataSource", applicationDataSource));
+
+		Tomcat tomcat = new Tomcat();
+		tomcat.setSilent(true);
+		tomcat.setBaseDir(Files.createTempDirectory("loadtest-tomcat").toString());
+		Connector connector = new Connector();
+		connector.setPort(0);
+		connector.setProperty("maxThreads", String.valueOf(threads));
+		tomcat.setConnector(connector);
+		StandardContext servletContext = (StandardContext) tomcat.addContext("", null);
+		// these leak checks of a redeployable web application need --add-opens and are of no use to a single run
+		servletContext.setClearReferencesObjectStreamClassCaches(false);
+		servletContext.setClearReferencesRmiTargets(false);
+		servletContext.setClearReferencesThreadLocals(false);
+		Wrapper dispatcher = Tomcat.addServlet(servletContext, "dispatcher", new DispatcherServlet(context));
+		dispatcher.setLoadOnStartup(1);
+		dispatcher.setAsyncSupported(true);
+		servletContext.addServletMappingDecoded("/", "dispatcher");
+		try {
+			tomcat.start();
+		} catch (LifecycleException | RuntimeException e) {
+			dataSource.close();
+			throw e;
+		}
+		return new LoadTestServer(tomcat, dataSource, context);
+	}
+
+	private static DataSource delayed(DataSource dataSource, Duration latency) {
+		return new DelegatingDataSource(dataSource) {
+
+			@Override
+			public Connection getConnection() throws SQLException {
+				Connection connection = super.getConnection();
+				try {
+					Thread.sleep(latency.toMillis());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return connection;
+			}
+		};
+	}
+
+	/**
+	 * @return the local port the server listens on
+	 */
+	public int port() {
+		return tomcat.getConnector().getLocalPort();
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	/**
+	 * Closes the application and the pool before Tomcat, which otherwise reports the threads of the pool as leaked.
+	 */
+	@Override
+	public void close() throws LifecycleException {
+		try {
+			context.close();
+		} finally {
+			dataSource.close();
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.jdsalasca.loadtest.support;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Service;
+
+import com.jdsalasca.crud.CrudServiceImpl;
+
+@Service
+public class LoadTestService extends CrudServiceImpl<LoadTestEntity, LoadTestDto, Long, LoadTestRepository> {
+
+	public LoadTestService(LoadTestRepository repository, ModelMapper modelMapper) {
+		super(repository, modelMapper);
+	}
+
+}
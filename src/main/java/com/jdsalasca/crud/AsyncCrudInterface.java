@@ -0,0 +1,188 @@
+package com.jdsalasca.crud;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+
+import com.jdsalasca.crud.fetch.FetchPlan;
+import com.jdsalasca.crud.filter.CrudFilter;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+
+/**
+
+Non blocking variant of {@link ICrudInterface}. Every operation is run on an executor and completes the returned
+future with the same response the blocking operation returns, so a Spring MVC controller can return the future
+and release the request thread while the database is being queried.
+
+@param <T> the type of the entity
+
+@param <K> the type of the DTO (Data Transfer Object) used to create or update the entity
+
+@param <ID> the type of the entity identifier
+
+@param <L> the type of the Spring Data JPA repository interface used to interact with the database
+
+@author jdsalasca
+*/
+public interface AsyncCrudInterface<T, K, ID extends Serializable, L extends JpaRepository<T, ID>> {
+
+    /**
+
+    Retrieves all the entities of type T.
+    @return a future completed with the response of {@link ICrudInterface#getAll()}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAll();
+    /**
+
+    Retrieves all the entities of type T unless the client already has them.
+    @param ifNoneMatch the If-None-Match header of the request, or null
+    @return a future completed with the response of {@link ICrudInterface#getAllIfNoneMatch(String)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAllIfNoneMatch(String ifNoneMatch);
+    /**
+
+    Retrieves one page of the entities of type T, including the total count of elements.
+    @param pageable the page number, size and sort to apply
+    @return a future completed with the response of {@link ICrudInterface#getAll(Pageable)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAll(Pageable pageable);
+    /**
+
+    Retrieves one page of the entities of type T without counting the total number of elements.
+    @param pageable the page number, size and sort to apply
+    @return a future completed with the response of {@link ICrudInterface#getAllSlice(Pageable)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAllSlice(Pageable pageable);
+    /**
+
+    Retrieves the next window of entities of type T using keyset pagination.
+    @param cursor the opaque continuation token returned by the previous call, or null for the first window
+    @param size the maximum number of entities to return
+    @param sort the sort to seek on
+    @return a future completed with the response of {@link ICrudInterface#getAllByCursor(String, int, Sort)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAllByCursor(String cursor, int size, Sort sort);
+    /**
+
+    Retrieves the entities of type T that match the given filter, filtered and sorted by the database.
+    @param filter the conditions the entities must match
+    @param sort the sort to apply
+    @param pageable the page to retrieve, or unpaged for all the matching entities
+    @return a future completed with the response of {@link ICrudInterface#getAll(CrudFilter, Sort, Pageable)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAll(CrudFilter filter, Sort sort, Pageable pageable);
+    /**
+
+    Retrieves the entity of type T identified by the given ID.
+    @param id the identifier of the entity
+    @return a future completed with the response of {@link ICrudInterface#getById(Serializable)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getById(ID id);
+    /**
+
+    Retrieves the entity of type T identified by the given ID unless the client already has it.
+    @param id the identifier of the entity
+    @param ifNoneMatch the If-None-Match header of the request, or null
+    @return a future completed with the response of {@link ICrudInterface#getByIdIfNoneMatch(Serializable, String)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getByIdIfNoneMatch(ID id, String ifNoneMatch);
+    /**
+
+    Retrieves all the entities of type T as the given projection.
+    @param <P> the projection type
+    @param projection an interface projection or a DTO class
+    @return a future completed with the response of {@link ICrudInterface#getAllProjected(Class)}
+    */
+    <P> CompletableFuture<ResponseEntity<DefaultResponse<P>>> getAllProjected(Class<P> projection);
+    /**
+
+    Retrieves the entity of type T identified by the given ID as the given projection.
+    @param <P> the projection type
+    @param id the identifier of the entity
+    @param projection an interface projection or a DTO class
+    @return a future completed with the response of {@link ICrudInterface#getByIdProjected(Serializable, Class)}
+    */
+    <P> CompletableFuture<ResponseEntity<DefaultResponse<P>>> getByIdProjected(ID id, Class<P> projection);
+    /**
+
+    Retrieves all the entities of type T with the associations of the fetch plan loaded in the same query.
+    @param fetchPlan a named entity graph or the attribute paths of the associations to load
+    @return a future completed with the response of {@link ICrudInterface#getAllWithPlan(FetchPlan)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAllWithPlan(FetchPlan fetchPlan);
+    /**
+
+    Retrieves the entity of type T identified by the given ID with the associations of the fetch plan loaded in the same query.
+    @param id the identifier of the entity
+    @param fetchPlan a named entity graph or the attribute paths of the associations to load
+    @return a future completed with the response of {@link ICrudInterface#getByIdWithPlan(Serializable, FetchPlan)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> getByIdWithPlan(ID id, FetchPlan fetchPlan);
+    /**
+
+    Saves a new entity of type T using the data contained in the provided DTO.
+    @param dto the DTO containing the data for the new entity
+    @param bindingResult the result of the data validation process
+    @param entityClass the class of the entity being created
+    @return a future completed with the response of {@link ICrudInterface#save(Object, BindingResult, Class)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> save(K dto, BindingResult bindingResult, Class<T> entityClass);
+    /**
+
+    Updates the entity of type T identified by the given ID using the data contained in the provided DTO.
+    @param id the identifier of the entity being updated
+    @param dto the DTO containing the updated data for the entity
+    @param bindingResult the result of the data validation process
+    @param entityClass the class of the entity being updated
+    @return a future completed with the response of {@link ICrudInterface#update(Serializable, Object, BindingResult, Class)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> update(ID id, K dto, BindingResult bindingResult, Class<T> entityClass);
+    /**
+
+    Updates only the non-null fields of the DTO on the entity of type T identified by the given ID, without loading it.
+    @param id the identifier of the entity being updated
+    @param dto the DTO whose non-null fields are written into the entity
+    @param entityClass the class of the entity being updated
+    @return a future completed with the response of {@link ICrudInterface#patch(Serializable, Object, Class)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> patch(ID id, K dto, Class<T> entityClass);
+    /**
+
+    Saves new entities of type T in batched chunks, validating each DTO on its own.
+    @param dtos the DTOs containing the data for the new entities
+    @param entityClass the class of the entities being created
+    @return a future completed with the response of {@link ICrudInterface#saveAll(List, Class)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> saveAll(List<K> dtos, Class<T> entityClass);
+    /**
+
+    Updates entities of type T in batched chunks, validating each DTO on its own.
+    @param dtos the DTOs containing the updated data, by the identifier of the entity to update
+    @param entityClass the class of the entities being updated
+    @return a future completed with the response of {@link ICrudInterface#updateAll(Map, Class)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> updateAll(Map<ID, K> dtos, Class<T> entityClass);
+    /**
+
+    Deletes the entity of type T identified by the given ID.
+    @param id the identifier of the entity being deleted
+    @return a future completed with the response of {@link ICrudInterface#deleteById(Serializable)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> deleteById(ID id);
+    /**
+
+    Deletes the entities of type T identified by the given IDs.
+    @param ids the identifiers of the entities being deleted
+    @return a future completed with the response of {@link ICrudInterface#deleteAllById(Collection)}
+    */
+    CompletableFuture<ResponseEntity<DefaultResponse<T>>> deleteAllById(Collection<ID> ids);
+
+}
@@ -0,0 +1,171 @@
+package com.jdsalasca.crud;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+
+import com.jdsalasca.crud.fetch.FetchPlan;
+import com.jdsalasca.crud.filter.CrudFilter;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+
+Runs the operations of a blocking {@link ICrudInterface} on an executor, see {@link AsyncCrudInterface}.
+
+The blocking service should be the Spring bean, not a new instance, so its transactions and injected collaborators
+apply to each call. Calls rejected by a saturated executor complete with a 503 response.
+
+@param <T> the entity type to perform CRUD operations on
+
+@param <K> the data transfer object (DTO) type used to receive or send data
+
+@param <ID> the type of the entity's id
+
+@param <R> the repository that will be used to access the entity data
+*/
+@Slf4j
+public class AsyncCrudServiceImpl<T, K, ID extends Serializable, R extends JpaRepository<T, ID>>
+implements AsyncCrudInterface<T, K, ID, R> {
+
+	private final ICrudInterface<T, K, ID, R> crudService;
+
+	private final Executor executor;
+
+	/**
+	 * Runs the calls on {@link CrudExecutors#shared()}.
+	 * @param crudService the blocking service
+	 */
+	public AsyncCrudServiceImpl(ICrudInterface<T, K, ID, R> crudService) {
+		this(crudService, CrudExecutors.shared());
+	}
+
+	/**
+	 * @param crudService the blocking service
+	 * @param executor the executor the calls run on
+	 */
+	public AsyncCrudServiceImpl(ICrudInterface<T, K, ID, R> crudService, Executor executor) {
+		this.crudService = crudService;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAll() {
+		return submit(() -> crudService.getAll());
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAllIfNoneMatch(String ifNoneMatch) {
+		return submit(() -> crudService.getAllIfNoneMatch(ifNoneMatch));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAll(Pageable pageable) {
+		return submit(() -> crudService.getAll(pageable));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAllSlice(Pageable pageable) {
+		return submit(() -> crudService.getAllSlice(pageable));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAllByCursor(String cursor, int size, Sort sort) {
+		return submit(() -> crudService.getAllByCursor(cursor, size, sort));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAll(CrudFilter filter, Sort sort, Pageable pageable) {
+		return submit(() -> crudService.getAll(filter, sort, pageable));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getById(ID id) {
+		return submit(() -> crudService.getById(id));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getByIdIfNoneMatch(ID id, String ifNoneMatch) {
+		return submit(() -> crudService.getByIdIfNoneMatch(id, ifNoneMatch));
+	}
+
+	@Override
+	public <P> CompletableFuture<ResponseEntity<DefaultResponse<P>>> getAllProjected(Class<P> projection) {
+		return submit(() -> crudService.getAllProjected(projection));
+	}
+
+	@Override
+	public <P> CompletableFuture<ResponseEntity<DefaultResponse<P>>> getByIdProjected(ID id, Class<P> projection) {
+		return submit(() -> crudService.getByIdProjected(id, projection));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getAllWithPlan(FetchPlan fetchPlan) {
+		return submit(() -> crudService.getAllWithPlan(fetchPlan));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> getByIdWithPlan(ID id, FetchPlan fetchPlan) {
+		return submit(() -> crudService.getByIdWithPlan(id, fetchPlan));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> save(K dto, BindingResult bindingResult, Class<T> entityClass) {
+		return submit(() -> crudService.save(dto, bindingResult, entityClass));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> update(ID id, K dto, BindingResult bindingResult, Class<T> entityClass) {
+		return submit(() -> crudService.update(id, dto, bindingResult, entityClass));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> patch(ID id, K dto, Class<T> entityClass) {
+		return submit(() -> crudService.patch(id, dto, entityClass));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> saveAll(List<K> dtos, Class<T> entityClass) {
+		return submit(() -> crudService.saveAll(dtos, entityClass));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> updateAll(Map<ID, K> dtos, Class<T> entityClass) {
+		return submit(() -> crudService.updateAll(dtos, entityClass));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> deleteById(ID id) {
+		return submit(() -> crudService.deleteById(id));
+	}
+
+	@Override
+	public CompletableFuture<ResponseEntity<DefaultResponse<T>>> deleteAllById(Collection<ID> ids) {
+		return submit(() -> crudService.deleteAllById(ids));
+	}
+
+	private <V> CompletableFuture<ResponseEntity<DefaultResponse<V>>> submit(Supplier<ResponseEntity<DefaultResponse<V>>> call) {
+		try {
+			return CompletableFuture.supplyAsync(call, executor);
+		} catch (RejectedExecutionException e) {
+			log.debug("call rejected by the executor: {}", e.getLocalizedMessage());
+			return CompletableFuture.completedFuture(
+					DefaultResponse.onThrow503Response(DEFAULTMESSAGES.SERVICE_UNAVAILABLE_MESSAGE.value()));
+		}
+	}
+
+}
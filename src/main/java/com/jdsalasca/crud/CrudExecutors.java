@@ -0,0 +1,106 @@
+package com.jdsalasca.crud;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executors for {@link AsyncCrudServiceImpl}.
+ * <p>
+ * On JDK 21 and later the default executor starts one virtual thread per call, so the number of
+ * calls waiting on the database is only bounded by the connection pool. On older JDKs it is a
+ * bounded pool of platform threads that rejects calls once its queue is full, which the service
+ * answers with a 503 instead of queueing without limit.
+ */
+@Slf4j
+public final class CrudExecutors {
+
+	public static final int DEFAULT_POOL_SIZE = 64;
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	private static final String THREAD_NAME_PREFIX = "crud-async-";
+
+	private CrudExecutors() {
+	}
+
+	/**
+	 * @return the executor shared by the services created without one, created on first use
+	 */
+	public static ExecutorService shared() {
+		return SharedHolder.EXECUTOR;
+	}
+
+	/**
+	 * @return a virtual thread per task executor when the JDK supports it, a bounded pool otherwise
+	 */
+	public static ExecutorService newDefaultExecutor() {
+		ExecutorService executor = newVirtualThreadExecutor();
+		return (executor != null) ? executor : newBoundedExecutor(DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates an executor that starts a new virtual thread for each task. Virtual threads are reached
+	 * through reflection because they only exist on JDK 21 and later, which the library does not require.
+	 * @return the executor, or null if the running JDK has no virtual threads
+	 */
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+			ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+			Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+		} catch (ReflectiveOperationException e) {
+			log.debug("virtual threads are not available in Java {}", System.getProperty("java.version"));
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a pool of daemon platform threads with a bounded queue. Tasks submitted when every
+	 * thread is busy and the queue is full are rejected with a
+	 * {@link java.util.concurrent.RejectedExecutionException}.
+	 * @param poolSize the number of threads, usually the size of the connection pool
+	 * @param queueCapacity the number of tasks that can wait for a thread
+	 * @return the executor
+	 */
+	public static ExecutorService newBoundedExecutor(int poolSize, int queueCapacity) {
+		return newBoundedExecutor(THREAD_NAME_PREFIX, poolSize, queueCapacity);
+	}
+
+	/**
+	 * Same as {@link #newBoundedExecutor(int, int)} with threads named after the given prefix.
+	 * @param threadNamePrefix the prefix of the thread names, followed by their number
+	 * @param poolSize the number of threads
+	 * @param queueCapacity the number of tasks that can wait for a thread
+	 * @return the executor
+	 */
+	public static ExecutorService newBoundedExecutor(String threadNamePrefix, int poolSize, int queueCapacity) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static final class SharedHolder {
+
+		private static final ExecutorService EXECUTOR = newDefaultExecutor();
+
+	}
+
+}
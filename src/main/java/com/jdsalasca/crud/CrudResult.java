@@ -0,0 +1,66 @@
+package com.jdsalasca.crud;
+
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+
+import com.jdsalasca.crud.metrics.CrudOutcome;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+
+/**
+ * Result of a step of a {@link CrudServiceImpl} operation: a value, or the outcome and the response
+ * the operation ends with. The failures a request can cause, such as invalid input or a missing
+ * entity, travel as results instead of exceptions, so they do not pay for a stack trace.
+ * @param <V> the type of the value
+ * @param <T> the entity type of the response
+ */
+final class CrudResult<V, T> {
+
+	private final V value;
+	private final CrudOutcome outcome;
+	private final ResponseEntity<DefaultResponse<T>> response;
+
+	private CrudResult(V value, CrudOutcome outcome, ResponseEntity<DefaultResponse<T>> response) {
+		this.value = value;
+		this.outcome = outcome;
+		this.response = response;
+	}
+
+	static <V, T> CrudResult<V, T> ok(V value) {
+		return new CrudResult<>(value, null, null);
+	}
+
+	/**
+	 * @param outcome the outcome recorded in the metrics
+	 * @param response the response the operation ends with
+	 */
+	static <V, T> CrudResult<V, T> failure(CrudOutcome outcome, ResponseEntity<DefaultResponse<T>> response) {
+		return new CrudResult<>(null, outcome, response);
+	}
+
+	boolean isOk() {
+		return outcome == null;
+	}
+
+	V value() {
+		return value;
+	}
+
+	CrudOutcome outcome() {
+		return outcome;
+	}
+
+	ResponseEntity<DefaultResponse<T>> response() {
+		return response;
+	}
+
+	/**
+	 * @param next the next step, given the value
+	 * @return the result of the next step, or this failure without running it
+	 */
+	@SuppressWarnings("unchecked")
+	<U> CrudResult<U, T> then(Function<? super V, CrudResult<U, T>> next) {
+		return isOk() ? next.apply(value) : (CrudResult<U, T>) this;
+	}
+
+}
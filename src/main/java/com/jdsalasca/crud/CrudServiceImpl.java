@@ -1,21 +1,118 @@
 package com.jdsalasca.crud;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 
+import org.modelmapper.ConfigurationException;
+import org.modelmapper.MappingException;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.Validator;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.jdsalasca.crud.cache.EntityCache;
+import com.jdsalasca.crud.cache.EntityCacheRegistry;
+import com.jdsalasca.crud.conditional.EntityTag;
+import com.jdsalasca.crud.fetch.FetchPlan;
+import com.jdsalasca.crud.filter.CrudFilter;
+import com.jdsalasca.crud.limit.AdaptiveConcurrencyLimit;
+import com.jdsalasca.crud.loader.BatchEntityLoader;
+import com.jdsalasca.crud.mapping.CompiledEntityMapper;
+import com.jdsalasca.crud.mapping.EntityMapper;
+import com.jdsalasca.crud.mapping.PartialUpdate;
+import com.jdsalasca.crud.metrics.CrudMetrics;
+import com.jdsalasca.crud.metrics.CrudOperation;
+import com.jdsalasca.crud.metrics.CrudOutcome;
+import com.jdsalasca.crud.projection.ColumnProjection;
+import com.jdsalasca.crud.statement.StatementCounter;
+import com.jdsalasca.crud.statement.StatementCountingDataSource;
+import com.jdsalasca.crud.writebehind.WriteBehindQueue;
+import com.jdsalasca.crud.paging.CursorCodec;
+import com.jdsalasca.crud.paging.CursorSlice;
 import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponse.DATATYPE;
 import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
-import com.jdsalasca.exceptions.EntityNotFoundException;
+import com.jdsalasca.defaultresponse.DefaultResponse.MESSAGETYPES;
+import com.jdsalasca.defaultresponse.DefaultResponseStreamWriter;
+import com.jdsalasca.defaultresponse.DefaultResponseStreamWriter.STREAMFORMAT;
+import com.jdsalasca.defaultresponse.Error;
+import com.jdsalasca.defaultresponse.Message;
+import com.jdsalasca.exceptions.StatementCountExceededException;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 
@@ -34,14 +131,421 @@ It implements the {@link com.jdsk.people.interfaces.ICrudInterface} interface.
 @param <R> the repository that will be used to access the entity data
 */
 @Slf4j
-@RequiredArgsConstructor
 public abstract class CrudServiceImpl<T, K, ID extends Serializable, R extends JpaRepository<T, ID>>
-implements ICrudInterface<T, K, ID, R> {
+implements ICrudInterface<T, K, ID, R>, DisposableBean {
 
 	
 	private final R repository;
 
 	private final ModelMapper modelMapper;
+
+	/**
+	 * The repository when it is a {@link JpaSpecificationExecutor}, otherwise a {@link SimpleJpaRepository} of the entity
+	 * over the entity manager of the service, created on first use. Runs the slices, cursors and filters.
+	 */
+	private JpaSpecificationExecutor<T> specificationExecutor;
+
+	/**
+	 * Specification without restrictions, used to reach the fluent query API of the repository.
+	 */
+	private final Specification<T> unrestricted = (root, query, criteriaBuilder) -> null;
+
+	private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+
+	private static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+
+	/**
+	 * Number of threads running the queries of the batch loader created by {@link #enableBatchLoading(Duration, int, Duration)}.
+	 */
+	public static final int BATCH_LOADER_THREADS = 4;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Rows fetched per round trip by {@link #streamAll}, the persistence context is cleared after each of these chunks.
+	 */
+	@Setter
+	private int streamFetchSize = 500;
+
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * Maps the DTOs into entities in {@link #save} and {@link #update}. Defaults to a
+	 * {@link CompiledEntityMapper} that falls back to the {@link ModelMapper} of the service.
+	 */
+	@Setter
+	private EntityMapper<K, T> entityMapper;
+
+	protected EntityMapper<K, T> getEntityMapper() {
+		if (entityMapper == null) {
+			entityMapper = new CompiledEntityMapper<>(modelMapper);
+		}
+		return entityMapper;
+	}
+
+	/**
+	 * Number of items written per transaction by {@link #saveAll} and {@link #updateAll}. Set
+	 * {@code hibernate.jdbc.batch_size} to the same value so each chunk is sent in one JDBC batch.
+	 */
+	@Setter
+	private int batchChunkSize = 50;
+
+	private Validator validator;
+
+	private TransactionTemplate chunkTransaction;
+
+	private TransactionTemplate writeTransaction;
+
+	private TransactionTemplate readTransaction;
+
+	/**
+	 * Properties written by {@link #patch} by DTO class.
+	 */
+	private final Map<Class<?>, PartialUpdate> partialUpdates = new ConcurrentHashMap<>();
+
+	/**
+	 * Read-through cache of {@link #getById}, disabled when null. Writes through this service evict its entries.
+	 * It holds shallow copies, so changes made by callers to the entities they receive never reach it. Only the
+	 * basic and embedded state is cached: the entities served from the cache have their associations and element
+	 * collections unset, use {@link #getByIdWithPlan} for the reads that need them.
+	 */
+	@Setter
+	private EntityCache<ID, T> entityCache;
+
+	/**
+	 * Whether {@link #getById} answers with {@link DATATYPE#OBJECT}, the entity itself as {@code data}
+	 * instead of a list of one. Off by default as it changes the JSON the clients read.
+	 */
+	@Setter
+	private boolean objectResponseById;
+
+	/**
+	 * Largest window returned by {@link #getAllByCursor}, a larger size is reduced to it as Spring Data
+	 * does with the size of a {@link Pageable} ({@code spring.data.web.pageable.max-page-size}).
+	 */
+	@Setter
+	private int maxCursorSize = 2000;
+
+	/**
+	 * Number of ids deleted per statement and transaction by {@link #deleteAllById}.
+	 */
+	@Setter
+	private int deleteChunkSize = 1000;
+
+	/**
+	 * Name of a boolean attribute of the entity that marks it as deleted. When set, {@link #deleteById} and
+	 * {@link #deleteAllById} set it to true instead of deleting the rows, incrementing the {@code @Version} and
+	 * setting the last modification time in the same statement as {@link #patch} does; the reads of this service
+	 * do not filter on it, which is left to the entity mapping (e.g. Hibernate's {@code @SQLRestriction}).
+	 */
+	@Setter
+	private String softDeleteAttribute;
+
+	/**
+	 * Attributes of the entity that {@link #getAll(CrudFilter, Sort, Pageable)} can filter and sort on, none by default.
+	 * Keep it to indexed columns.
+	 */
+	@Setter
+	private Set<String> filterableAttributes = Collections.emptySet();
+
+	/**
+	 * Coalesces concurrent {@link #getById} calls into IN queries, disabled when null.
+	 * @see #enableBatchLoading
+	 */
+	@Setter
+	private BatchEntityLoader<ID, T> batchLoader;
+
+	/**
+	 * Runs the batches of {@link #batchLoader} when it was created by {@link #enableBatchLoading(Duration, int, Duration)}.
+	 */
+	private ExecutorService batchLoaderExecutor;
+
+	/**
+	 * Queues the DTOs accepted by {@link #save} to be written in batches, disabled when null.
+	 * @see #enableWriteBehind
+	 */
+	private volatile WriteBehindQueue<PendingSave<K, T>> writeBehind;
+
+	/**
+	 * How long {@link #save} waits for room in the write-behind queue, zero to answer 429 at once.
+	 */
+	private Duration writeBehindMaxWait = Duration.ZERO;
+
+	/**
+	 * How long {@link #destroy} waits for the write-behind queue to be written.
+	 */
+	@Setter
+	private Duration writeBehindDrainTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * Adaptive limit of the calls in flight per operation, disabled when null.
+	 * @see #enableConcurrencyLimit
+	 */
+	private Map<CrudOperation, AdaptiveConcurrencyLimit> concurrencyLimits;
+
+	/**
+	 * Number of SQL statements above which a call is reported, disabled when zero.
+	 * @see #enableStatementCountCheck
+	 */
+	private int statementThreshold;
+
+	/**
+	 * Whether a call above {@code statementThreshold} throws instead of logging a warning.
+	 */
+	private boolean failOnStatementThreshold;
+
+	private CrudMetrics crudMetrics = CrudMetrics.NOOP;
+
+	private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+	/**
+	 * How each projection type of {@link #getAllProjected(Class)} and {@link #getByIdProjected(Serializable, Class)} is built.
+	 */
+	private final Map<Class<?>, ColumnProjection<?>> projections = new ConcurrentHashMap<>();
+
+	/**
+	 * Fields of the associations and element collections of each entity class, left unset in the copies of {@link #entityCache}.
+	 */
+	private final Map<Class<?>, List<Field>> uncachedFields = new ConcurrentHashMap<>();
+
+	private Class<?> entityType;
+
+	/**
+	 * How the {@code ETag} of {@link #getAllIfNoneMatch(String)} and {@link #getByIdIfNoneMatch(Serializable, String)} is computed.
+	 */
+	private EntityTag entityTag;
+
+	@SuppressWarnings("unchecked")
+	public CrudServiceImpl(R repository, ModelMapper modelMapper) {
+		this.repository = repository;
+		this.modelMapper = modelMapper;
+		if (repository instanceof JpaSpecificationExecutor) {
+			this.specificationExecutor = (JpaSpecificationExecutor<T>) repository;
+		}
+	}
+
+	/**
+	 * Replaces the mapper used by {@link #streamAll} with the one configured in the application, if any.
+	 * @param objectMapper the application mapper
+	 */
+	@Autowired(required = false)
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Enables the cache registered for the entity type of this service, if any.
+	 * @param entityCacheRegistry the application cache registry
+	 */
+	@Autowired(required = false)
+	@SuppressWarnings("unchecked")
+	public void setEntityCacheRegistry(EntityCacheRegistry entityCacheRegistry) {
+		if (entityType() != Object.class) {
+			this.entityCache = entityCacheRegistry.cacheFor((Class<T>) entityType());
+		}
+	}
+
+	/**
+	 * Sets where the latency, outcome and result size of the reads, {@link #getAll()} and its paged, sliced, cursor,
+	 * filtered, projected and fetch plan variants, {@link #getById}, and of {@link #save}, {@link #saveAll},
+	 * {@link #update}, {@link #updateAll}, {@link #patch}, {@link #deleteById} and {@link #deleteAllById} are reported.
+	 * The paged variants are reported as {@link CrudOperation#GET_ALL}.
+	 * @param crudMetrics the application metrics, {@link CrudMetrics#NOOP} to disable them
+	 */
+	@Autowired(required = false)
+	public void setCrudMetrics(CrudMetrics crudMetrics) {
+		this.crudMetrics = crudMetrics;
+		if (writeBehind != null) {
+			crudMetrics.monitorWriteBehindDepth(entityType(), this::writeBehindDepth);
+		}
+		if (concurrencyLimits != null) {
+			concurrencyLimits.forEach((operation, limit) -> crudMetrics.monitorConcurrencyLimit(entityType(), operation, limit::limit));
+		}
+	}
+
+	/**
+	 * Makes {@link #getById} wait for the ids requested by other callers during the given window, or until
+	 * {@code maxBatchSize} ids are collected, and load them all with one {@code findAllById} query on a pool
+	 * of {@link #BATCH_LOADER_THREADS} threads of its own, closed by {@link #destroy}. Callers asking for the
+	 * same id while the batch collects share one load and one entity instance, which is detached once the query ends.
+	 * @param window how long a batch collects ids, a few milliseconds
+	 * @param maxBatchSize the number of ids that sends a batch before its window closes
+	 * @param timeout how long {@link #getById} waits for its entity before answering 503
+	 */
+	public void enableBatchLoading(Duration window, int maxBatchSize, Duration timeout) {
+		ExecutorService executor = CrudExecutors.newBoundedExecutor("crud-batch-loader-", BATCH_LOADER_THREADS,
+				CrudExecutors.DEFAULT_QUEUE_CAPACITY);
+		enableBatchLoading(window, maxBatchSize, timeout, executor);
+		this.batchLoaderExecutor = executor;
+	}
+
+	/**
+	 * Same as {@link #enableBatchLoading(Duration, int, Duration)} with the batches run on the given executor.
+	 * {@link #getById} blocks until its batch is loaded, so the executor must not be the one {@link #getById}
+	 * is called on, such as the executor of an {@link AsyncCrudServiceImpl}.
+	 * @param window how long a batch collects ids, a few milliseconds
+	 * @param maxBatchSize the number of ids that sends a batch before its window closes
+	 * @param timeout how long {@link #getById} waits for its entity before answering 503
+	 * @param executor runs the {@code findAllById} queries, owned by the caller
+	 */
+	public void enableBatchLoading(Duration window, int maxBatchSize, Duration timeout, Executor executor) {
+		this.batchLoader = new BatchEntityLoader<>(repository::findAllById, this::identifierOf, window, maxBatchSize,
+				timeout, executor);
+		if (batchLoaderExecutor != null) {
+			batchLoaderExecutor.shutdown();
+			batchLoaderExecutor = null;
+		}
+	}
+
+	/**
+	 * Makes {@link #save} answer 202 once the DTO is validated and queued, instead of writing it in its own transaction.
+	 * A background thread maps the queued DTOs and saves them in one transaction per batch of {@code flushSize} DTOs, or
+	 * of the DTOs queued during {@code flushInterval}; when a batch fails its DTOs are saved one by one and the rejected
+	 * ones are logged, since their callers are gone. The DTOs must not be modified after being passed to {@link #save}.
+	 * <p>
+	 * When the queue is full {@link #save} answers 429 at once, or waits up to {@code maxWait} for room and then answers 503.
+	 * The flush latency is reported as {@link CrudOperation#WRITE_BEHIND_FLUSH} and the queue depth through
+	 * {@link CrudMetrics#monitorWriteBehindDepth}. The queue is written before the application context closes, see {@link #destroy}.
+	 * Set {@code hibernate.jdbc.batch_size} to {@code flushSize} so each batch is sent in one JDBC batch.
+	 * @param capacity the maximum number of DTOs waiting to be written
+	 * @param flushSize the number of DTOs written per transaction
+	 * @param flushInterval the longest time a DTO waits for its batch to fill
+	 * @param maxWait how long {@link #save} waits for room in a full queue, zero to reject at once
+	 */
+	public void enableWriteBehind(int capacity, int flushSize, Duration flushInterval, Duration maxWait) {
+		WriteBehindQueue<PendingSave<K, T>> previous = writeBehind;
+		this.writeBehindMaxWait = maxWait;
+		this.writeBehind = new WriteBehindQueue<>(entityType().getSimpleName(), capacity, flushSize, flushInterval, this::flushWriteBehind);
+		if (previous != null) {
+			previous.close(writeBehindDrainTimeout);
+		} else {
+			crudMetrics.monitorWriteBehindDepth(entityType(), this::writeBehindDepth);
+		}
+	}
+
+	/**
+	 * Depth of the current write-behind queue, the gauge is registered once and follows the queue when it is replaced.
+	 */
+	private int writeBehindDepth() {
+		WriteBehindQueue<PendingSave<K, T>> queue = writeBehind;
+		return (queue != null) ? queue.depth() : 0;
+	}
+
+	/**
+	 * Bulkhead of this service: bounds the calls in flight of each operation reported to {@link CrudMetrics}, so a slow table
+	 * cannot take all the connections of the pool shared with the other services. Each limit starts at
+	 * {@code initialLimit} and adapts to the latency, see {@link AdaptiveConcurrencyLimit}: it shrinks while the calls
+	 * take longer than {@code latencyThreshold} or fail, and grows back up to {@code maxLimit} once they are fast again.
+	 * The calls beyond the limit are answered 503 at once and reported as {@link CrudOutcome#REJECTED}. Keep
+	 * {@code maxLimit} below the size of the connection pool. {@link #streamAll} and the saves queued by
+	 * {@link #enableWriteBehind} are not limited.
+	 * @param initialLimit the limit of each operation before its first calls complete
+	 * @param maxLimit the highest limit of each operation
+	 * @param latencyThreshold the latency above which a call is taken as a sign of overload
+	 */
+	public void enableConcurrencyLimit(int initialLimit, int maxLimit, Duration latencyThreshold) {
+		Map<CrudOperation, AdaptiveConcurrencyLimit> limits = new EnumMap<>(CrudOperation.class);
+		for (CrudOperation operation : CrudOperation.values()) {
+			if (operation != CrudOperation.WRITE_BEHIND_FLUSH) {
+				AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, 1, maxLimit, latencyThreshold,
+						AdaptiveConcurrencyLimit.DEFAULT_BACKOFF_RATIO);
+				limits.put(operation, limit);
+				crudMetrics.monitorConcurrencyLimit(entityType(), operation, limit::limit);
+			}
+		}
+		this.concurrencyLimits = limits;
+	}
+
+	/**
+	 * Counts the SQL statements of each call of {@link #getAll()}, {@link #getById}, {@link #save}, {@link #update},
+	 * {@link #patch}, {@link #deleteById} and {@link #deleteAllById}, and logs a warning, or throws a {@link StatementCountExceededException} when {@code fail} is true, for the calls that run more
+	 * than {@code threshold}. This finds the N+1 queries of associations loaded one by one; pass a {@link FetchPlan} to
+	 * load them with the entities. Requires the data source of the entity manager factory to be wrapped in a
+	 * {@link StatementCountingDataSource}. Lazy associations first touched while the response is serialized, after the
+	 * call, are not counted here; open a {@link StatementCounter} scope around the whole request to count them.
+	 * @param threshold the highest number of statements expected from one call, zero to disable the check
+	 * @param fail whether to throw instead of logging a warning, as in tests
+	 */
+	public void enableStatementCountCheck(int threshold, boolean fail) {
+		this.statementThreshold = threshold;
+		this.failOnStatementThreshold = fail;
+	}
+
+	/**
+	 * @param operation the operation
+	 * @return the concurrency limit of the operation, or null if {@link #enableConcurrencyLimit} was not called
+	 */
+	public AdaptiveConcurrencyLimit getConcurrencyLimit(CrudOperation operation) {
+		return (concurrencyLimits != null) ? concurrencyLimits.get(operation) : null;
+	}
+
+	/**
+	 * @return the write-behind queue of {@link #save}, or null if it is not enabled
+	 */
+	public WriteBehindQueue<?> getWriteBehindQueue() {
+		return writeBehind;
+	}
+
+	/**
+	 * Writes the DTOs still in the write-behind queue, if any, waiting up to {@code writeBehindDrainTimeout}.
+	 * {@link #save} answers 503 from then on.
+	 */
+	@Override
+	public void destroy() {
+		if (writeBehind != null) {
+			writeBehind.close(writeBehindDrainTimeout);
+		}
+		if (batchLoaderExecutor != null) {
+			batchLoaderExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * @return the entity type resolved from the generic declaration of the service, or Object if it cannot be resolved
+	 */
+	protected Class<?> entityType() {
+		if (entityType == null) {
+			Class<?>[] types = GenericTypeResolver.resolveTypeArguments(ClassUtils.getUserClass(getClass()), CrudServiceImpl.class);
+			entityType = (types != null) ? types[0] : Object.class;
+		}
+		return entityType;
+	}
+
+	/**
+	 * Sets the validator applied to each item of {@link #saveAll} and {@link #updateAll}.
+	 * @param validator the application validator
+	 */
+	@Autowired(required = false)
+	public void setValidator(Validator validator) {
+		this.validator = validator;
+	}
+
+	/**
+	 * Sets the transaction manager used to run each chunk of {@link #saveAll} and {@link #updateAll}
+	 * in its own transaction, independent of the caller's one, and {@link #patch} in the caller's
+	 * transaction or a new one. Without it each chunk relies on the transactions of the repository,
+	 * {@link #updateAll} merges detached entities and {@link #patch} requires a transaction to be active.
+	 * <p>
+	 * The reads of several queries, or of queries on the entity manager, such as {@link #streamAll},
+	 * the conditional, projected and fetch plan reads, run in a read-only transaction when the caller
+	 * has none: Hibernate loads the entities read-only, without the snapshots kept for dirty checking,
+	 * and does not flush the session (flush mode {@code MANUAL}). All their queries share that
+	 * transaction, so a {@link com.jdsalasca.crud.routing.ReadReplicaRoutingDataSource} sends them to the
+	 * replica. The reads of one repository call get the same from the read-only transaction of the
+	 * repository itself. A read
+	 * inside a transaction of the caller joins it and keeps its semantics, and with open-in-view the
+	 * entity manager of the request is only switched to flush mode {@code MANUAL}.
+	 * @param transactionManager the application transaction manager
+	 */
+	@Autowired(required = false)
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.chunkTransaction = new TransactionTemplate(transactionManager);
+		this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.writeTransaction = new TransactionTemplate(transactionManager);
+		this.readTransaction = new TransactionTemplate(transactionManager);
+		this.readTransaction.setReadOnly(true);
+	}
     
     /**
 
@@ -53,6 +557,36 @@ implements ICrudInterface<T, K, ID, R> {
     */
     @Override 
     public ResponseEntity<DefaultResponse<T>> getAll() {
+    	return measured(CrudOperation.GET_ALL, this::findAllResponse);
+    }
+
+    /**
+
+    Returns all entities unless the client already has them. The {@code ETag} of the list is computed before the
+    entities are loaded, with one aggregate query over the table or, unless the ids are numbers, by reading the id
+    and version of each row, see {@link EntityTag}.
+    @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+    @return a {@link org.springframework.http.ResponseEntity} with status 304 and no body if the header matches
+    the current {@code ETag}, otherwise the response of {@link #getAll()} with the {@code ETag} header set when
+    the entity has a version or last modification attribute.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> getAllIfNoneMatch(String ifNoneMatch) {
+    	return measured(CrudOperation.GET_ALL, () -> inReadTransaction(() -> {
+    		EntityTag entityTag = entityTag();
+    		if (!entityTag.isSupported()) {
+    			return findAllResponse();
+    		}
+    		String tag = entityTag.aggregatesRows() ? entityTag.forAggregates(aggregates(entityTag)) : rowsTag(entityTag);
+    		if (EntityTag.matches(ifNoneMatch, tag)) {
+    			return DefaultResponse.onThrow304Response(tag);
+    		}
+    		ResponseEntity<DefaultResponse<T>> response = findAllResponse();
+    		return response.getStatusCode().is2xxSuccessful() ? DefaultResponse.withETag(response, tag) : response;
+    	}));
+    }
+
+    private ResponseEntity<DefaultResponse<T>> findAllResponse() {
     	List<T> entities  = repository.findAll();
     	if (entities.isEmpty()) {
     		return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
@@ -61,6 +595,245 @@ implements ICrudInterface<T, K, ID, R> {
     	}
     }
 
+    /**
+
+    Returns one page of entities, counting the total number of elements.
+    @param pageable the page to retrieve
+    @return a {@link org.springframework.http.ResponseEntity} with status 200, the page content and the page information,
+    or status 404 if the page is empty.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> getAll(Pageable pageable) {
+    	return measured(CrudOperation.GET_ALL, () -> findPageResponse(pageable));
+    }
+
+    private ResponseEntity<DefaultResponse<T>> findPageResponse(Pageable pageable) {
+    	Page<T> page = repository.findAll(pageable);
+    	if (!page.hasContent()) {
+    		return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    	}
+    	return DefaultResponse.onThrow200Response(page.getContent(), page);
+    }
+
+    /**
+
+    Returns one page of entities without the count query, one extra row is read to know if there is a next page.
+    @param pageable the page to retrieve
+    @return a {@link org.springframework.http.ResponseEntity} with status 200, the slice content and the slice information,
+    or status 404 if the slice is empty.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> getAllSlice(Pageable pageable) {
+    	return measured(CrudOperation.GET_ALL, () -> findSliceResponse(pageable));
+    }
+
+    private ResponseEntity<DefaultResponse<T>> findSliceResponse(Pageable pageable) {
+    	if (pageable.isUnpaged()) {
+    		return findPageResponse(pageable);
+    	}
+    	Window<T> window = inReadTransaction(() -> specificationExecutor().findBy(unrestricted, query -> query.sortBy(pageable.getSort())
+    			.limit(pageable.getPageSize()).scroll(ScrollPosition.offset(pageable.getOffset()))));
+    	if (window.isEmpty()) {
+    		return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    	}
+    	Slice<T> slice = new SliceImpl<>(window.getContent(), pageable, window.hasNext());
+    	return DefaultResponse.onThrow200Response(slice.getContent(), slice);
+    }
+
+    /**
+
+    Returns the window of entities following the given cursor using keyset pagination.
+    @param cursor the token returned by the previous call, or null for the first window
+    @param size the maximum number of entities to return, reduced to {@code maxCursorSize}
+    @param sort the sort to seek on, the id is appended by Spring Data to keep the order stable; it must be the sort of
+    the call that returned the cursor
+    @return a {@link org.springframework.http.ResponseEntity} with status 200, the window content and a
+    {@link CursorSlice} with the next cursor, status 400 if the cursor is invalid or was returned for another sort,
+    or status 404 if the window is empty.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> getAllByCursor(String cursor, int size, Sort sort) {
+    	return measured(CrudOperation.GET_ALL, () -> findCursorResponse(cursor, size, sort));
+    }
+
+    private ResponseEntity<DefaultResponse<T>> findCursorResponse(String cursor, int size, Sort sort) {
+    	int limit = Math.min(Math.max(size, 1), maxCursorSize);
+    	KeysetScrollPosition position;
+    	try {
+    		position = (cursor == null || cursor.isEmpty()) ? ScrollPosition.keyset() : ScrollPosition.forward(CursorCodec.decode(cursor));
+    	} catch (IllegalArgumentException e) {
+    		return DefaultResponse.onThrow400ResponseTypeInfo(DEFAULTMESSAGES.INVALID_CURSOR_MESSAGE.value());
+    	}
+    	if (!position.isInitial() && !cursorMatches(position.getKeys(), sort)) {
+    		return DefaultResponse.onThrow400ResponseTypeInfo(DEFAULTMESSAGES.INVALID_CURSOR_MESSAGE.value());
+    	}
+    	Window<T> window = inReadTransaction(() -> specificationExecutor().findBy(unrestricted, query -> query.sortBy(sort).limit(limit).scroll(position)));
+    	if (window.isEmpty()) {
+    		return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    	}
+    	String nextCursor = null;
+    	if (window.hasNext()) {
+    		KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+    		nextCursor = CursorCodec.encode(last.getKeys());
+    	}
+    	CursorSlice<T> slice = new CursorSlice<>(window.getContent(), PageRequest.of(0, limit, sort), window.hasNext(), nextCursor);
+    	return DefaultResponse.onThrow200Response(slice.getContent(), slice);
+    }
+
+    /**
+     * Whether the keys of a cursor are the ones the sort seeks on, its properties and the id, with values of the type of
+     * their attributes, so a cursor sent with another sort is answered 400 instead of failing in the query.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean cursorMatches(Map<String, Object> keys, Sort sort) {
+    	EntityType<T> entityType = entityManager.getMetamodel().entity((Class<T>) entityType());
+    	Set<String> expected = new LinkedHashSet<>();
+    	for (Sort.Order order : sort) {
+    		expected.add(order.getProperty());
+    	}
+    	if (entityType.hasSingleIdAttribute()) {
+    		expected.add(entityType.getId(entityType.getIdType().getJavaType()).getName());
+    	}
+    	if (!expected.equals(keys.keySet())) {
+    		return false;
+    	}
+    	for (Map.Entry<String, Object> key : keys.entrySet()) {
+    		if (key.getValue() == null || key.getKey().indexOf('.') >= 0) {
+    			continue;
+    		}
+    		try {
+    			Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(entityType.getAttribute(key.getKey()).getJavaType());
+    			if (!type.isInstance(key.getValue())) {
+    				return false;
+    			}
+    		} catch (IllegalArgumentException e) {
+    			return false;
+    		}
+    	}
+    	return true;
+    }
+
+    /**
+
+    Returns the entities matching the filter, with the conditions and the sort in the SQL query so only the
+    matching rows are read, through the repository when it is a {@link JpaSpecificationExecutor}, otherwise through
+    a {@link SimpleJpaRepository} of the entity.
+    @param filter the conditions on the {@code filterableAttributes}, such as the one {@link CrudFilter#parse} reads from
+    the request, null for all the entities
+    @param sort the sort on the {@code filterableAttributes}, it replaces the sort of the pageable when it is sorted
+    @param pageable the page to retrieve, with a count query, or null or unpaged for all the matching entities
+    @return a {@link org.springframework.http.ResponseEntity} with status 200 and the matching entities, with the page
+    information when paged, status 400 if a filter parameter could not be parsed, or the filter or the sort uses an
+    attribute that is not allowed or a value of the wrong type, or status 404 if no entity matches.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> getAll(CrudFilter filter, Sort sort, Pageable pageable) {
+    	return measured(CrudOperation.GET_ALL, () -> {
+    		Sort sorting = (sort != null && sort.isSorted()) ? sort : (pageable != null) ? pageable.getSort() : Sort.unsorted();
+    		Specification<T> specification;
+    		try {
+    			specification = filterSpecification(filter, sorting);
+    		} catch (IllegalArgumentException e) {
+    			return DefaultResponse.onThrow400ResponseTypeInfo(DEFAULTMESSAGES.INVALID_FILTER_MESSAGE.value() + e.getLocalizedMessage());
+    		}
+    		return inReadTransaction(() -> {
+    			if (pageable == null || pageable.isUnpaged()) {
+    				List<T> entities = specificationExecutor().findAll(specification, sorting);
+    				if (entities.isEmpty()) {
+    					return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    				}
+    				return DefaultResponse.onThrow200Response(entities);
+    			}
+    			Page<T> page = specificationExecutor().findAll(specification,
+    					PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sorting));
+    			if (!page.hasContent()) {
+    				return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    			}
+    			return DefaultResponse.onThrow200Response(page.getContent(), page);
+    		});
+    	});
+    }
+
+    @SuppressWarnings("unchecked")
+    private Specification<T> filterSpecification(CrudFilter filter, Sort sort) {
+    	for (Sort.Order order : sort) {
+    		if (!filterableAttributes.contains(order.getProperty())) {
+    			throw new IllegalArgumentException("Sorting on " + order.getProperty() + " is not allowed");
+    		}
+    	}
+    	EntityType<T> entityType = entityManager.getMetamodel().entity((Class<T>) entityType());
+    	return (filter != null ? filter : CrudFilter.empty()).toSpecification(entityType, filterableAttributes);
+    }
+
+    /**
+
+    Streams all the entities through a JDBC cursor with {@code streamFetchSize} rows per fetch.
+    The persistence context is cleared every {@code streamFetchSize} rows so the written entities can be collected.
+    The envelope reports status 200 only when every row was written; when reading the rows fails it is closed with
+    status 500, see {@link DefaultResponseStreamWriter#writeError()}, and the exception is thrown.
+    @param entityClass the class of the entities to stream
+    @param outputStream the stream to write to, it is flushed but not closed
+    @param format the output format
+    @return the number of entities written, 0 when the 404 envelope was written instead
+    @throws IOException if writing to the output stream fails
+    */
+    @Override
+    public long streamAll(Class<T> entityClass, OutputStream outputStream, STREAMFORMAT format) throws IOException {
+    	try {
+    		return inReadTransaction(() -> {
+    			try {
+    				return writeAll(entityClass, outputStream, format);
+    			} catch (IOException e) {
+    				throw new UncheckedIOException(e);
+    			}
+    		});
+    	} catch (UncheckedIOException e) {
+    		throw e.getCause();
+    	}
+    }
+
+    private long writeAll(Class<T> entityClass, OutputStream outputStream, STREAMFORMAT format) throws IOException {
+    	CriteriaQuery<T> criteria = entityManager.getCriteriaBuilder().createQuery(entityClass);
+    	criteria.select(criteria.from(entityClass));
+    	TypedQuery<T> query = entityManager.createQuery(criteria)
+    			.setHint(HINT_FETCH_SIZE, streamFetchSize)
+    			.setHint(HINT_READ_ONLY, true);
+    	long count = 0;
+    	try (DefaultResponseStreamWriter writer = new DefaultResponseStreamWriter(objectMapper, outputStream, format)) {
+    		try (Stream<T> rows = query.getResultStream()) {
+    			Iterator<T> iterator = rows.iterator();
+    			if (!iterator.hasNext()) {
+    				writer.writeNotFound();
+    				return count;
+    			}
+    			while (iterator.hasNext()) {
+    				writer.writeRow(iterator.next());
+    				if (++count % streamFetchSize == 0) {
+    					entityManager.clear();
+    				}
+    			}
+    		} catch (RuntimeException e) {
+    			log.warn("streaming {} failed after {} rows", entityClass.getSimpleName(), count, e);
+    			try {
+    				writer.writeError();
+    			} catch (IOException suppressed) {
+    				e.addSuppressed(suppressed);
+    			}
+    			throw e;
+    		}
+    		writer.writeEnd();
+    	}
+    	return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JpaSpecificationExecutor<T> specificationExecutor() {
+    	if (specificationExecutor == null) {
+    		specificationExecutor = new SimpleJpaRepository<>((Class<T>) entityType(), entityManager);
+    	}
+    	return specificationExecutor;
+    }
+
 /**
 
 Returns the entity with the given id.
@@ -72,40 +845,497 @@ if no entity with the given id exists in the database.
 */
     @Override
     public ResponseEntity<DefaultResponse<T>> getById(ID id) {
-    	Optional<T> entity  = repository.findById(id);
+    	return measured(CrudOperation.GET_BY_ID, () -> findByIdResponse(id));
+    }
+
+    /**
+
+    Returns the entity with the given id unless the client already has it. Only the version or last modification
+    attribute of the entity is selected to check the {@code If-None-Match} header, the entity is loaded when it does not match.
+    @param id the id of the entity to retrieve
+    @param ifNoneMatch the {@code If-None-Match} header of the request, may be null
+    @return a {@link org.springframework.http.ResponseEntity} with status 304 and no body if the header matches
+    the current {@code ETag}, otherwise the response of {@link #getById(Serializable)} with the {@code ETag} header set when
+    the entity has a version or last modification attribute.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> getByIdIfNoneMatch(ID id, String ifNoneMatch) {
+    	return measured(CrudOperation.GET_BY_ID, () -> {
+    		EntityTag entityTag = entityTag();
+    		if (!entityTag.isSupported()) {
+    			return findByIdResponse(id);
+    		}
+    		if (ifNoneMatch != null) {
+    			String tag = entityTag.forValidator(inReadTransaction(() -> currentValidator(entityTag, id)));
+    			if (EntityTag.matches(ifNoneMatch, tag)) {
+    				return DefaultResponse.onThrow304Response(tag);
+    			}
+    		}
+    		ResponseEntity<DefaultResponse<T>> response = findByIdResponse(id);
+    		if (!response.getStatusCode().is2xxSuccessful()) {
+    			return response;
+    		}
+    		return DefaultResponse.withETag(response, entityTag.of(singleEntity(response.getBody())));
+    	});
+    }
+
+    private ResponseEntity<DefaultResponse<T>> findByIdResponse(ID id) {
+    	long generation = 0;
+    	if (entityCache != null) {
+    		T cached = entityCache.get(id);
+    		if (cached != null) {
+    			return entityResponse(cacheCopy(cached));
+    		}
+    		generation = entityCache.generation(id);
+    	}
+    	Optional<T> entity;
+    	if (batchLoader != null) {
+    		try {
+    			entity = Optional.ofNullable(batchLoader.load(id).join());
+    		} catch (CompletionException e) {
+    			if (e.getCause() instanceof TimeoutException || e.getCause() instanceof RejectedExecutionException) {
+    				return DefaultResponse.onThrow503Response(DEFAULTMESSAGES.SERVICE_UNAVAILABLE_MESSAGE.value());
+    			}
+    			throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : e;
+    		}
+    	} else {
+    		entity = repository.findById(id);
+    	}
     	if (entity.isEmpty()) {
     		return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
     	}else {
-    		
-    		return DefaultResponse.onThrow200Response(List.of(entity.get()));
-    	}	
+    		if (entityCache != null) {
+    			entityCache.putIfCurrent(id, cacheCopy(entity.get()), generation);
+    		}
+    		return entityResponse(entity.get());
+    	}
+    }
+
+    /**
+     * Copies the basic and embedded fields of the entity into a new instance of its class. Its associations and element
+     * collections are left unset, they may be lazy proxies or collections bound to the session that loaded the entity,
+     * which is closed by the time the copy is read. The mappers are not used, ModelMapper answers the same instance
+     * for entities it cannot map field by field.
+     */
+    @SuppressWarnings("unchecked")
+    private T cacheCopy(T entity) {
+    	T copy = (T) BeanUtils.instantiateClass(entity.getClass());
+    	ReflectionUtils.shallowCopyFieldState(entity, copy);
+    	for (Field field : uncachedFields.computeIfAbsent(entity.getClass(), this::associationFields)) {
+    		ReflectionUtils.setField(field, copy, null);
+    	}
+    	return copy;
+    }
+
+    private List<Field> associationFields(Class<?> entityClass) {
+    	List<Field> fields = new ArrayList<>();
+    	for (Attribute<?, ?> attribute : entityManager.getMetamodel().entity(entityClass).getAttributes()) {
+    		PersistentAttributeType attributeType = attribute.getPersistentAttributeType();
+    		if (attributeType != PersistentAttributeType.BASIC && attributeType != PersistentAttributeType.EMBEDDED) {
+    			Field field = ReflectionUtils.findField(entityClass, attribute.getName());
+    			if (field != null) {
+    				ReflectionUtils.makeAccessible(field);
+    				fields.add(field);
+    			}
+    		}
+    	}
+    	return fields;
+    }
+
+    private ResponseEntity<DefaultResponse<T>> entityResponse(T entity) {
+    	return objectResponseById ? DefaultResponse.onThrow200ResponseObject(entity) : DefaultResponse.onThrow200Response(List.of(entity));
+    }
+
+    private static Object singleEntity(DefaultResponse<?> response) {
+    	return (response.getDataType() == DATATYPE.OBJECT) ? response.getData() : ((List<?>) response.getData()).get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object currentValidator(EntityTag entityTag, ID id) {
+    	CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    	CriteriaQuery<Object> query = criteriaBuilder.createQuery(Object.class);
+    	Root<T> root = query.from((Class<T>) entityType());
+    	query.select(root.get(entityTag.validatorAttribute()));
+    	query.where(criteriaBuilder.equal(root.get(entityTag.idAttribute()), id));
+    	List<Object> validators = entityManager.createQuery(query).getResultList();
+    	return validators.isEmpty() ? null : validators.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] aggregates(EntityTag entityTag) {
+    	CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    	CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+    	Root<T> root = query.from((Class<T>) entityType());
+    	List<Selection<?>> selections = new ArrayList<>(5);
+    	selections.add(criteriaBuilder.count(root));
+    	if (entityTag.sumsValidator()) {
+    		selections.add(criteriaBuilder.sum(root.<Number>get(entityTag.validatorAttribute())));
+    	} else {
+    		selections.add(criteriaBuilder.greatest(root.<Comparable<Object>>get(entityTag.validatorAttribute())));
+    	}
+    	selections.add(criteriaBuilder.sum(root.<Number>get(entityTag.idAttribute())));
+    	selections.add(criteriaBuilder.min(root.<Number>get(entityTag.idAttribute())));
+    	selections.add(criteriaBuilder.max(root.<Number>get(entityTag.idAttribute())));
+    	query.multiselect(selections);
+    	return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @SuppressWarnings("unchecked")
+    private String rowsTag(EntityTag entityTag) {
+    	CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    	CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+    	Root<T> root = query.from((Class<T>) entityType());
+    	query.multiselect(root.get(entityTag.idAttribute()), root.get(entityTag.validatorAttribute()));
+    	try (Stream<Object[]> rows = entityManager.createQuery(query).setHint(HINT_FETCH_SIZE, streamFetchSize).getResultStream()) {
+    		return entityTag.forRows(rows.iterator());
+    	}
+    }
+
+    private EntityTag entityTag() {
+    	if (entityTag == null) {
+    		entityTag = (entityType() == Object.class) ? EntityTag.of(null) : EntityTag.of(entityManager.getMetamodel().entity(entityType()));
+    	}
+    	return entityTag;
     }
     
+    /**
+
+    Returns all entities as the given projection, selecting only the columns of the projection when possible.
+    @param projection an interface projection, a DTO class or a class whose constructor takes the attributes, see {@link ColumnProjection}
+    @return a {@link org.springframework.http.ResponseEntity} with status 200 and the projections,
+    or status 404 if there are no entities of the given type in the database.
+    @throws IllegalArgumentException if the projection has properties that cannot be read from the entity
+    */
+    @Override
+    public <P> ResponseEntity<DefaultResponse<P>> getAllProjected(Class<P> projection) {
+    	return measured(CrudOperation.GET_ALL, () -> {
+    		List<P> projections = inReadTransaction(() -> findProjected(projection, null));
+    		if (projections.isEmpty()) {
+    			return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    		}
+    		return DefaultResponse.onThrow200Response(projections);
+    	});
+    }
+
+    /**
+
+    Returns the entity with the given id as the given projection, selecting only the columns of the projection when possible.
+    The cache of {@link #getById(Serializable)} is not used.
+    @param id the id of the entity to retrieve
+    @param projection an interface projection, a DTO class or a class whose constructor takes the attributes, see {@link ColumnProjection}
+    @return a {@link org.springframework.http.ResponseEntity} with status 200 and the projection,
+    or status 404 if no entity with the given id exists in the database.
+    @throws IllegalArgumentException if the projection has properties that cannot be read from the entity
+    */
+    @Override
+    public <P> ResponseEntity<DefaultResponse<P>> getByIdProjected(ID id, Class<P> projection) {
+    	return measured(CrudOperation.GET_BY_ID, () -> {
+    		List<P> projections = inReadTransaction(() -> findProjected(projection, id));
+    		if (projections.isEmpty()) {
+    			return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    		}
+    		return DefaultResponse.onThrow200Response(projections);
+    	});
+    }
+
+    /**
+
+    Returns all the entities with the associations of the fetch plan loaded by the same query, instead of one query
+    per entity when they are first touched.
+    @param fetchPlan the associations to load, see {@link FetchPlan}
+    @return a {@link org.springframework.http.ResponseEntity} with status 200 and the entities,
+    or status 404 if there are no entities of the given type in the database.
+    */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<DefaultResponse<T>> getAllWithPlan(FetchPlan fetchPlan) {
+    	return measured(CrudOperation.GET_ALL, () -> inReadTransaction(() -> {
+    		Class<T> entityClass = (Class<T>) entityType();
+    		CriteriaQuery<T> criteria = entityManager.getCriteriaBuilder().createQuery(entityClass);
+    		criteria.select(criteria.from(entityClass));
+    		List<T> entities = entityManager.createQuery(criteria)
+    				.setHint(FetchPlan.LOAD_GRAPH_HINT, fetchPlan.toEntityGraph(entityManager, entityClass))
+    				.getResultList();
+    		if (entities.isEmpty()) {
+    			return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    		}
+    		return DefaultResponse.onThrow200Response(entities);
+    	}));
+    }
+
+    /**
+
+    Returns the entity with the given id with the associations of the fetch plan loaded by the same query.
+    The cache and the batch loader of {@link #getById(Serializable)} are not used.
+    @param id the id of the entity to retrieve
+    @param fetchPlan the associations to load, see {@link FetchPlan}
+    @return a {@link org.springframework.http.ResponseEntity} with status 200 and the entity,
+    or status 404 if no entity with the given id exists in the database.
+    */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<DefaultResponse<T>> getByIdWithPlan(ID id, FetchPlan fetchPlan) {
+    	return measured(CrudOperation.GET_BY_ID, () -> inReadTransaction(() -> {
+    		Class<T> entityClass = (Class<T>) entityType();
+    		T entity = entityManager.find(entityClass, id,
+    				Collections.singletonMap(FetchPlan.LOAD_GRAPH_HINT, fetchPlan.toEntityGraph(entityManager, entityClass)));
+    		if (entity == null) {
+    			return DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value());
+    		}
+    		return entityResponse(entity);
+    	}));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <P> List<P> findProjected(Class<P> projection, ID id) {
+    	Class<T> entityClass = (Class<T>) entityType();
+    	EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+    	ColumnProjection<P> columnProjection = (ColumnProjection<P>) projections.computeIfAbsent(projection,
+    			type -> ColumnProjection.of(entityType, type, projectionFactory, modelMapper));
+    	if (!columnProjection.selectsColumns()) {
+    		List<T> entities = new ArrayList<>();
+    		if (id == null) {
+    			entities.addAll(repository.findAll());
+    		} else {
+    			repository.findById(id).ifPresent(entities::add);
+    		}
+    		List<P> projected = new ArrayList<>(entities.size());
+    		for (T entity : entities) {
+    			projected.add(columnProjection.fromEntity(entity));
+    		}
+    		return projected;
+    	}
+    	CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    	CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+    	Root<T> root = query.from(entityClass);
+    	List<Selection<?>> selections = new ArrayList<>(columnProjection.attributes().size());
+    	for (String attribute : columnProjection.attributes()) {
+    		selections.add(root.get(attribute));
+    	}
+    	query.multiselect(selections);
+    	if (id != null) {
+    		query.where(criteriaBuilder.equal(root.get(entityType.getId(entityType.getIdType().getJavaType()).getName()), id));
+    	}
+    	List<Tuple> rows = entityManager.createQuery(query).getResultList();
+    	List<P> projected = new ArrayList<>(rows.size());
+    	for (Tuple row : rows) {
+    		projected.add(columnProjection.fromColumns(row.toArray()));
+    	}
+    	return projected;
+    }
+
 	@Override
 	public ResponseEntity<DefaultResponse<T>> update(  ID id, K dto, BindingResult bindigResult,  Class<T> entityClass) {
-        if (bindigResult.hasErrors()) {
-            return DefaultResponse.onThrow400ResponseBindingResult(bindigResult);
-        }
-        try {
-        	T entity = repository.findById(id).orElseThrow( () -> new EntityNotFoundException(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value()));
-        	modelMapper.map(dto, entity);
-            
-            return DefaultResponse.onThrow200Response( List.of(repository.save(entity)));
-		} catch (DataIntegrityViolationException e) {
-			log.info("error creating entity for {} because of {}", entityClass ,e.getLocalizedMessage());
-			return DefaultResponse.onThrow400ResponseTypeInfo(e.getMostSpecificCause().getLocalizedMessage());
-		}catch (EntityNotFoundException e) {
-			return DefaultResponse.onThrow400ResponseTypeInfo(e.getLocalizedMessage());
-	        
-		}catch (Exception e) {
-			log.info("IMPORTANT unhandle exception {}", e.getLocalizedMessage());
-			log.info("error creating entity for {} because of " + e.getLocalizedMessage(), entityClass);
-			return DefaultResponse.onThrow400ResponseTypeInfo(e.getLocalizedMessage());
+		return limited(CrudOperation.UPDATE, () -> updateEntity(id, dto, bindigResult, entityClass));
+	}
+
+	private ResponseEntity<DefaultResponse<T>> updateEntity(  ID id, K dto, BindingResult bindigResult,  Class<T> entityClass) {
+		long start = System.nanoTime();
+		CrudResult<T, T> result = validated(dto, bindigResult)
+				.then(valid -> persisted(CrudOperation.UPDATE, start, entityClass, () -> inWriteTransaction(() -> repository.findById(id).map(entity -> {
+					getEntityMapper().copy(valid, entity);
+					return repository.save(entity);
+				}).orElse(null))))
+				.then(saved -> (saved != null) ? CrudResult.ok(saved) : CrudResult.failure(CrudOutcome.NOT_FOUND,
+						DefaultResponse.onThrow400ResponseTypeInfo(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value())));
+		if (result.isOk() && entityCache != null) {
+			entityCache.evict(id);
+		}
+		return completed(CrudOperation.UPDATE, start, result);
+	}
+
+	private CrudResult<K, T> validated(K dto, BindingResult bindingResult) {
+		if (bindingResult.hasErrors()) {
+			return CrudResult.failure(CrudOutcome.BAD_REQUEST, DefaultResponse.onThrow400ResponseBindingResult(bindingResult));
+		}
+		return CrudResult.ok(dto);
+	}
+
+	/**
+	 * Runs a write and turns the failures the request caused into results: a violated constraint or a DTO
+	 * the {@link ModelMapper} cannot map is a 400, as in 0.0.4, and an optimistic locking failure, the entity
+	 * changed by someone else, a 409. Any other exception is recorded and thrown, it is not something the
+	 * client can fix by changing the request.
+	 */
+	private <V> CrudResult<V, T> persisted(CrudOperation operation, long start, Class<T> entityClass, Supplier<V> write) {
+		try {
+			return CrudResult.ok(write.get());
+		} catch (RuntimeException e) {
+			if (isIntegrityViolation(e)) {
+				String cause = NestedExceptionUtils.getMostSpecificCause(e).getLocalizedMessage();
+				if (log.isInfoEnabled()) {
+					log.info("{} of {} violates a constraint: {}", operation.value(), entityClass.getSimpleName(), cause);
+				}
+				return CrudResult.failure(CrudOutcome.INTEGRITY_VIOLATION, DefaultResponse.onThrow400ResponseTypeInfo(cause));
+			}
+			if (isOptimisticLockingFailure(e)) {
+				if (log.isInfoEnabled()) {
+					log.info("{} of {} lost a concurrent modification: {}", operation.value(), entityClass.getSimpleName(), e.getLocalizedMessage());
+				}
+				return CrudResult.failure(CrudOutcome.CONFLICT,
+						DefaultResponse.onThrow409Response(DEFAULTMESSAGES.CONCURRENT_MODIFICATION_MESSAGE.value()));
+			}
+			if (e instanceof MappingException || e instanceof ConfigurationException) {
+				if (log.isInfoEnabled()) {
+					log.info("{} of {} could not map the DTO: {}", operation.value(), entityClass.getSimpleName(), e.getLocalizedMessage());
+				}
+				return CrudResult.failure(CrudOutcome.MAPPING_FAILURE, DefaultResponse.onThrow400ResponseTypeInfo(e.getLocalizedMessage()));
+			}
+			log.warn("{} of {} failed", operation.value(), entityClass.getSimpleName(), e);
+			crudMetrics.record(entityType(), operation, CrudOutcome.ERROR, System.nanoTime() - start, 0);
+			throw e;
+		}
+	}
+
+	private ResponseEntity<DefaultResponse<T>> completed(CrudOperation operation, long start, CrudResult<T, T> result) {
+		if (!result.isOk()) {
+			return recorded(operation, start, result.outcome(), result.response());
 		}
+		return recorded(operation, start, CrudOutcome.OK, DefaultResponse.onThrow200Response(List.of(result.value())));
 	}
 
     /**
 
+    Updates the non-null properties of the DTO with a single UPDATE statement built with the Criteria API, without
+    loading the entity. A numeric {@code @Version} of the entity is incremented, and when the DTO has a property with
+    the name of the version it must match. Entities already loaded in the current persistence context are not refreshed.
+    @param id the id of the entity to update
+    @param dto the DTO with the properties to write, see {@link PartialUpdate} for how they are matched
+    @param entityClass the class of the entity to update
+    @return a {@link org.springframework.http.ResponseEntity} with status 200 and no data, status 404 if no entity has the id,
+    status 409 if the entity has another version, or status 400 if the DTO has nothing to write or a constraint is violated.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> patch(ID id, K dto, Class<T> entityClass) {
+    	return limited(CrudOperation.PATCH, () -> patchEntity(id, dto, entityClass));
+    }
+
+    private ResponseEntity<DefaultResponse<T>> patchEntity(ID id, K dto, Class<T> entityClass) {
+    	long start = System.nanoTime();
+    	try {
+    		PartialUpdate partialUpdate = partialUpdates.computeIfAbsent(dto.getClass(),
+    				dtoClass -> PartialUpdate.of(entityManager.getMetamodel().entity(entityClass), dtoClass));
+    		Map<String, Object> changes = partialUpdate.changes(dto);
+    		if (changes.isEmpty()) {
+    			return recorded(CrudOperation.PATCH, start, CrudOutcome.BAD_REQUEST,
+    					DefaultResponse.onThrow400ResponseTypeInfo(DEFAULTMESSAGES.NOT_DATA_SAVED_MESSAGE.value()));
+    		}
+    		Object expectedVersion = partialUpdate.expectedVersion(dto);
+    		CrudOutcome outcome = inWriteTransaction(() -> {
+    			if (executePatch(id, entityClass, partialUpdate, changes, expectedVersion) > 0) {
+    				return CrudOutcome.OK;
+    			}
+    			return (expectedVersion != null && repository.existsById(id)) ? CrudOutcome.CONFLICT : CrudOutcome.NOT_FOUND;
+    		});
+    		if (entityCache != null) {
+    			entityCache.evict(id);
+    		}
+    		if (outcome == CrudOutcome.CONFLICT) {
+    			return recorded(CrudOperation.PATCH, start, CrudOutcome.CONFLICT,
+    					DefaultResponse.onThrow409Response(DEFAULTMESSAGES.CONCURRENT_MODIFICATION_MESSAGE.value()));
+    		}
+    		if (outcome == CrudOutcome.NOT_FOUND) {
+    			return recorded(CrudOperation.PATCH, start, CrudOutcome.NOT_FOUND,
+    					DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value()));
+    		}
+    		return recorded(CrudOperation.PATCH, start, CrudOutcome.OK, DefaultResponse.onThrow200ResponseListMessage(
+    				Collections.emptyList(), DefaultResponse.messages(DEFAULTMESSAGES.INFO_UPDATED_MESSAGE, MESSAGETYPES.SUCCESS)));
+    	} catch (RuntimeException e) {
+    		if (isIntegrityViolation(e)) {
+    			if (log.isInfoEnabled()) {
+    				log.info("error patching entity for {} because of {}", entityClass, e.getLocalizedMessage());
+    			}
+    			return recorded(CrudOperation.PATCH, start, CrudOutcome.INTEGRITY_VIOLATION,
+    					DefaultResponse.onThrow400ResponseTypeInfo(NestedExceptionUtils.getMostSpecificCause(e).getLocalizedMessage()));
+    		}
+    		crudMetrics.record(entityType(), CrudOperation.PATCH, CrudOutcome.ERROR, System.nanoTime() - start, 0);
+    		throw e;
+    	}
+    }
+
+    @SuppressWarnings("unchecked")
+    private int executePatch(ID id, Class<T> entityClass, PartialUpdate partialUpdate, Map<String, Object> changes,
+    		Object expectedVersion) {
+    	CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    	CriteriaUpdate<T> update = criteriaBuilder.createCriteriaUpdate(entityClass);
+    	Root<T> root = update.from(entityClass);
+    	changes.forEach((attribute, value) -> update.set(root.get(attribute), value));
+    	if (partialUpdate.lastModifiedAttribute() != null) {
+    		update.set(root.get(partialUpdate.lastModifiedAttribute()), partialUpdate.lastModifiedValue());
+    	}
+    	Predicate restriction = criteriaBuilder.equal(root.get(partialUpdate.idAttribute()), id);
+    	if (partialUpdate.versionAttribute() != null) {
+    		Path<Number> version = root.get(partialUpdate.versionAttribute());
+    		Number increment = versionIncrement(partialUpdate.versionType());
+    		if (increment != null) {
+    			update.set(version, criteriaBuilder.sum(version, increment));
+    		}
+    		if (expectedVersion != null) {
+    			restriction = criteriaBuilder.and(restriction, criteriaBuilder.equal(version, expectedVersion));
+    		}
+    	}
+    	update.where(restriction);
+    	return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static Number versionIncrement(Class<?> versionType) {
+    	if (versionType == Long.class || versionType == long.class) {
+    		return 1L;
+    	}
+    	if (versionType == Integer.class || versionType == int.class) {
+    		return 1;
+    	}
+    	if (versionType == Short.class || versionType == short.class) {
+    		return (short) 1;
+    	}
+    	return null;
+    }
+
+    private static boolean isOptimisticLockingFailure(Throwable e) {
+    	for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+    		if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+
+    private static boolean isIntegrityViolation(Throwable e) {
+    	for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+    		if (cause instanceof DataIntegrityViolationException) {
+    			return true;
+    		}
+    		if (cause instanceof SQLException && ((SQLException) cause).getSQLState() != null
+    				&& ((SQLException) cause).getSQLState().startsWith("23")) {
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+
+    /**
+     * Runs a read in a read-only transaction, or in the transaction of the caller if there is one.
+     * Only for reads of more than one query, or of queries on the entity manager, which have no
+     * transaction of their own. A single repository call already runs in the read-only transaction
+     * of {@link SimpleJpaRepository}, so it is not wrapped. The cache and the batch loader of
+     * {@link #getById(Serializable)} are checked outside of it, so they do not hold a connection.
+     */
+    private <V> V inReadTransaction(Supplier<V> work) {
+    	if (readTransaction == null) {
+    		return work.get();
+    	}
+    	return readTransaction.execute(status -> work.get());
+    }
+
+    private <V> V inWriteTransaction(Supplier<V> work) {
+    	if (writeTransaction == null) {
+    		return work.get();
+    	}
+    	return writeTransaction.execute(status -> work.get());
+    }
+
+    /**
+
     Saves a new entity to the database.
     @param dto the DTO that contains the data to create the entity
     @param bindingResult the result of the validation process
@@ -113,44 +1343,462 @@ if no entity with the given id exists in the database.
     @return a {@link org.springframework.http.ResponseEntity} containing the response of the request.
     The response will be a {@link com.jdsk.people.utils.response.DefaultResponse} with status 200 and the created entity,
     or a {@link com.jdsk.people.utils.response.DefaultResponse} with status 400 if there is an error in the request body,
-    or a {@link com.jdsk.people.utils.response.DefaultResponse} with status 400 if there is a data integrity violation in the database.
+    or a {@link com.jdsk.people.utils.response.DefaultResponse} with status 400 if there is a data integrity violation in the database
+    or the DTO cannot be mapped into the entity. Other exceptions of the write are thrown.
+    When write-behind is enabled the response has status 202 and no data once the DTO is queued, or status 429 or 503
+    if the queue is full, see {@link #enableWriteBehind}.
     */
     @Override
     public ResponseEntity<DefaultResponse<T>> save(K dto, BindingResult bindingResult,  Class<T> entityClass) {
-        if (bindingResult.hasErrors()) {
-            return DefaultResponse.onThrow400ResponseBindingResult(bindingResult);
+    	if (writeBehind != null) {
+    		return saveEntity(dto, bindingResult, entityClass);
+    	}
+    	return limited(CrudOperation.SAVE, () -> saveEntity(dto, bindingResult, entityClass));
+    }
+
+    private ResponseEntity<DefaultResponse<T>> saveEntity(K dto, BindingResult bindingResult,  Class<T> entityClass) {
+    	long start = System.nanoTime();
+    	CrudResult<K, T> valid = validated(dto, bindingResult);
+        if (valid.isOk() && writeBehind != null) {
+        	return enqueue(dto, entityClass, start);
         }
-        try {
-            T entity = modelMapper.map(dto, entityClass);
-            
-            
-            return DefaultResponse.onThrow200Response( List.of(repository.save(entity)));
-		} catch (DataIntegrityViolationException e) {
-			log.info("error creating entity for {} because ofe " + e.getLocalizedMessage(), entityClass);
-			return DefaultResponse.onThrow400ResponseTypeInfo(e.getMostSpecificCause().getMessage());
-			
-		}catch (Exception e) {
-			log.info("IMPORTANT unhandle exception {}", e.getLocalizedMessage());
-			log.info("error creating entity for {} because of " + e.getLocalizedMessage(), entityClass);
-			return DefaultResponse.onThrow400ResponseTypeInfo(e.getLocalizedMessage());
-		}
-
-    }
-    /**
-     * Updates an existing entity by ID with the provided DTO. 
-     * If the provided BindingResult contains errors, it returns a 400 response with the errors.
-     * 
-     * @param id          the ID of the entity to update
-     * @param dto         the DTO containing the updated entity information
-     * @param bindingResult the binding result to validate the DTO
-     * @param entityClass the class of the entity being updated
-     * @return a ResponseEntity containing the updated entity as a body with a 200 status code, 
-     * or a 400 response with an error message if there was an issue with the DTO or the update process.
+        CrudResult<T, T> result = valid.then(validDto -> persisted(CrudOperation.SAVE, start, entityClass,
+        		() -> repository.save(getEntityMapper().toEntity(validDto, entityClass))));
+        if (result.isOk() && entityCache != null) {
+        	entityCache.evict(identifierOf(result.value()));
+        }
+        return completed(CrudOperation.SAVE, start, result);
+    }
+    private ResponseEntity<DefaultResponse<T>> enqueue(K dto, Class<T> entityClass, long start) {
+    	WriteBehindQueue<PendingSave<K, T>> queue = writeBehind;
+    	if (queue.offer(new PendingSave<>(dto, entityClass), writeBehindMaxWait)) {
+    		return recorded(CrudOperation.SAVE, start, CrudOutcome.OK, DefaultResponse.onThrow202Response(DEFAULTMESSAGES.DATA_ACCEPTED_MESSAGE.value()));
+    	}
+    	if (queue.isClosed() || !writeBehindMaxWait.isZero()) {
+    		return recorded(CrudOperation.SAVE, start, CrudOutcome.REJECTED,
+    				DefaultResponse.onThrow503Response(DEFAULTMESSAGES.SERVICE_UNAVAILABLE_MESSAGE.value()));
+    	}
+    	return recorded(CrudOperation.SAVE, start, CrudOutcome.REJECTED, DefaultResponse.onThrow429Response(DEFAULTMESSAGES.TOO_MANY_REQUESTS_MESSAGE.value()));
+    }
+
+    /**
+     * Writer of the write-behind queue, saves a batch in one transaction and, when it fails, its items one by one.
+     */
+    private void flushWriteBehind(List<PendingSave<K, T>> batch) {
+    	long start = System.nanoTime();
+    	List<T> saved = new ArrayList<>(batch.size());
+    	int rejected = 0;
+    	try {
+    		saved.addAll(inChunkTransaction(() -> {
+    			List<T> entities = new ArrayList<>(batch.size());
+    			for (PendingSave<K, T> pending : batch) {
+    				entities.add(getEntityMapper().toEntity(pending.dto, pending.entityClass));
+    			}
+    			return flushChunk(entities);
+    		}));
+    	} catch (RuntimeException e) {
+    		log.debug("write-behind batch of {} failed, saving its items one by one: {}", entityType(), e.getLocalizedMessage());
+    		for (PendingSave<K, T> pending : batch) {
+    			try {
+    				saved.add(inChunkTransaction(() -> repository.saveAndFlush(getEntityMapper().toEntity(pending.dto, pending.entityClass))));
+    			} catch (RuntimeException itemException) {
+    				rejected++;
+    				log.warn("write-behind save of {} rejected: {}", pending.entityClass, isIntegrityViolation(itemException)
+    						? NestedExceptionUtils.getMostSpecificCause(itemException).getLocalizedMessage() : itemException.getLocalizedMessage());
+    			}
+    		}
+    	}
+    	if (entityCache != null) {
+    		for (T entity : saved) {
+    			entityCache.evict(identifierOf(entity));
+    		}
+    	}
+    	crudMetrics.record(entityType(), CrudOperation.WRITE_BEHIND_FLUSH, rejected == 0 ? CrudOutcome.OK : CrudOutcome.ERROR,
+    			System.nanoTime() - start, saved.size());
+    }
+
+    private static final class PendingSave<K, T> {
+
+    	private final K dto;
+    	private final Class<T> entityClass;
+
+    	private PendingSave(K dto, Class<T> entityClass) {
+    		this.dto = dto;
+    		this.entityClass = entityClass;
+    	}
+
+    }
+
+    /**
+
+    Saves a list of new entities in chunks of {@code batchChunkSize} items, one transaction and one flush per chunk.
+    Invalid items are skipped, and when a chunk fails its items are saved one by one so only the offending ones are rejected.
+    @param dtos the DTOs that contain the data to create the entities
+    @param entityClass the class of the entities to create
+    @return a {@link org.springframework.http.ResponseEntity} with status 200, the created entities and one
+    {@link Error} per rejected item, prefixed with the index of the item in the list.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> saveAll(List<K> dtos, Class<T> entityClass) {
+    	return measured(CrudOperation.SAVE_ALL, () -> saveEntities(dtos, entityClass));
+    }
+
+    private ResponseEntity<DefaultResponse<T>> saveEntities(List<K> dtos, Class<T> entityClass) {
+    	List<T> saved = new ArrayList<>(dtos.size());
+    	List<Error> errors = new ArrayList<>();
+    	List<Integer> valid = new ArrayList<>(dtos.size());
+    	for (int index = 0; index < dtos.size(); index++) {
+    		if (validate(index, dtos.get(index), errors)) {
+    			valid.add(index);
+    		}
+    	}
+    	for (int from = 0; from < valid.size(); from += batchChunkSize) {
+    		List<Integer> chunk = valid.subList(from, Math.min(from + batchChunkSize, valid.size()));
+    		try {
+    			saved.addAll(inChunkTransaction(() -> {
+    				List<T> entities = new ArrayList<>(chunk.size());
+    				for (Integer index : chunk) {
+    					entities.add(getEntityMapper().toEntity(dtos.get(index), entityClass));
+    				}
+    				return flushChunk(entities);
+    			}));
+    		} catch (RuntimeException e) {
+    			log.debug("chunk of {} failed, saving its items one by one: {}", entityClass, e.getLocalizedMessage());
+    			for (Integer index : chunk) {
+    				try {
+    					saved.add(inChunkTransaction(() -> repository.saveAndFlush(getEntityMapper().toEntity(dtos.get(index), entityClass))));
+    				} catch (RuntimeException itemException) {
+    					errors.add(itemError(index, itemException));
+    				}
+    			}
+    		}
+    	}
+    	if (entityCache != null) {
+    		for (T entity : saved) {
+    			entityCache.evict(identifierOf(entity));
+    		}
+    	}
+    	return bulkResponse(saved, errors, DEFAULTMESSAGES.DATA_SAVED_MESSAGE);
+    }
+
+    /**
+
+    Updates a set of existing entities in chunks of {@code batchChunkSize} items. Each chunk loads its entities
+    with a single IN query, copies the DTOs into them and flushes them in one transaction.
+    Invalid and missing items are skipped, and when a chunk fails its items are updated one by one so only the offending ones are rejected.
+    @param dtos the DTOs that contain the updated data, by the id of the entity to update
+    @param entityClass the class of the entities to update
+    @return a {@link org.springframework.http.ResponseEntity} with status 200, the updated entities and one
+    {@link Error} per rejected item, prefixed with its id.
+    */
+    @Override
+    public ResponseEntity<DefaultResponse<T>> updateAll(Map<ID, K> dtos, Class<T> entityClass) {
+    	return measured(CrudOperation.UPDATE_ALL, () -> updateEntities(dtos, entityClass));
+    }
+
+    private ResponseEntity<DefaultResponse<T>> updateEntities(Map<ID, K> dtos, Class<T> entityClass) {
+    	List<T> updated = new ArrayList<>(dtos.size());
+    	List<Error> errors = new ArrayList<>();
+    	List<ID> valid = new ArrayList<>(dtos.size());
+    	for (Map.Entry<ID, K> dto : dtos.entrySet()) {
+    		if (validate(dto.getKey(), dto.getValue(), errors)) {
+    			valid.add(dto.getKey());
+    		}
+    	}
+    	for (int from = 0; from < valid.size(); from += batchChunkSize) {
+    		List<ID> chunk = valid.subList(from, Math.min(from + batchChunkSize, valid.size()));
+    		List<ID> missing = new ArrayList<>();
+    		try {
+    			updated.addAll(inChunkTransaction(() -> {
+    				missing.clear();
+    				Map<Object, T> found = new HashMap<>();
+    				for (T entity : repository.findAllById(chunk)) {
+    					found.put(identifierOf(entity), entity);
+    				}
+    				List<T> entities = new ArrayList<>(chunk.size());
+    				for (ID id : chunk) {
+    					T entity = found.get(id);
+    					if (entity == null) {
+    						missing.add(id);
+    					} else {
+    						getEntityMapper().copy(dtos.get(id), entity);
+    						entities.add(entity);
+    					}
+    				}
+    				return flushChunk(entities);
+    			}));
+    			for (ID id : missing) {
+    				errors.add(new Error(itemMessage(id, DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value()), MESSAGETYPES.ERROR));
+    			}
+    		} catch (RuntimeException e) {
+    			log.debug("chunk of {} failed, updating its items one by one: {}", entityClass, e.getLocalizedMessage());
+    			for (ID id : chunk) {
+    				try {
+    					T entity = inChunkTransaction(() -> {
+    						Optional<T> current = repository.findById(id);
+    						if (current.isEmpty()) {
+    							return null;
+    						}
+    						getEntityMapper().copy(dtos.get(id), current.get());
+    						return repository.saveAndFlush(current.get());
+    					});
+    					if (entity == null) {
+    						errors.add(new Error(itemMessage(id, DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value()), MESSAGETYPES.ERROR));
+    					} else {
+    						updated.add(entity);
+    					}
+    				} catch (RuntimeException itemException) {
+    					errors.add(itemError(id, itemException));
+    				}
+    			}
+    		}
+    	}
+    	if (entityCache != null) {
+    		for (ID id : valid) {
+    			entityCache.evict(id);
+    		}
+    	}
+    	return bulkResponse(updated, errors, DEFAULTMESSAGES.INFO_UPDATED_MESSAGE);
+    }
+
+    private boolean validate(Object key, K dto, List<Error> errors) {
+    	if (validator == null) {
+    		return true;
+    	}
+    	BindingResult bindingResult = new BeanPropertyBindingResult(dto, "dto");
+    	validator.validate(dto, bindingResult);
+    	for (ObjectError error : bindingResult.getAllErrors()) {
+    		errors.add(new Error(itemMessage(key, error.getDefaultMessage()), MESSAGETYPES.INFO));
+    	}
+    	return !bindingResult.hasErrors();
+    }
+
+    private List<T> flushChunk(List<T> entities) {
+    	List<T> saved = repository.saveAllAndFlush(entities);
+    	entityManager.clear();
+    	return saved;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ID identifierOf(T entity) {
+    	return (ID) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    private <V> V inChunkTransaction(Supplier<V> work) {
+    	if (chunkTransaction == null) {
+    		return work.get();
+    	}
+    	return chunkTransaction.execute(status -> work.get());
+    }
+
+    private static Error itemError(Object key, RuntimeException e) {
+    	String cause = (e instanceof DataIntegrityViolationException)
+    			? ((DataIntegrityViolationException) e).getMostSpecificCause().getLocalizedMessage()
+    			: e.getLocalizedMessage();
+    	return new Error(itemMessage(key, cause), MESSAGETYPES.ERROR);
+    }
+
+    private static String itemMessage(Object key, String message) {
+    	return "[" + key + "] " + message;
+    }
+
+    /**
+     * Runs an operation that answers every expected case itself, taking its outcome from the response status.
+     * An exception thrown to the caller is recorded as {@link CrudOutcome#ERROR}.
+     */
+    private <V> ResponseEntity<DefaultResponse<V>> measured(CrudOperation operation, Supplier<ResponseEntity<DefaultResponse<V>>> call) {
+    	return limited(operation, () -> {
+    		long start = System.nanoTime();
+    		ResponseEntity<DefaultResponse<V>> response;
+    		try {
+    			response = call.get();
+    		} catch (RuntimeException e) {
+    			crudMetrics.record(entityType(), operation, CrudOutcome.ERROR, System.nanoTime() - start, 0);
+    			throw e;
+    		}
+    		return recorded(operation, start, outcomeOf(response), response);
+    	});
+    }
+
+    /**
+     * Runs an operation within the concurrency limit of its type, if enabled, answering 503 at once when the limit
+     * is reached. A 5xx response or an exception lowers the limit as a slow call does.
      */
+    private <V> ResponseEntity<DefaultResponse<V>> limited(CrudOperation operation, Supplier<ResponseEntity<DefaultResponse<V>>> call) {
+    	AdaptiveConcurrencyLimit limit = (concurrencyLimits != null) ? concurrencyLimits.get(operation) : null;
+    	if (limit == null) {
+    		return counted(operation, call);
+    	}
+    	long start = System.nanoTime();
+    	if (!limit.tryAcquire()) {
+    		return recorded(operation, start, CrudOutcome.REJECTED,
+    				DefaultResponse.onThrow503Response(DEFAULTMESSAGES.SERVICE_UNAVAILABLE_MESSAGE.value()));
+    	}
+    	boolean failed = true;
+    	try {
+    		ResponseEntity<DefaultResponse<V>> response = counted(operation, call);
+    		failed = response.getStatusCode().is5xxServerError();
+    		return response;
+    	} finally {
+    		limit.release(System.nanoTime() - start, failed);
+    	}
+    }
+
+    private <V> V counted(CrudOperation operation, Supplier<V> call) {
+    	if (statementThreshold <= 0) {
+    		return call.get();
+    	}
+    	try (StatementCounter.Scope statements = StatementCounter.open()) {
+    		V result = call.get();
+    		if (statements.count() > statementThreshold) {
+    			String message = operation.value() + " of " + entityType().getSimpleName() + " ran " + statements.count()
+    					+ " SQL statements, more than " + statementThreshold;
+    			if (failOnStatementThreshold) {
+    				throw new StatementCountExceededException(message, statements.count(), statements.statements());
+    			}
+    			log.warn("{}: {}", message, statements.statements());
+    		}
+    		return result;
+    	}
+    }
+
+    private <V> ResponseEntity<DefaultResponse<V>> recorded(CrudOperation operation, long start, CrudOutcome outcome,
+    		ResponseEntity<DefaultResponse<V>> response) {
+    	long durationNanos = System.nanoTime() - start;
+    	crudMetrics.record(entityType(), operation, outcome, durationNanos, resultSize(response));
+    	return response;
+    }
+
+    private static CrudOutcome outcomeOf(ResponseEntity<?> response) {
+    	int status = response.getStatusCode().value();
+    	if (status < 300) {
+    		return CrudOutcome.OK;
+    	}
+    	if (status == 304) {
+    		return CrudOutcome.NOT_MODIFIED;
+    	}
+    	if (status == 404) {
+    		return CrudOutcome.NOT_FOUND;
+    	}
+    	return status < 500 ? CrudOutcome.BAD_REQUEST : CrudOutcome.ERROR;
+    }
+
+    private static int resultSize(ResponseEntity<? extends DefaultResponse<?>> response) {
+    	if (response.getBody() == null) {
+    		return 0;
+    	}
+    	Object data = response.getBody().getData();
+    	if (data instanceof Collection) {
+    		return ((Collection<?>) data).size();
+    	}
+    	return data == null ? 0 : 1;
+    }
+
+    private static <T> ResponseEntity<DefaultResponse<T>> bulkResponse(List<T> data, List<Error> errors, DEFAULTMESSAGES successMessage) {
+    	List<Message> messages = new ArrayList<>(2);
+    	if (!data.isEmpty()) {
+    		messages.add(Message.of(successMessage, MESSAGETYPES.SUCCESS));
+    	}
+    	if (!errors.isEmpty()) {
+    		messages.add(Message.of(DEFAULTMESSAGES.NOT_DATA_SAVED_MESSAGE, MESSAGETYPES.WARN));
+    	}
+    	return DefaultResponse.onThrow200ResponseListMessageAndErrors(data, messages, errors);
+    }
 
+    /**
+
+    Deletes the entity with the given id with a single DELETE statement, or an UPDATE of the {@code softDeleteAttribute}
+    when it is set, in the caller's transaction or a new one. The statement does not load the entity, so JPA cascades
+    and entity listeners do not run; foreign keys must allow the delete.
+    @param id the id of the entity to delete
+    @return a {@link org.springframework.http.ResponseEntity} with status 200 and the number of rows deleted,
+    status 404 if no entity has the id, or status 400 if a constraint prevents the delete.
+    */
 	@Override
-	public void deleteById(ID id) {
-		
-		//repository.deleteById(id);
+	public ResponseEntity<DefaultResponse<T>> deleteById(ID id) {
+		return limited(CrudOperation.DELETE_BY_ID, () -> deleteAll(CrudOperation.DELETE_BY_ID, Collections.singletonList(id), false));
 	}
-    }
+
+    /**
+
+    Deletes the entities with the given ids in chunks of {@code deleteChunkSize} ids, each one with a single
+    DELETE ... WHERE id IN statement, or an UPDATE of the {@code softDeleteAttribute} when it is set, in its own transaction.
+    As in {@link #deleteById} the entities are not loaded. When a chunk fails the previous chunks stay deleted.
+    @param ids the ids of the entities to delete, duplicates are ignored
+    @return a {@link org.springframework.http.ResponseEntity} with status 200 and the number of rows deleted,
+    status 404 if none of the ids exist, or status 400 with the rows deleted until a constraint prevented the delete.
+    */
+	@Override
+	public ResponseEntity<DefaultResponse<T>> deleteAllById(Collection<ID> ids) {
+		return limited(CrudOperation.DELETE_ALL_BY_ID, () -> deleteAll(CrudOperation.DELETE_ALL_BY_ID, new ArrayList<>(new LinkedHashSet<>(ids)), true));
+	}
+
+	private ResponseEntity<DefaultResponse<T>> deleteAll(CrudOperation operation, List<ID> ids, boolean chunked) {
+		long start = System.nanoTime();
+		int deleted = 0;
+		try {
+			for (int from = 0; from < ids.size(); from += deleteChunkSize) {
+				List<ID> chunk = ids.subList(from, Math.min(from + deleteChunkSize, ids.size()));
+				deleted += chunked ? inChunkTransaction(() -> executeDelete(chunk)) : inWriteTransaction(() -> executeDelete(chunk));
+				if (entityCache != null) {
+					for (ID id : chunk) {
+						entityCache.evict(id);
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			if (isIntegrityViolation(e)) {
+				if (log.isInfoEnabled()) {
+					log.info("error deleting entities of {} after {} rows because of {}", entityType(), deleted, e.getLocalizedMessage());
+				}
+				List<Message> messages = List.of(new Message(NestedExceptionUtils.getMostSpecificCause(e).getLocalizedMessage(), MESSAGETYPES.ERROR),
+						affectedRowsMessage(deleted));
+				crudMetrics.record(entityType(), operation, CrudOutcome.INTEGRITY_VIOLATION, System.nanoTime() - start, deleted);
+				return DefaultResponse.onThrow400ResponseTypeError(messages);
+			}
+			crudMetrics.record(entityType(), operation, CrudOutcome.ERROR, System.nanoTime() - start, deleted);
+			throw e;
+		}
+		ResponseEntity<DefaultResponse<T>> response = (deleted == 0)
+				? DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value())
+				: DefaultResponse.onThrow200ResponseListMessage(Collections.emptyList(),
+						List.of(Message.of(DEFAULTMESSAGES.INFO_DELETED_MESSAGE, MESSAGETYPES.SUCCESS), affectedRowsMessage(deleted)));
+		crudMetrics.record(entityType(), operation, outcomeOf(response), System.nanoTime() - start, deleted);
+		return response;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int executeDelete(List<ID> ids) {
+		Class<T> entityClass = (Class<T>) entityType();
+		EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+		String idAttribute = entityType.getId(entityType.getIdType().getJavaType()).getName();
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+		if (softDeleteAttribute == null) {
+			CriteriaDelete<T> delete = criteriaBuilder.createCriteriaDelete(entityClass);
+			Root<T> root = delete.from(entityClass);
+			delete.where(root.get(idAttribute).in(ids));
+			return entityManager.createQuery(delete).executeUpdate();
+		}
+		CriteriaUpdate<T> update = criteriaBuilder.createCriteriaUpdate(entityClass);
+		Root<T> root = update.from(entityClass);
+		Path<Boolean> deleted = root.get(softDeleteAttribute);
+		update.set(deleted, Boolean.TRUE);
+		for (SingularAttribute<? super T, ?> attribute : entityType.getSingularAttributes()) {
+			Number increment = attribute.isVersion() ? versionIncrement(attribute.getJavaType()) : null;
+			if (increment != null) {
+				Path<Number> version = root.get(attribute.getName());
+				update.set(version, criteriaBuilder.sum(version, increment));
+			}
+		}
+		SingularAttribute<?, ?> lastModified = PartialUpdate.lastModifiedAttribute(entityType);
+		if (lastModified != null) {
+			update.set(root.get(lastModified.getName()), PartialUpdate.now(lastModified.getJavaType()));
+		}
+		update.where(root.get(idAttribute).in(ids), criteriaBuilder.or(criteriaBuilder.isNull(deleted), criteriaBuilder.isFalse(deleted)));
+		return entityManager.createQuery(update).executeUpdate();
+	}
+
+	private static Message affectedRowsMessage(int rows) {
+		return new Message(DEFAULTMESSAGES.AFFECTED_ROWS_MESSAGE.value() + rows, MESSAGETYPES.INFO);
+	}
+    }
\ No newline at end of file
@@ -1,11 +1,22 @@
 package com.jdsalasca.crud;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 
+import com.jdsalasca.crud.fetch.FetchPlan;
+import com.jdsalasca.crud.filter.CrudFilter;
 import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponseStreamWriter.STREAMFORMAT;
 
 /**
 
@@ -32,6 +43,78 @@ public interface ICrudInterface<T, K , ID extends Serializable, L extends JpaRep
    ResponseEntity<DefaultResponse<T>> getAll();
     /**
 
+    Retrieves all the entities of type T unless the client already has them, comparing its {@code If-None-Match}
+    header with a validator computed without loading the entities.
+    The default ignores the header and always answers {@link #getAll()}.
+    @param ifNoneMatch the If-None-Match header of the request, or null
+    @return a ResponseEntity with status 304 and no body if the header matches, otherwise the response of {@link #getAll()} with an ETag header
+    */
+    default ResponseEntity<DefaultResponse<T>> getAllIfNoneMatch(String ifNoneMatch) {
+    	return getAll();
+    }
+    /**
+
+    Retrieves one page of the entities of type T, including the total count of elements.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param pageable the page number, size and sort to apply
+    @return a ResponseEntity with a DefaultResponse containing the page content and its page information, or an error message if the page is empty
+    */
+    default ResponseEntity<DefaultResponse<T>> getAll(Pageable pageable) {
+    	throw new UnsupportedOperationException("getAll(Pageable) is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Retrieves one page of the entities of type T without counting the total number of elements.
+    The page information only tells whether there is a next page.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param pageable the page number, size and sort to apply
+    @return a ResponseEntity with a DefaultResponse containing the slice content and its slice information, or an error message if the slice is empty
+    */
+    default ResponseEntity<DefaultResponse<T>> getAllSlice(Pageable pageable) {
+    	throw new UnsupportedOperationException("getAllSlice is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Retrieves the next window of entities of type T using keyset pagination, seeking after the last row
+    of the previous window instead of skipping rows, so the cost does not grow with the depth of the page.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param cursor the opaque continuation token returned by the previous call, or null for the first window
+    @param size the maximum number of entities to return
+    @param sort the sort to seek on; the identifier is always appended to keep the order stable
+    @return a ResponseEntity with a DefaultResponse containing the window and the next cursor, or an error message if the cursor is invalid or the window is empty
+    */
+    default ResponseEntity<DefaultResponse<T>> getAllByCursor(String cursor, int size, Sort sort) {
+    	throw new UnsupportedOperationException("getAllByCursor is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Retrieves the entities of type T that match the given filter, filtered and sorted by the database so only the
+    matching rows are read. Only the attributes the service allows can be filtered and sorted on.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param filter the conditions the entities must match, see {@link CrudFilter}
+    @param sort the sort to apply, it replaces the sort of the pageable when it is sorted
+    @param pageable the page to retrieve, including the total count of elements, or unpaged for all the matching entities
+    @return a ResponseEntity with a DefaultResponse containing the matching entities, or an error message if the filter is invalid or nothing matches
+    */
+    default ResponseEntity<DefaultResponse<T>> getAll(CrudFilter filter, Sort sort, Pageable pageable) {
+    	throw new UnsupportedOperationException("getAll(CrudFilter, Sort, Pageable) is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Streams all the entities of type T to the given output stream, row by row, so the memory used does not grow with the number of rows.
+    The caller owns the output stream and must set the response status and the Content-Type given by {@link STREAMFORMAT#value()}.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param entityClass the class of the entities to stream
+    @param outputStream the stream to write to, it is flushed but not closed
+    @param format JSON_ARRAY to write a DefaultResponse envelope, NDJSON to write one entity per line
+    @return the number of entities written, 0 means a 404 envelope was written
+    @throws IOException if writing to the output stream fails
+    */
+    default long streamAll(Class<T> entityClass, OutputStream outputStream, STREAMFORMAT format) throws IOException {
+    	throw new UnsupportedOperationException("streamAll is not implemented by " + getClass().getName());
+    }
+    /**
+
     Retrieves the entity of type T identified by the given ID.
     @param id the identifier of the entity
     @return a ResponseEntity with a DefaultResponse containing the entity, or an error message if an exception occurs
@@ -39,6 +122,62 @@ public interface ICrudInterface<T, K , ID extends Serializable, L extends JpaRep
     ResponseEntity<DefaultResponse<T>> getById(ID id);
     /**
 
+    Retrieves the entity of type T identified by the given ID unless the client already has it, comparing its
+    {@code If-None-Match} header with the version or last modification of the entity.
+    The default ignores the header and always answers {@link #getById(Serializable)}.
+    @param id the identifier of the entity
+    @param ifNoneMatch the If-None-Match header of the request, or null
+    @return a ResponseEntity with status 304 and no body if the header matches, otherwise the response of {@link #getById(Serializable)} with an ETag header
+    */
+    default ResponseEntity<DefaultResponse<T>> getByIdIfNoneMatch(ID id, String ifNoneMatch) {
+    	return getById(id);
+    }
+    /**
+
+    Retrieves all the entities of type T as the given projection, selecting only the columns the projection needs.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param <P> the projection type
+    @param projection an interface projection or a DTO class, such as K, whose properties are named as the entity attributes
+    @return a ResponseEntity with a DefaultResponse containing the list of projections, or an error message if there are none
+    */
+    default <P> ResponseEntity<DefaultResponse<P>> getAllProjected(Class<P> projection) {
+    	throw new UnsupportedOperationException("getAllProjected is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Retrieves the entity of type T identified by the given ID as the given projection, selecting only the columns the projection needs.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param <P> the projection type
+    @param id the identifier of the entity
+    @param projection an interface projection or a DTO class, such as K, whose properties are named as the entity attributes
+    @return a ResponseEntity with a DefaultResponse containing the projection, or an error message if the entity does not exist
+    */
+    default <P> ResponseEntity<DefaultResponse<P>> getByIdProjected(ID id, Class<P> projection) {
+    	throw new UnsupportedOperationException("getByIdProjected is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Retrieves all the entities of type T with the associations of the fetch plan loaded in the same query.
+    The default ignores the fetch plan and answers {@link #getAll()}, loading the associations as they are mapped.
+    @param fetchPlan a named entity graph or the attribute paths of the associations to load
+    @return a ResponseEntity with a DefaultResponse containing the list of entities, or an error message if there are none
+    */
+    default ResponseEntity<DefaultResponse<T>> getAllWithPlan(FetchPlan fetchPlan) {
+    	return getAll();
+    }
+    /**
+
+    Retrieves the entity of type T identified by the given ID with the associations of the fetch plan loaded in the same query.
+    The default ignores the fetch plan and answers {@link #getById(Serializable)}, loading the associations as they are mapped.
+    @param id the identifier of the entity
+    @param fetchPlan a named entity graph or the attribute paths of the associations to load
+    @return a ResponseEntity with a DefaultResponse containing the entity, or an error message if the entity does not exist
+    */
+    default ResponseEntity<DefaultResponse<T>> getByIdWithPlan(ID id, FetchPlan fetchPlan) {
+    	return getById(id);
+    }
+    /**
+
     Saves a new entity of type T using the data contained in the provided DTO.
     @param dto the DTO containing the data for the new entity
     @param bindingResult the result of the data validation process
@@ -58,10 +197,62 @@ public interface ICrudInterface<T, K , ID extends Serializable, L extends JpaRep
     ResponseEntity<DefaultResponse<T>> update( ID id, K entity, BindingResult bindigResult,  Class<T> entityClass);
     /**
 
-    Deletes the entity of type T identified by the given ID.
+    Updates only the non-null fields of the DTO on the entity of type T identified by the given ID, with a single
+    UPDATE statement and without loading the entity. When the entity has a {@code @Version} it is incremented, and
+    checked against the version carried by the DTO, if any.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param id the identifier of the entity being updated
+    @param dto the DTO whose non-null fields are written into the entity
+    @param entityClass the class of the entity being updated
+    @return a ResponseEntity with a DefaultResponse without data, or an error message if the entity does not exist, has another version or the update fails
+    */
+    default ResponseEntity<DefaultResponse<T>> patch(ID id, K dto, Class<T> entityClass) {
+    	throw new UnsupportedOperationException("patch is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Saves new entities of type T in batched chunks, validating each DTO on its own.
+    Items that are invalid or violate a database constraint are reported as errors without failing the other items.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param dtos the DTOs containing the data for the new entities
+    @param entityClass the class of the entities being created
+    @return a ResponseEntity with a DefaultResponse containing the created entities and one error per rejected item
+    */
+    default ResponseEntity<DefaultResponse<T>> saveAll(List<K> dtos, Class<T> entityClass) {
+    	throw new UnsupportedOperationException("saveAll is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Updates entities of type T in batched chunks, validating each DTO on its own.
+    Items that are invalid, missing or violate a database constraint are reported as errors without failing the other items.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param dtos the DTOs containing the updated data, by the identifier of the entity to update
+    @param entityClass the class of the entities being updated
+    @return a ResponseEntity with a DefaultResponse containing the updated entities and one error per rejected item
+    */
+    default ResponseEntity<DefaultResponse<T>> updateAll(Map<ID, K> dtos, Class<T> entityClass) {
+    	throw new UnsupportedOperationException("updateAll is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Deletes the entity of type T identified by the given ID with a single statement.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
     @param id the identifier of the entity being deleted
+    @return a ResponseEntity with a DefaultResponse reporting the number of rows deleted, or an error message if the entity does not exist or cannot be deleted
+    */
+    default ResponseEntity<DefaultResponse<T>> deleteById(ID id) {
+    	throw new UnsupportedOperationException("deleteById is not implemented by " + getClass().getName());
+    }
+    /**
+
+    Deletes the entities of type T identified by the given IDs, with one statement per chunk of IDs.
+    The default throws an UnsupportedOperationException, {@link CrudServiceImpl} implements it.
+    @param ids the identifiers of the entities being deleted
+    @return a ResponseEntity with a DefaultResponse reporting the number of rows deleted, or an error message if none of the entities exist or a chunk cannot be deleted
     */
-    void deleteById(ID id);
+    default ResponseEntity<DefaultResponse<T>> deleteAllById(Collection<ID> ids) {
+    	throw new UnsupportedOperationException("deleteAllById is not implemented by " + getClass().getName());
+    }
    
     
 }
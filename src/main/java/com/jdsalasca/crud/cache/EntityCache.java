@@ -0,0 +1,208 @@
+package com.jdsalasca.crud.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In memory, size and time bounded cache of entities by id, used by
+ * {@link com.jdsalasca.crud.CrudServiceImpl#getById} as a read-through cache.
+ * <p>
+ * Entries are evicted in least recently used order once the maximum size is reached, and
+ * expire once their time to live has passed since they were written. The cache is split in
+ * segments with their own lock, so concurrent lookups of different ids rarely contend.
+ * <p>
+ * The cache keeps the instances it is given and hands them to every caller, so callers that may
+ * modify them should put and read copies, as {@link com.jdsalasca.crud.CrudServiceImpl} does.
+ * <p>
+ * A read-through load must not overwrite a newer value written while it was reading the database:
+ * it takes a {@link #generation(Object)} before reading and stores its result with
+ * {@link #putIfCurrent(Object, Object, long)}, which is skipped if the id was written or evicted since.
+ *
+ * @param <ID> the type of the entity's id
+ * @param <T> the entity type
+ */
+public class EntityCache<ID, T> {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final List<Segment<T>> segments;
+	private final long timeToLiveNanos;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maximumSize the maximum number of entities kept
+	 * @param timeToLive how long an entity is served after being written
+	 */
+	public EntityCache(int maximumSize, Duration timeToLive) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("maximumSize must be positive");
+		}
+		int count = Math.max(1, Math.min(MAX_SEGMENTS, maximumSize / MAX_SEGMENTS));
+		this.segments = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			segments.add(new Segment<>((maximumSize + count - 1) / count, evictions));
+		}
+		this.timeToLiveNanos = timeToLive.toNanos();
+	}
+
+	/**
+	 * @param id the id of the entity
+	 * @return the cached entity, or null if it is absent or expired
+	 */
+	public T get(ID id) {
+		Segment<T> segment = segmentFor(id);
+		synchronized (segment) {
+			Entry<T> entry = segment.get(id);
+			if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+				segment.remove(id);
+				evictions.increment();
+				entry = null;
+			}
+			if (entry == null) {
+				misses.increment();
+				return null;
+			}
+			hits.increment();
+			return entry.value;
+		}
+	}
+
+	/**
+	 * Caches or replaces the entity with the given id.
+	 * @param id the id of the entity
+	 * @param entity the entity
+	 */
+	public void put(ID id, T entity) {
+		if (id == null || entity == null) {
+			return;
+		}
+		Segment<T> segment = segmentFor(id);
+		synchronized (segment) {
+			segment.generation++;
+			segment.put(id, new Entry<>(entity, System.nanoTime() + timeToLiveNanos));
+		}
+	}
+
+	/**
+	 * @param id the id of the entity
+	 * @return the write generation of the id, to be passed to {@link #putIfCurrent(Object, Object, long)}
+	 * once the entity has been read
+	 */
+	public long generation(ID id) {
+		Segment<T> segment = segmentFor(id);
+		synchronized (segment) {
+			return segment.generation;
+		}
+	}
+
+	/**
+	 * Caches the entity read from the database, unless the id was written or evicted after the
+	 * generation was taken, in which case the entity may be older than the database.
+	 * @param id the id of the entity
+	 * @param entity the entity
+	 * @param generation the value returned by {@link #generation(Object)} before reading the entity
+	 * @return whether the entity was cached
+	 */
+	public boolean putIfCurrent(ID id, T entity, long generation) {
+		if (id == null || entity == null) {
+			return false;
+		}
+		Segment<T> segment = segmentFor(id);
+		synchronized (segment) {
+			if (segment.generation != generation) {
+				return false;
+			}
+			segment.put(id, new Entry<>(entity, System.nanoTime() + timeToLiveNanos));
+			return true;
+		}
+	}
+
+	/**
+	 * Removes the entity with the given id, if cached.
+	 * @param id the id of the entity
+	 */
+	public void evict(ID id) {
+		if (id == null) {
+			return;
+		}
+		Segment<T> segment = segmentFor(id);
+		synchronized (segment) {
+			segment.generation++;
+			segment.remove(id);
+		}
+	}
+
+	/**
+	 * Removes every entity.
+	 */
+	public void clear() {
+		for (Segment<T> segment : segments) {
+			synchronized (segment) {
+				segment.generation++;
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * @return the current hit, miss and eviction counters and size
+	 */
+	public EntityCacheStats stats() {
+		long size = 0;
+		for (Segment<T> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return new EntityCacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+	}
+
+	private Segment<T> segmentFor(Object id) {
+		int hash = id.hashCode();
+		hash ^= (hash >>> 16);
+		return segments.get((hash & Integer.MAX_VALUE) % segments.size());
+	}
+
+	private static final class Entry<T> {
+
+		private final T value;
+		private final long expiresAt;
+
+		private Entry(T value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private static final class Segment<T> extends LinkedHashMap<Object, Entry<T>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maximumSize;
+		private final transient LongAdder evictions;
+		/** Incremented by every write, eviction and clear of the segment, guarded by the segment. */
+		private long generation;
+
+		private Segment(int maximumSize, LongAdder evictions) {
+			super(16, 0.75f, true);
+			this.maximumSize = maximumSize;
+			this.evictions = evictions;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Entry<T>> eldest) {
+			if (size() > maximumSize) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.jdsalasca.crud.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Declares which entity types are cached by their {@link com.jdsalasca.crud.CrudServiceImpl}
+ * and how. Registered as a bean, every service whose entity type was registered picks its cache
+ * up automatically; the counters of all the caches are then available from one place.
+ */
+public class EntityCacheRegistry {
+
+	private final Map<Class<?>, EntityCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+	/**
+	 * Enables the cache for an entity type.
+	 * @param entityClass the entity type
+	 * @param maximumSize the maximum number of entities kept
+	 * @param timeToLive how long an entity is served after being written
+	 * @return this registry
+	 */
+	public EntityCacheRegistry register(Class<?> entityClass, int maximumSize, Duration timeToLive) {
+		caches.put(entityClass, new EntityCache<>(maximumSize, timeToLive));
+		return this;
+	}
+
+	/**
+	 * @param <ID> the type of the entity's id
+	 * @param <T> the entity type
+	 * @param entityClass the entity type
+	 * @return the cache of the entity type, or null if it was not registered
+	 */
+	@SuppressWarnings("unchecked")
+	public <ID, T> EntityCache<ID, T> cacheFor(Class<T> entityClass) {
+		return (EntityCache<ID, T>) caches.get(entityClass);
+	}
+
+	/**
+	 * @return the counters of every registered cache by entity type
+	 */
+	public Map<Class<?>, EntityCacheStats> stats() {
+		Map<Class<?>, EntityCacheStats> stats = new LinkedHashMap<>();
+		caches.forEach((entityClass, cache) -> stats.put(entityClass, cache.stats()));
+		return Collections.unmodifiableMap(stats);
+	}
+
+}
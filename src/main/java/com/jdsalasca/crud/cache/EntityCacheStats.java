@@ -0,0 +1,28 @@
+package com.jdsalasca.crud.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the counters of an {@link EntityCache}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EntityCacheStats {
+
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long size;
+
+	/**
+	 * @return the ratio of lookups served from the cache, or 0 if there were no lookups
+	 */
+	public double hitRate() {
+		long requests = hitCount + missCount;
+		return requests == 0 ? 0 : (double) hitCount / requests;
+	}
+
+}
@@ -0,0 +1,251 @@
+package com.jdsalasca.crud.conditional;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+/**
+ * How the weak {@code ETag} validators of an entity type are computed, resolved once per entity from
+ * the JPA metamodel.
+ * <p>
+ * The validator of one entity is its {@code @Version} attribute or, when it has none, the attribute
+ * annotated with {@code @LastModifiedDate} or Hibernate's {@code @UpdateTimestamp}.
+ * <p>
+ * When the ids are numbers the validator of a list is a hash of aggregates over the whole table: the
+ * count of rows, the sum (or maximum) of the versions or the last modification, and the sum, minimum and
+ * maximum of the ids. Updates through JPA change the versions, and inserts and deletes change the count
+ * or, with generated ids, the maximum id, so the validator is checked with a one row query. Deleting
+ * rows and inserting others with ids chosen to keep the same sum and bounds is not detected.
+ * <p>
+ * Other ids, such as UUIDs or strings, follow no order, so a delete and an insert can keep every aggregate.
+ * Their list validator is instead a hash of the id and validator of every row, combined so the order of
+ * the rows does not matter; it reads two columns of each row but still loads and serializes no entity.
+ * <p>
+ * Entities with neither attribute, or a composite id, have no validator.
+ */
+public final class EntityTag {
+
+	private static final Set<String> LAST_MODIFIED_ANNOTATIONS = Set.of(
+			"org.springframework.data.annotation.LastModifiedDate", "org.hibernate.annotations.UpdateTimestamp");
+
+	private static final EntityTag UNSUPPORTED = new EntityTag(null, null, false, false);
+
+	private final String idAttribute;
+	private final SingularAttribute<?, ?> validatorAttribute;
+	private final boolean numericValidator;
+	private final boolean numericId;
+
+	private EntityTag(String idAttribute, SingularAttribute<?, ?> validatorAttribute, boolean numericValidator,
+			boolean numericId) {
+		this.idAttribute = idAttribute;
+		this.validatorAttribute = validatorAttribute;
+		this.numericValidator = numericValidator;
+		this.numericId = numericId;
+	}
+
+	/**
+	 * @param entityType the metamodel of the entity, null if it is unknown
+	 * @return how the validators of the entity are computed, see {@link #isSupported()}
+	 */
+	public static EntityTag of(EntityType<?> entityType) {
+		if (entityType == null || !entityType.hasSingleIdAttribute()) {
+			return UNSUPPORTED;
+		}
+		SingularAttribute<?, ?> version = null;
+		SingularAttribute<?, ?> lastModified = null;
+		for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+			if (attribute.isVersion()) {
+				version = attribute;
+			} else if (attribute.getPersistentAttributeType() == PersistentAttributeType.BASIC
+					&& isLastModified(attribute.getJavaMember())) {
+				lastModified = attribute;
+			}
+		}
+		SingularAttribute<?, ?> validator = (version != null) ? version : lastModified;
+		if (validator == null) {
+			return UNSUPPORTED;
+		}
+		Class<?> idType = entityType.getIdType().getJavaType();
+		return new EntityTag(entityType.getId(idType).getName(), validator, isNumber(validator.getJavaType()),
+				isNumber(idType));
+	}
+
+	private static boolean isLastModified(Member member) {
+		if (!(member instanceof AnnotatedElement)) {
+			return false;
+		}
+		for (Annotation annotation : ((AnnotatedElement) member).getAnnotations()) {
+			if (LAST_MODIFIED_ANNOTATIONS.contains(annotation.annotationType().getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isNumber(Class<?> type) {
+		return Number.class.isAssignableFrom(type) || type == long.class || type == int.class || type == short.class;
+	}
+
+	/**
+	 * @return whether the entity has a validator attribute, without it no {@code ETag} is computed
+	 */
+	public boolean isSupported() {
+		return validatorAttribute != null;
+	}
+
+	/**
+	 * @return the name of the identifier attribute of the entity
+	 */
+	public String idAttribute() {
+		return idAttribute;
+	}
+
+	/**
+	 * @return the name of the version or last modification attribute of the entity
+	 */
+	public String validatorAttribute() {
+		return validatorAttribute.getName();
+	}
+
+	/**
+	 * @return whether the list validator sums the validator attribute, otherwise it takes its maximum
+	 */
+	public boolean sumsValidator() {
+		return numericValidator;
+	}
+
+	/**
+	 * @return whether the list validator is computed by {@link #forAggregates}, otherwise by {@link #forRows}
+	 */
+	public boolean aggregatesRows() {
+		return numericId;
+	}
+
+	/**
+	 * @param entity a loaded entity
+	 * @return the {@code ETag} of the entity, or null if its validator attribute is null
+	 */
+	public String of(Object entity) {
+		return forValidator(read(validatorAttribute.getJavaMember(), entity));
+	}
+
+	/**
+	 * @param validator the value of the validator attribute of one entity, as selected from the database
+	 * @return the {@code ETag} of the entity, or null if the value is null
+	 */
+	public String forValidator(Object validator) {
+		if (validator == null) {
+			return null;
+		}
+		return "W/\"" + Long.toHexString(hash(normalized(validator))) + "\"";
+	}
+
+	/**
+	 * @param aggregates the count of rows followed by the aggregates described in the class comment, for numeric ids
+	 * @return the {@code ETag} of the list, or null if there are no rows
+	 */
+	public String forAggregates(Object[] aggregates) {
+		long count = ((Number) aggregates[0]).longValue();
+		if (count == 0) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder();
+		for (Object aggregate : aggregates) {
+			key.append(normalized(aggregate)).append('|');
+		}
+		return "W/\"" + count + "-" + Long.toHexString(hash(key.toString())) + "\"";
+	}
+
+	/**
+	 * @param rows the id and the validator attribute of every entity, in any order
+	 * @return the {@code ETag} of the list, or null if there are no rows
+	 */
+	public String forRows(Iterator<Object[]> rows) {
+		long count = 0;
+		long sum = 0;
+		while (rows.hasNext()) {
+			Object[] row = rows.next();
+			count++;
+			sum += hash(normalized(row[0]) + '|' + normalized(row[1]));
+		}
+		if (count == 0) {
+			return null;
+		}
+		return "W/\"" + count + "-" + Long.toHexString(hash(count + "|" + sum)) + "\"";
+	}
+
+	/**
+	 * Weak comparison of an {@code If-None-Match} header with an {@code ETag}.
+	 * @param ifNoneMatch the header sent by the client, may be null
+	 * @param tag the current {@code ETag}, may be null
+	 * @return whether the client already has the current representation
+	 */
+	public static boolean matches(String ifNoneMatch, String tag) {
+		if (ifNoneMatch == null || tag == null) {
+			return false;
+		}
+		String opaqueTag = opaque(tag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			String trimmed = candidate.trim();
+			if (trimmed.equals("*") || opaque(trimmed).equals(opaqueTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String opaque(String tag) {
+		return tag.startsWith("W/") ? tag.substring(2) : tag;
+	}
+
+	private static String normalized(Object value) {
+		if (value instanceof Date) {
+			return Long.toString(((Date) value).getTime());
+		}
+		if (value instanceof Number) {
+			return Long.toString(((Number) value).longValue());
+		}
+		return String.valueOf(value);
+	}
+
+	/**
+	 * 64 bit FNV-1a, so the tag does not reveal the values it is computed from.
+	 */
+	private static long hash(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= (b & 0xff);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static Object read(Member member, Object entity) {
+		try {
+			if (member instanceof Field) {
+				ReflectionUtils.makeAccessible((Field) member);
+				return ((Field) member).get(entity);
+			}
+			ReflectionUtils.makeAccessible((Method) member);
+			return ((Method) member).invoke(entity);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Cannot read " + member, e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException("Cannot read " + member, e.getTargetException());
+		}
+	}
+
+}
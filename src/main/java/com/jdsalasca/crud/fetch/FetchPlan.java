@@ -0,0 +1,83 @@
+package com.jdsalasca.crud.fetch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Subgraph;
+
+/**
+ * Associations to load with the entities of a read, in the same query or in batch, instead of one
+ * query per entity when they are first touched, typically while the response is serialized.
+ * <p>
+ * It is either the name of a {@code @NamedEntityGraph} of the entity or a list of attribute paths,
+ * such as {@code "customer"} or {@code "lines.product"}, and is applied as a JPA load graph: the
+ * attributes of the plan are loaded eagerly and the others keep the fetch type of their mapping.
+ */
+public final class FetchPlan {
+
+	/**
+	 * Query hint of the JPA load graphs.
+	 */
+	public static final String LOAD_GRAPH_HINT = "jakarta.persistence.loadgraph";
+
+	private final String graphName;
+	private final List<String> attributePaths;
+
+	private FetchPlan(String graphName, List<String> attributePaths) {
+		this.graphName = graphName;
+		this.attributePaths = attributePaths;
+	}
+
+	/**
+	 * @param graphName the name of a {@code @NamedEntityGraph} of the entity
+	 * @return the plan of the named graph
+	 */
+	public static FetchPlan graph(String graphName) {
+		return new FetchPlan(graphName, Collections.emptyList());
+	}
+
+	/**
+	 * @param attributePaths the associations to load, nested ones separated by dots
+	 * @return the plan of the attributes
+	 */
+	public static FetchPlan attributes(String... attributePaths) {
+		return new FetchPlan(null, Collections.unmodifiableList(Arrays.asList(attributePaths)));
+	}
+
+	/**
+	 * @param <T> the entity type
+	 * @param entityManager the entity manager that runs the query
+	 * @param entityClass the class of the entity
+	 * @return the entity graph to pass as {@link #LOAD_GRAPH_HINT}
+	 * @throws IllegalArgumentException if the named graph or an attribute does not exist
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> EntityGraph<T> toEntityGraph(EntityManager entityManager, Class<T> entityClass) {
+		if (graphName != null) {
+			return (EntityGraph<T>) entityManager.getEntityGraph(graphName);
+		}
+		EntityGraph<T> graph = entityManager.createEntityGraph(entityClass);
+		for (String path : attributePaths) {
+			String[] attributes = path.split("\\.");
+			if (attributes.length == 1) {
+				graph.addAttributeNodes(attributes[0]);
+				continue;
+			}
+			Subgraph<Object> subgraph = graph.addSubgraph(attributes[0]);
+			for (int i = 1; i < attributes.length - 1; i++) {
+				subgraph = subgraph.addSubgraph(attributes[i]);
+			}
+			subgraph.addAttributeNodes(attributes[attributes.length - 1]);
+		}
+		return graph;
+	}
+
+	@Override
+	public String toString() {
+		return (graphName != null) ? graphName : attributePaths.toString();
+	}
+
+}
@@ -0,0 +1,386 @@
+package com.jdsalasca.crud.filter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.ClassUtils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Conditions on the attributes of an entity, all of which must hold, translated into the
+ * {@code WHERE} clause of the query so only the matching rows are read.
+ * <p>
+ * A filter is built with {@link #eq}, {@link #in}, {@link #gt}, {@link #gte}, {@link #lt},
+ * {@link #lte} and {@link #like}, or parsed from the parameters of a request with {@link #parse}.
+ * Only the parameters that start with {@link #PARAMETER_PREFIX} are conditions, the others, such as
+ * the paging and sorting ones, are left to the application:
+ * <ul>
+ * <li>{@code filter.name=value} equals the value, repeated it is the same as {@code in}</li>
+ * <li>{@code filter.name.in=a,b,c} is one of the values</li>
+ * <li>{@code filter.name.gt}, {@code filter.name.gte}, {@code filter.name.lt}, {@code filter.name.lte}
+ * bound the attribute</li>
+ * <li>{@code filter.name.like=ab*} matches the pattern, where {@code *} is any text; a pattern without
+ * a leading {@code *} can use an index</li>
+ * </ul>
+ * The values are converted to the type of the attribute, from its JPA metamodel, when the filter
+ * becomes a {@link Specification}; only the attributes given there can be filtered, the others are
+ * rejected with an {@link IllegalArgumentException}. A parameter that cannot be parsed is rejected
+ * at the same point, so the service answers both with a 400. A filter is immutable, each method
+ * returns a new one.
+ */
+public final class CrudFilter {
+
+	/**
+	 * Prefix of the request parameters {@link #parse} reads as conditions.
+	 */
+	public static final String PARAMETER_PREFIX = "filter.";
+
+	private static final CrudFilter EMPTY = new CrudFilter(Collections.emptyList(), null);
+
+	private static final char LIKE_ESCAPE = '\\';
+
+	/**
+	 * How a condition compares the attribute with its values.
+	 */
+	public enum Operator {
+		EQ("eq"), IN("in"), GT("gt"), GTE("gte"), LT("lt"), LTE("lte"), LIKE("like");
+
+		private String value;
+
+		Operator(String value) {
+			this.value = value;
+		}
+
+		public String value() {
+			return this.value;
+		}
+
+		static Operator of(String value) {
+			for (Operator operator : values()) {
+				if (operator.value.equals(value)) {
+					return operator;
+				}
+			}
+			throw new IllegalArgumentException("Unknown filter operator " + value);
+		}
+	}
+
+	/**
+	 * One condition of a filter.
+	 */
+	public static final class Condition {
+
+		private final String attribute;
+		private final Operator operator;
+		private final List<Object> values;
+
+		private Condition(String attribute, Operator operator, List<Object> values) {
+			this.attribute = attribute;
+			this.operator = operator;
+			this.values = values;
+		}
+
+		public String attribute() {
+			return attribute;
+		}
+
+		public Operator operator() {
+			return operator;
+		}
+
+		/**
+		 * @return the values, one for every operator but {@link Operator#IN}
+		 */
+		public List<Object> values() {
+			return values;
+		}
+
+		@Override
+		public String toString() {
+			return attribute + "." + operator.value() + "=" + values;
+		}
+	}
+
+	private final List<Condition> conditions;
+
+	/**
+	 * Why a parameter of {@link #parse} was rejected, null if the filter is valid.
+	 */
+	private final String invalidReason;
+
+	private CrudFilter(List<Condition> conditions, String invalidReason) {
+		this.conditions = conditions;
+		this.invalidReason = invalidReason;
+	}
+
+	/**
+	 * @return a filter without conditions, matching every row
+	 */
+	public static CrudFilter empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Parses the filter of a request, see the class comment for the syntax. It does not throw: a parameter with an
+	 * unknown operator or an invalid value makes the filter invalid, which {@link #toSpecification} rejects.
+	 * @param parameters the parameters of the request, such as a {@code MultiValueMap} taken with {@code @RequestParam};
+	 * only the ones that start with {@link #PARAMETER_PREFIX} are read
+	 * @return the filter
+	 */
+	public static CrudFilter parse(Map<String, ? extends List<String>> parameters) {
+		try {
+			return parseConditions(parameters);
+		} catch (IllegalArgumentException e) {
+			return new CrudFilter(Collections.emptyList(), e.getMessage());
+		}
+	}
+
+	private static CrudFilter parseConditions(Map<String, ? extends List<String>> parameters) {
+		CrudFilter filter = EMPTY;
+		for (Map.Entry<String, ? extends List<String>> parameter : parameters.entrySet()) {
+			if (!parameter.getKey().startsWith(PARAMETER_PREFIX) || parameter.getValue() == null || parameter.getValue().isEmpty()) {
+				continue;
+			}
+			String key = parameter.getKey().substring(PARAMETER_PREFIX.length());
+			int dot = key.lastIndexOf('.');
+			String attribute = (dot < 0) ? key : key.substring(0, dot);
+			Operator operator = (dot < 0) ? Operator.EQ : Operator.of(key.substring(dot + 1).toLowerCase(Locale.ROOT));
+			List<String> values = parameter.getValue();
+			if (operator == Operator.IN) {
+				List<String> split = new ArrayList<>();
+				for (String value : values) {
+					Collections.addAll(split, value.split(","));
+				}
+				filter = filter.in(attribute, split);
+			} else if (operator == Operator.EQ && values.size() > 1) {
+				filter = filter.in(attribute, values);
+			} else {
+				filter = filter.with(attribute, operator, Collections.singletonList(values.get(0)));
+			}
+		}
+		return filter;
+	}
+
+	public CrudFilter eq(String attribute, Object value) {
+		return with(attribute, Operator.EQ, Collections.singletonList(value));
+	}
+
+	public CrudFilter in(String attribute, Collection<?> values) {
+		if (values.isEmpty()) {
+			throw new IllegalArgumentException("No values for " + attribute + ".in");
+		}
+		return with(attribute, Operator.IN, new ArrayList<>(values));
+	}
+
+	public CrudFilter gt(String attribute, Object value) {
+		return with(attribute, Operator.GT, Collections.singletonList(value));
+	}
+
+	public CrudFilter gte(String attribute, Object value) {
+		return with(attribute, Operator.GTE, Collections.singletonList(value));
+	}
+
+	public CrudFilter lt(String attribute, Object value) {
+		return with(attribute, Operator.LT, Collections.singletonList(value));
+	}
+
+	public CrudFilter lte(String attribute, Object value) {
+		return with(attribute, Operator.LTE, Collections.singletonList(value));
+	}
+
+	/**
+	 * @param attribute a text attribute
+	 * @param pattern the text to match, where {@code *} is any text; {@code %} and {@code _} are matched literally
+	 * @return the filter with the condition added
+	 */
+	public CrudFilter like(String attribute, String pattern) {
+		return with(attribute, Operator.LIKE, Collections.singletonList(pattern));
+	}
+
+	private CrudFilter with(String attribute, Operator operator, List<Object> values) {
+		for (Object value : values) {
+			if (value == null) {
+				throw new IllegalArgumentException("Null value for " + attribute + "." + operator.value());
+			}
+		}
+		List<Condition> extended = new ArrayList<>(conditions.size() + 1);
+		extended.addAll(conditions);
+		extended.add(new Condition(attribute, operator, Collections.unmodifiableList(values)));
+		return new CrudFilter(Collections.unmodifiableList(extended), invalidReason);
+	}
+
+	public List<Condition> conditions() {
+		return conditions;
+	}
+
+	public boolean isEmpty() {
+		return conditions.isEmpty() && invalidReason == null;
+	}
+
+	/**
+	 * @return whether a parameter of {@link #parse} was rejected
+	 */
+	public boolean isInvalid() {
+		return invalidReason != null;
+	}
+
+	/**
+	 * Checks the conditions and converts their values to the types of the attributes.
+	 * @param <T> the entity type
+	 * @param entityType the metamodel of the entity
+	 * @param allowedAttributes the attributes that can be filtered
+	 * @return the specification of the conditions
+	 * @throws IllegalArgumentException if a parameter could not be parsed, an attribute is not allowed, is not a
+	 * basic attribute of the entity, or a value cannot be converted to its type
+	 */
+	public <T> Specification<T> toSpecification(EntityType<T> entityType, Set<String> allowedAttributes) {
+		if (invalidReason != null) {
+			throw new IllegalArgumentException(invalidReason);
+		}
+		List<Condition> resolved = new ArrayList<>(conditions.size());
+		for (Condition condition : conditions) {
+			resolved.add(resolve(condition, entityType, allowedAttributes));
+		}
+		return (root, query, criteriaBuilder) -> {
+			if (resolved.isEmpty()) {
+				return null;
+			}
+			Predicate[] predicates = new Predicate[resolved.size()];
+			for (int i = 0; i < predicates.length; i++) {
+				Condition condition = resolved.get(i);
+				predicates[i] = predicate(condition, root.get(condition.attribute), criteriaBuilder);
+			}
+			return criteriaBuilder.and(predicates);
+		};
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Predicate predicate(Condition condition, Expression<?> path, CriteriaBuilder criteriaBuilder) {
+		Object value = condition.values.get(0);
+		switch (condition.operator) {
+		case IN:
+			return path.in(condition.values);
+		case GT:
+			return criteriaBuilder.greaterThan((Expression<Comparable>) path, (Comparable) value);
+		case GTE:
+			return criteriaBuilder.greaterThanOrEqualTo((Expression<Comparable>) path, (Comparable) value);
+		case LT:
+			return criteriaBuilder.lessThan((Expression<Comparable>) path, (Comparable) value);
+		case LTE:
+			return criteriaBuilder.lessThanOrEqualTo((Expression<Comparable>) path, (Comparable) value);
+		case LIKE:
+			return criteriaBuilder.like((Expression<String>) path, (String) value, LIKE_ESCAPE);
+		default:
+			return criteriaBuilder.equal(path, value);
+		}
+	}
+
+	private static Condition resolve(Condition condition, EntityType<?> entityType, Set<String> allowedAttributes) {
+		String name = condition.attribute;
+		if (!allowedAttributes.contains(name)) {
+			throw new IllegalArgumentException("Filtering on " + name + " is not allowed");
+		}
+		Attribute<?, ?> attribute = entityType.getAttribute(name);
+		if (attribute.getPersistentAttributeType() != PersistentAttributeType.BASIC) {
+			throw new IllegalArgumentException(name + " is not a basic attribute");
+		}
+		Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(attribute.getJavaType());
+		switch (condition.operator) {
+		case LIKE:
+			if (type != String.class) {
+				throw new IllegalArgumentException(name + " is not a text attribute");
+			}
+			return new Condition(name, Operator.LIKE, Collections.singletonList(likePattern(String.valueOf(condition.values.get(0)))));
+		case GT:
+		case GTE:
+		case LT:
+		case LTE:
+			if (!Comparable.class.isAssignableFrom(type)) {
+				throw new IllegalArgumentException(name + " cannot be compared");
+			}
+			break;
+		default:
+			break;
+		}
+		List<Object> values = new ArrayList<>(condition.values.size());
+		for (Object value : condition.values) {
+			values.add(convert(name, value, type));
+		}
+		return new Condition(name, condition.operator, values);
+	}
+
+	private static String likePattern(String pattern) {
+		StringBuilder like = new StringBuilder(pattern.length() + 4);
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '*') {
+				like.append('%');
+			} else {
+				if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+					like.append(LIKE_ESCAPE);
+				}
+				like.append(c);
+			}
+		}
+		return like.toString();
+	}
+
+	private static Object convert(String name, Object value, Class<?> type) {
+		if (type.isInstance(value)) {
+			return value;
+		}
+		try {
+			Method parse = (value instanceof String) ? parseMethod(type) : null;
+			if (parse != null) {
+				return parse.invoke(null, value);
+			}
+			Object converted = DefaultConversionService.getSharedInstance().convert(value, type);
+			if (converted == null) {
+				throw new IllegalArgumentException("Invalid value " + value + " for " + name);
+			}
+			return converted;
+		} catch (ConversionException | IllegalAccessException e) {
+			throw new IllegalArgumentException("Invalid value " + value + " for " + name, e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalArgumentException("Invalid value " + value + " for " + name, e.getTargetException());
+		}
+	}
+
+	/**
+	 * The {@code parse(CharSequence)} factory of the {@code java.time} types, which the default conversion service does not use.
+	 */
+	private static Method parseMethod(Class<?> type) {
+		if (!type.getName().startsWith("java.time.")) {
+			return null;
+		}
+		try {
+			Method parse = type.getMethod("parse", CharSequence.class);
+			return Modifier.isStatic(parse.getModifiers()) ? parse : null;
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return conditions.toString();
+	}
+
+}
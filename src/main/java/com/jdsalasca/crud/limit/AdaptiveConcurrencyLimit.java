@@ -0,0 +1,131 @@
+package com.jdsalasca.crud.limit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the number of calls in flight to a limit that adapts to their latency, additive increase and
+ * multiplicative decrease (AIMD).
+ * <p>
+ * The limit is adapted once per sampling window, the calls that were in flight when it last changed.
+ * A call that takes longer than {@code latencyThreshold}, or fails, multiplies the limit by
+ * {@code backoffRatio} and opens a window; the calls of that window that complete afterwards are
+ * slow for the same reason and do not decrease it again. Once as many calls as the limit were fast
+ * while at least half of the limit was in use, the limit grows by one. So while the resource behind
+ * the calls keeps up, the limit grows to {@code maxLimit}, and as soon as it slows down the limit
+ * shrinks towards {@code minLimit} and the calls beyond it are rejected by {@link #tryAcquire}
+ * instead of waiting for the resource.
+ */
+public class AdaptiveConcurrencyLimit {
+
+	/**
+	 * Ratio applied to the limit after a slow or failed call, at most once per sampling window.
+	 */
+	public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyThresholdNanos;
+	private final double backoffRatio;
+
+	private final AtomicInteger limit;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	/**
+	 * Calls in flight at the last decrease that have not completed yet, their latency does not decrease the limit again.
+	 */
+	private final AtomicInteger windowCalls = new AtomicInteger();
+	/**
+	 * Fast calls since the last change of the limit.
+	 */
+	private final AtomicInteger fastCalls = new AtomicInteger();
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * @param initialLimit the limit before any call completes
+	 * @param minLimit the lowest limit, at least one
+	 * @param maxLimit the highest limit
+	 * @param latencyThreshold the latency above which a call counts as a sign of overload
+	 * @param backoffRatio the ratio applied to the limit after a slow or failed call, between 0.5 and 1
+	 */
+	public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+		if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+			throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+		}
+		if (backoffRatio < 0.5 || backoffRatio >= 1) {
+			throw new IllegalArgumentException("backoffRatio must be in [0.5, 1)");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.latencyThresholdNanos = latencyThreshold.toNanos();
+		this.backoffRatio = backoffRatio;
+		this.limit = new AtomicInteger(initialLimit);
+	}
+
+	/**
+	 * @param initialLimit the limit before any call completes, also the highest limit is four times this
+	 * @param latencyThreshold the latency above which a call counts as a sign of overload
+	 * @return a limit between one and four times {@code initialLimit} with the default backoff ratio
+	 */
+	public static AdaptiveConcurrencyLimit of(int initialLimit, Duration latencyThreshold) {
+		return new AdaptiveConcurrencyLimit(initialLimit, 1, initialLimit * 4, latencyThreshold, DEFAULT_BACKOFF_RATIO);
+	}
+
+	/**
+	 * Takes a slot for a call, which must be given back with {@link #release} once it completes.
+	 * @return whether the call may proceed, false if the limit is reached
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit.get()) {
+				rejected.increment();
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Gives back the slot of a call and adapts the limit to how it went.
+	 * @param latencyNanos how long the call took
+	 * @param failed whether the call failed in a way that may mean overload, such as a timeout or a 5xx response
+	 */
+	public void release(long latencyNanos, boolean failed) {
+		int used = inFlight.getAndDecrement();
+		int window = windowCalls.getAndUpdate(remaining -> Math.max(0, remaining - 1));
+		if (failed || latencyNanos > latencyThresholdNanos) {
+			if (window == 0 && windowCalls.compareAndSet(0, used - 1)) {
+				fastCalls.set(0);
+				limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+			}
+		} else if (used * 2 >= limit.get() && fastCalls.incrementAndGet() >= limit.get()) {
+			fastCalls.set(0);
+			limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+		}
+	}
+
+	/**
+	 * @return the current limit of calls in flight
+	 */
+	public int limit() {
+		return limit.get();
+	}
+
+	/**
+	 * @return the number of calls in flight
+	 */
+	public int inFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * @return the number of calls {@link #tryAcquire} rejected
+	 */
+	public long rejectedCount() {
+		return rejected.sum();
+	}
+
+}
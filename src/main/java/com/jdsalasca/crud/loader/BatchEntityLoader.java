@@ -0,0 +1,191 @@
+package com.jdsalasca.crud.loader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces the entities requested by concurrent callers into batches resolved with a single query,
+ * in the manner of a DataLoader.
+ * <p>
+ * The first id of a batch opens a window; the ids requested until it closes, or until the batch is
+ * full, are loaded together with one call to the batch finder, usually a repository's
+ * {@code findAllById}. An id requested again while its batch is still collecting is not added twice,
+ * its callers share the same future; once the batch is sent, a new request for the id waits for the
+ * next batch, so it never receives an entity read before it asked. Each future is completed with the
+ * entity, with null when the finder did not return it, or exceptionally when the finder fails or the
+ * timeout passes first.
+ * <p>
+ * The batch finder runs on the given executor while the callers wait, so it must not be the executor
+ * the callers themselves run on: once all its threads wait for a batch, no batch can run.
+ *
+ * @param <ID> the type of the entity's id
+ * @param <T> the entity type
+ */
+@Slf4j
+public class BatchEntityLoader<ID, T> {
+
+	private static final ScheduledExecutorService WINDOWS = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "crud-batch-loader");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Function<List<ID>, ? extends Iterable<T>> batchFinder;
+	private final Function<T, ?> identifier;
+	private final long windowNanos;
+	private final int maxBatchSize;
+	private final long timeoutNanos;
+	private final Executor executor;
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder deduplicated = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+
+	private Map<ID, CompletableFuture<T>> pending = new LinkedHashMap<>();
+	private ScheduledFuture<?> windowClose;
+
+	/**
+	 * @param batchFinder finds the entities of a batch of ids, in any order, omitting the missing ones
+	 * @param identifier returns the id of an entity found
+	 * @param window how long a batch collects ids after its first one
+	 * @param maxBatchSize the number of ids that sends a batch before its window closes
+	 * @param timeout how long a caller waits for its entity before its future fails with a
+	 * {@link java.util.concurrent.TimeoutException}
+	 * @param executor runs the batch finder, not the executor of the callers
+	 */
+	public BatchEntityLoader(Function<List<ID>, ? extends Iterable<T>> batchFinder, Function<T, ?> identifier,
+			Duration window, int maxBatchSize, Duration timeout, Executor executor) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("maxBatchSize must be positive");
+		}
+		this.batchFinder = batchFinder;
+		this.identifier = identifier;
+		this.windowNanos = window.toNanos();
+		this.maxBatchSize = maxBatchSize;
+		this.timeoutNanos = timeout.toNanos();
+		this.executor = executor;
+	}
+
+	/**
+	 * @param id the id of the entity
+	 * @return a future completed with the entity, or with null if it does not exist
+	 */
+	public CompletableFuture<T> load(ID id) {
+		requests.increment();
+		CompletableFuture<T> future;
+		Map<ID, CompletableFuture<T>> full = null;
+		synchronized (this) {
+			CompletableFuture<T> collecting = pending.get(id);
+			if (collecting != null && !collecting.isDone()) {
+				deduplicated.increment();
+				return collecting;
+			}
+			future = new CompletableFuture<>();
+			pending.put(id, future);
+			if (pending.size() >= maxBatchSize) {
+				full = takePending();
+			} else if (windowClose == null) {
+				windowClose = WINDOWS.schedule(this::closeWindow, windowNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+		future.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS);
+		if (full != null) {
+			dispatch(full);
+		}
+		return future;
+	}
+
+	/**
+	 * @return the number of calls to {@link #load}
+	 */
+	public long requestCount() {
+		return requests.sum();
+	}
+
+	/**
+	 * @return the number of calls to {@link #load} that joined an id of the batch still collecting
+	 */
+	public long deduplicatedCount() {
+		return deduplicated.sum();
+	}
+
+	/**
+	 * @return the number of batches sent to the batch finder
+	 */
+	public long batchCount() {
+		return batches.sum();
+	}
+
+	private void closeWindow() {
+		Map<ID, CompletableFuture<T>> batch;
+		synchronized (this) {
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = takePending();
+		}
+		dispatch(batch);
+	}
+
+	private Map<ID, CompletableFuture<T>> takePending() {
+		Map<ID, CompletableFuture<T>> batch = pending;
+		pending = new LinkedHashMap<>();
+		if (windowClose != null) {
+			windowClose.cancel(false);
+			windowClose = null;
+		}
+		return batch;
+	}
+
+	private void dispatch(Map<ID, CompletableFuture<T>> batch) {
+		batches.increment();
+		try {
+			executor.execute(() -> resolve(batch));
+		} catch (RejectedExecutionException e) {
+			fail(batch, e);
+		}
+	}
+
+	private void resolve(Map<ID, CompletableFuture<T>> batch) {
+		List<ID> ids = new ArrayList<>(batch.size());
+		batch.forEach((id, future) -> {
+			if (!future.isDone()) {
+				ids.add(id);
+			}
+		});
+		if (ids.isEmpty()) {
+			return;
+		}
+		Map<Object, T> found = new HashMap<>();
+		try {
+			for (T entity : batchFinder.apply(ids)) {
+				found.put(identifier.apply(entity), entity);
+			}
+		} catch (RuntimeException e) {
+			log.debug("batch of {} ids failed: {}", ids.size(), e.getLocalizedMessage());
+			fail(batch, e);
+			return;
+		}
+		batch.forEach((id, future) -> future.complete(found.get(id)));
+	}
+
+	private static <ID, T> void fail(Map<ID, CompletableFuture<T>> batch, Throwable error) {
+		batch.values().forEach(future -> future.completeExceptionally(error));
+	}
+
+}
@@ -0,0 +1,235 @@
+package com.jdsalasca.crud.mapping;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.config.Configuration;
+import org.modelmapper.convention.MatchingStrategies;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link EntityMapper} that compiles, once per (DTO, entity) pair, a copier made of
+ * {@link LambdaMetafactory} generated getters and setters, so each call is a plain sequence of
+ * method invocations instead of ModelMapper's reflective matching.
+ * <p>
+ * The copier is only compiled when it gives the same result as the {@link ModelMapper} it wraps:
+ * every readable DTO property must have a writable entity property with the same name and a
+ * compatible value type (primitives, wrappers, strings, numbers, dates, enums...), and the
+ * ModelMapper must use the default conventions without an explicit type map for the pair.
+ * Any other pair, or a pair whose accessors cannot be reached by a method handle, is mapped by the
+ * wrapped ModelMapper.
+ *
+ * @param <K> the data transfer object (DTO) type
+ * @param <T> the entity type
+ */
+@Slf4j
+public class CompiledEntityMapper<K, T> implements EntityMapper<K, T> {
+
+	private static final Copier UNSUPPORTED = new Copier(null, new Property[0], false);
+
+	private final ModelMapper modelMapper;
+
+	private final ClassValue<ConcurrentMap<Class<?>, Copier>> copiers = new ClassValue<ConcurrentMap<Class<?>, Copier>>() {
+		@Override
+		protected ConcurrentMap<Class<?>, Copier> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	public CompiledEntityMapper(ModelMapper modelMapper) {
+		this.modelMapper = modelMapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T toEntity(K dto, Class<T> entityClass) {
+		Copier copier = copier(dto.getClass(), entityClass);
+		if (copier == UNSUPPORTED || copier.constructor == null) {
+			return modelMapper.map(dto, entityClass);
+		}
+		T entity = (T) copier.constructor.get();
+		copier.copy(dto, entity);
+		return entity;
+	}
+
+	@Override
+	public void copy(K dto, T entity) {
+		Copier copier = copier(dto.getClass(), entity.getClass());
+		if (copier == UNSUPPORTED) {
+			modelMapper.map(dto, entity);
+		} else {
+			copier.copy(dto, entity);
+		}
+	}
+
+	/**
+	 * @param dtoClass the class of the DTO
+	 * @param entityClass the class of the entity
+	 * @return whether the pair is mapped by a compiled copier instead of the ModelMapper
+	 */
+	public boolean isCompiled(Class<?> dtoClass, Class<?> entityClass) {
+		return copier(dtoClass, entityClass) != UNSUPPORTED;
+	}
+
+	private Copier copier(Class<?> dtoClass, Class<?> entityClass) {
+		ConcurrentMap<Class<?>, Copier> byEntity = copiers.get(dtoClass);
+		Copier copier = byEntity.get(entityClass);
+		if (copier == null) {
+			copier = byEntity.computeIfAbsent(entityClass, type -> compile(dtoClass, type));
+		}
+		return copier;
+	}
+
+	private Copier compile(Class<?> dtoClass, Class<?> entityClass) {
+		Configuration configuration = modelMapper.getConfiguration();
+		if (modelMapper.getTypeMap(dtoClass, entityClass) != null
+				|| configuration.isFieldMatchingEnabled()
+				|| configuration.getMatchingStrategy() == MatchingStrategies.LOOSE) {
+			return UNSUPPORTED;
+		}
+		try {
+			Map<String, PropertyDescriptor> targets = new HashMap<>();
+			for (PropertyDescriptor property : Introspector.getBeanInfo(entityClass).getPropertyDescriptors()) {
+				if (property.getWriteMethod() != null) {
+					targets.put(property.getName(), property);
+				}
+			}
+			List<Property> properties = new ArrayList<>();
+			for (PropertyDescriptor source : Introspector.getBeanInfo(dtoClass, Object.class).getPropertyDescriptors()) {
+				if (source.getReadMethod() == null) {
+					continue;
+				}
+				PropertyDescriptor target = targets.get(source.getName());
+				if (target == null || !isCompatible(source.getPropertyType(), target.getPropertyType())) {
+					return UNSUPPORTED;
+				}
+				properties.add(new Property(getter(source.getReadMethod()), setter(target.getWriteMethod())));
+			}
+			return new Copier(constructor(entityClass), properties.toArray(new Property[0]), configuration.isSkipNullEnabled());
+		} catch (IntrospectionException | ReflectiveOperationException | LambdaConversionException e) {
+			log.debug("Falling back to ModelMapper for {} -> {}: {}", dtoClass, entityClass, e.toString());
+			return UNSUPPORTED;
+		}
+	}
+
+	private static boolean isCompatible(Class<?> source, Class<?> target) {
+		if (source.isPrimitive() || target.isPrimitive()) {
+			return source == target;
+		}
+		return target.isAssignableFrom(source) && isValueType(source);
+	}
+
+	private static boolean isValueType(Class<?> type) {
+		return type == String.class || type == Boolean.class || type == Character.class
+				|| Number.class.isAssignableFrom(type) && (type.getName().startsWith("java.lang.")
+						|| type == BigDecimal.class || type == BigInteger.class)
+				|| type.isEnum() || type == UUID.class
+				|| Date.class.isAssignableFrom(type) && type.getName().startsWith("java.")
+				|| type.getName().startsWith("java.time.");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> getter(Method method) throws ReflectiveOperationException, LambdaConversionException {
+		MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+		MethodHandle handle = lookup.unreflect(method);
+		CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+				MethodType.methodType(Object.class, Object.class), handle,
+				MethodType.methodType(MethodType.methodType(method.getReturnType()).wrap().returnType(), method.getDeclaringClass()));
+		return (Function<Object, Object>) instantiate(site);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> setter(Method method) throws ReflectiveOperationException, LambdaConversionException {
+		MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+		MethodHandle handle = lookup.unreflect(method);
+		Class<?> parameter = MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType();
+		CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+				MethodType.methodType(void.class, Object.class, Object.class), handle,
+				MethodType.methodType(void.class, method.getDeclaringClass(), parameter));
+		return (BiConsumer<Object, Object>) instantiate(site);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Supplier<Object> constructor(Class<?> entityClass) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+			MethodHandle handle = lookup.findConstructor(entityClass, MethodType.methodType(void.class));
+			CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+					MethodType.methodType(Object.class), handle, MethodType.methodType(entityClass));
+			return (Supplier<Object>) instantiate(site);
+		} catch (ReflectiveOperationException | LambdaConversionException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the function of a {@link LambdaMetafactory} call site, whose target only instantiates it and throws no checked exception.
+	 */
+	private static Object instantiate(CallSite site) {
+		try {
+			return site.getTarget().invoke();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	private static final class Property {
+
+		private final Function<Object, Object> getter;
+		private final BiConsumer<Object, Object> setter;
+
+		private Property(Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+			this.getter = getter;
+			this.setter = setter;
+		}
+	}
+
+	private static final class Copier {
+
+		private final Supplier<Object> constructor;
+		private final Property[] properties;
+		private final boolean skipNull;
+
+		private Copier(Supplier<Object> constructor, Property[] properties, boolean skipNull) {
+			this.constructor = constructor;
+			this.properties = properties;
+			this.skipNull = skipNull;
+		}
+
+		private void copy(Object source, Object target) {
+			for (Property property : properties) {
+				Object value = property.getter.apply(source);
+				if (value != null || !skipNull) {
+					property.setter.accept(target, value);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.jdsalasca.crud.mapping;
+
+/**
+ * Maps the data transfer objects received by a {@link com.jdsalasca.crud.CrudServiceImpl} into its entities.
+ *
+ * @param <K> the data transfer object (DTO) type
+ * @param <T> the entity type
+ */
+public interface EntityMapper<K, T> {
+
+	/**
+	 * Creates a new entity with the data of the DTO.
+	 * @param dto the source DTO
+	 * @param entityClass the class of the entity to create
+	 * @return the new entity
+	 */
+	T toEntity(K dto, Class<T> entityClass);
+
+	/**
+	 * Copies the data of the DTO into an existing entity.
+	 * @param dto the source DTO
+	 * @param entity the entity to update
+	 */
+	void copy(K dto, T entity);
+
+}
@@ -0,0 +1,29 @@
+package com.jdsalasca.crud.mapping;
+
+import org.modelmapper.ModelMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link EntityMapper} backed by a {@link ModelMapper}, it supports every mapping ModelMapper supports
+ * at the cost of reflective, convention based matching on each call.
+ *
+ * @param <K> the data transfer object (DTO) type
+ * @param <T> the entity type
+ */
+@RequiredArgsConstructor
+public class ModelMapperEntityMapper<K, T> implements EntityMapper<K, T> {
+
+	private final ModelMapper modelMapper;
+
+	@Override
+	public T toEntity(K dto, Class<T> entityClass) {
+		return modelMapper.map(dto, entityClass);
+	}
+
+	@Override
+	public void copy(K dto, T entity) {
+		modelMapper.map(dto, entity);
+	}
+
+}
@@ -0,0 +1,264 @@
+package com.jdsalasca.crud.mapping;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+/**
+ * Which properties of a DTO can be written into an entity with a bulk {@code UPDATE}, resolved once
+ * per (DTO, entity) pair from the JPA metamodel.
+ * <p>
+ * A DTO property is part of the update when the entity has a basic attribute with the same name and
+ * a compatible type that is neither its identifier nor its version; other DTO properties are ignored.
+ * A DTO property named as the {@code @Version} attribute of the entity is read as the version the
+ * client expects to update.
+ * <p>
+ * An attribute annotated with Spring Data's {@code @LastModifiedDate} or Hibernate's {@code @UpdateTimestamp}
+ * is set to the current time by every update, as saving the entity would; the DTO cannot write it.
+ */
+public final class PartialUpdate {
+
+	private final String idAttribute;
+	private final String versionAttribute;
+	private final Class<?> versionType;
+	private final List<Property> properties;
+	private final Method expectedVersion;
+	private final String lastModifiedAttribute;
+	private final Class<?> lastModifiedType;
+
+	private PartialUpdate(String idAttribute, String versionAttribute, Class<?> versionType, List<Property> properties,
+			Method expectedVersion, SingularAttribute<?, ?> lastModified) {
+		this.idAttribute = idAttribute;
+		this.versionAttribute = versionAttribute;
+		this.versionType = versionType;
+		this.properties = properties;
+		this.expectedVersion = expectedVersion;
+		this.lastModifiedAttribute = lastModified == null ? null : lastModified.getName();
+		this.lastModifiedType = lastModified == null ? null : lastModified.getJavaType();
+	}
+
+	/**
+	 * @param entityType the metamodel of the entity
+	 * @param dtoClass the class of the DTO
+	 * @return the properties of the DTO that update the entity
+	 * @throws UnsupportedOperationException if the entity has a composite identifier
+	 */
+	public static PartialUpdate of(EntityType<?> entityType, Class<?> dtoClass) {
+		if (!entityType.hasSingleIdAttribute()) {
+			throw new UnsupportedOperationException("Partial updates require a single id attribute in " + entityType.getName());
+		}
+		String idAttribute = entityType.getId(entityType.getIdType().getJavaType()).getName();
+		SingularAttribute<?, ?> version = null;
+		if (entityType.hasVersionAttribute()) {
+			for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+				if (attribute.isVersion()) {
+					version = attribute;
+				}
+			}
+		}
+		SingularAttribute<?, ?> lastModified = lastModifiedAttribute(entityType);
+		List<Property> properties = new ArrayList<>();
+		Method expectedVersion = null;
+		for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(dtoClass)) {
+			Method getter = descriptor.getReadMethod();
+			if (getter == null || getter.getDeclaringClass() == Object.class) {
+				continue;
+			}
+			String name = descriptor.getName();
+			if (version != null && name.equals(version.getName())) {
+				if (ClassUtils.isAssignable(version.getJavaType(), descriptor.getPropertyType())) {
+					expectedVersion = getter;
+				}
+				continue;
+			}
+			SingularAttribute<?, ?> attribute = singularAttribute(entityType, name);
+			if (attribute != null && !attribute.isId() && attribute != lastModified
+					&& attribute.getPersistentAttributeType() == PersistentAttributeType.BASIC
+					&& ClassUtils.isAssignable(attribute.getJavaType(), descriptor.getPropertyType())) {
+				properties.add(new Property(name, getter));
+			}
+		}
+		return new PartialUpdate(idAttribute, version == null ? null : version.getName(),
+				version == null ? null : version.getJavaType(), Collections.unmodifiableList(properties), expectedVersion, lastModified);
+	}
+
+	/**
+	 * @return the attribute holding the last modification time of the entity, if it has one of a type this class can set
+	 */
+	public static SingularAttribute<?, ?> lastModifiedAttribute(EntityType<?> entityType) {
+		for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+			if (isLastModified(attribute.getJavaMember()) && now(attribute.getJavaType()) != null) {
+				return attribute;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isLastModified(Member member) {
+		if (member instanceof Method) {
+			PropertyDescriptor property = BeanUtils.findPropertyForMethod((Method) member);
+			Field field = (property == null) ? null : ReflectionUtils.findField(member.getDeclaringClass(), property.getName());
+			return hasLastModifiedAnnotation((Method) member) || (field != null && hasLastModifiedAnnotation(field));
+		}
+		return member instanceof AnnotatedElement && hasLastModifiedAnnotation((AnnotatedElement) member);
+	}
+
+	/**
+	 * Compares the names so neither Spring Data Commons' nor Hibernate's annotations need to be on the class path.
+	 */
+	private static boolean hasLastModifiedAnnotation(AnnotatedElement element) {
+		for (Annotation annotation : element.getAnnotations()) {
+			String name = annotation.annotationType().getName();
+			if (name.equals("org.springframework.data.annotation.LastModifiedDate") || name.equals("org.hibernate.annotations.UpdateTimestamp")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param type the type of a time attribute
+	 * @return the current time as this type, or null if the type is not supported
+	 */
+	public static Object now(Class<?> type) {
+		if (type == Instant.class) {
+			return Instant.now();
+		}
+		if (type == LocalDateTime.class) {
+			return LocalDateTime.now();
+		}
+		if (type == OffsetDateTime.class) {
+			return OffsetDateTime.now();
+		}
+		if (type == ZonedDateTime.class) {
+			return ZonedDateTime.now();
+		}
+		if (type == LocalDate.class) {
+			return LocalDate.now();
+		}
+		if (type == Timestamp.class) {
+			return new Timestamp(System.currentTimeMillis());
+		}
+		if (type == Date.class) {
+			return new Date();
+		}
+		if (type == Long.class || type == long.class) {
+			return System.currentTimeMillis();
+		}
+		return null;
+	}
+
+	private static SingularAttribute<?, ?> singularAttribute(EntityType<?> entityType, String name) {
+		for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+			if (attribute.getName().equals(name)) {
+				return attribute;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param dto the DTO
+	 * @return the non-null values of the DTO to write, by entity attribute, in declaration order
+	 */
+	public Map<String, Object> changes(Object dto) {
+		Map<String, Object> changes = new LinkedHashMap<>();
+		for (Property property : properties) {
+			Object value = read(property.getter, dto);
+			if (value != null) {
+				changes.put(property.name, value);
+			}
+		}
+		return changes;
+	}
+
+	/**
+	 * @param dto the DTO
+	 * @return the version the DTO expects the entity to have, or null if it does not carry one
+	 */
+	public Object expectedVersion(Object dto) {
+		return expectedVersion == null ? null : read(expectedVersion, dto);
+	}
+
+	/**
+	 * @return the name of the identifier attribute of the entity
+	 */
+	public String idAttribute() {
+		return idAttribute;
+	}
+
+	/**
+	 * @return the name of the {@code @Version} attribute of the entity, or null if it has none
+	 */
+	public String versionAttribute() {
+		return versionAttribute;
+	}
+
+	/**
+	 * @return the type of the {@code @Version} attribute of the entity, or null if it has none
+	 */
+	public Class<?> versionType() {
+		return versionType;
+	}
+
+	/**
+	 * @return the name of the last modification time attribute of the entity, or null if it has none
+	 */
+	public String lastModifiedAttribute() {
+		return lastModifiedAttribute;
+	}
+
+	/**
+	 * @return the current time as the type of the last modification time attribute
+	 */
+	public Object lastModifiedValue() {
+		return now(lastModifiedType);
+	}
+
+	private static Object read(Method getter, Object dto) {
+		try {
+			return getter.invoke(dto);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Cannot read " + getter, e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException("Cannot read " + getter, e.getTargetException());
+		}
+	}
+
+	private static final class Property {
+
+		private final String name;
+		private final Method getter;
+
+		private Property(String name, Method getter) {
+			this.name = name;
+			this.getter = getter;
+		}
+
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.jdsalasca.crud.metrics;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Receives the latency, outcome and result size of each operation of a
+ * {@link com.jdsalasca.crud.CrudServiceImpl}. Declared as a bean it is picked up by every service.
+ * <p>
+ * It is called on the request thread once per operation, implementations must be thread safe and
+ * should not block.
+ *
+ * @see InMemoryCrudMetrics
+ * @see MicrometerCrudMetrics
+ */
+@FunctionalInterface
+public interface CrudMetrics {
+
+	/**
+	 * Discards every measurement, used by the services when no metrics are configured.
+	 */
+	CrudMetrics NOOP = (entityClass, operation, outcome, durationNanos, resultSize) -> { };
+
+	/**
+	 * Records one operation.
+	 * @param entityClass the entity type of the service
+	 * @param operation the operation
+	 * @param outcome how the operation ended
+	 * @param durationNanos the time spent in the operation, in nanoseconds
+	 * @param resultSize the number of entities in the response, or of rows deleted by the delete operations
+	 */
+	void record(Class<?> entityClass, CrudOperation operation, CrudOutcome outcome, long durationNanos, int resultSize);
+
+	/**
+	 * Registers the number of saves waiting in the write-behind queue of a service, read when the metrics are published.
+	 * Does nothing by default.
+	 * @param entityClass the entity type of the service
+	 * @param depth returns the current number of queued saves
+	 */
+	default void monitorWriteBehindDepth(Class<?> entityClass, IntSupplier depth) {
+	}
+
+	/**
+	 * Registers the adaptive concurrency limit of an operation of a service, read when the metrics are published.
+	 * Does nothing by default.
+	 * @param entityClass the entity type of the service
+	 * @param operation the limited operation
+	 * @param limit returns the current limit of calls in flight
+	 */
+	default void monitorConcurrencyLimit(Class<?> entityClass, CrudOperation operation, IntSupplier limit) {
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.jdsalasca.crud.metrics;
+
+/**
+ * Operations of {@link com.jdsalasca.crud.CrudServiceImpl} reported to {@link CrudMetrics}.
+ */
+public enum CrudOperation {
+	GET_ALL("getAll"), GET_BY_ID("getById"), SAVE("save"), UPDATE("update"), PATCH("patch"), DELETE_BY_ID("deleteById"),
+	DELETE_ALL_BY_ID("deleteAllById"), WRITE_BEHIND_FLUSH("writeBehindFlush"), SAVE_ALL("saveAll"), UPDATE_ALL("updateAll");
+
+	private String value;
+
+	CrudOperation(String value) {
+		this.value = value;
+	}
+
+	public String value() {
+		return this.value;
+	}
+}
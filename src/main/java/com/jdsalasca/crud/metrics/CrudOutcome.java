@@ -0,0 +1,35 @@
+package com.jdsalasca.crud.metrics;
+
+/**
+ * How an operation reported to {@link CrudMetrics} ended.
+ */
+public enum CrudOutcome {
+	/** a 2xx response */
+	OK("ok"),
+	/** a 304 response because the client already has the current representation */
+	NOT_MODIFIED("not_modified"),
+	/** a 400 response because of the request, such as a failed validation */
+	BAD_REQUEST("bad_request"),
+	/** a 404 response, or a 400 because the entity to update does not exist */
+	NOT_FOUND("not_found"),
+	/** a 429 or 503 response because the service has no room for the request */
+	REJECTED("rejected"),
+	/** a 409 response because the entity has another version than the one the request expects */
+	CONFLICT("conflict"),
+	/** the database rejected the write because of a constraint */
+	INTEGRITY_VIOLATION("integrity_violation"),
+	/** the DTO could not be mapped into the entity */
+	MAPPING_FAILURE("mapping_failure"),
+	/** any other exception, whether it was answered or thrown to the caller */
+	ERROR("error");
+
+	private String value;
+
+	CrudOutcome(String value) {
+		this.value = value;
+	}
+
+	public String value() {
+		return this.value;
+	}
+}
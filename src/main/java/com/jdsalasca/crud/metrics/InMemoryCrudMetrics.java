@@ -0,0 +1,155 @@
+package com.jdsalasca.crud.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link CrudMetrics} kept in memory, without dependencies, for applications without a metrics
+ * library or to inspect the services from an endpoint or a test.
+ * <p>
+ * Each combination of entity type, operation and outcome has its own counters and two log-linear
+ * histograms, of the latency and of the result size, with eight buckets per power of two. Recording
+ * takes a few atomic increments and does not allocate; the counters are never reset.
+ */
+public class InMemoryCrudMetrics implements CrudMetrics {
+
+	private static final CrudOperation[] OPERATIONS = CrudOperation.values();
+	private static final CrudOutcome[] OUTCOMES = CrudOutcome.values();
+
+	private final Map<Class<?>, AtomicReferenceArray<Recorder>> recorders = new ConcurrentHashMap<>();
+
+	@Override
+	public void record(Class<?> entityClass, CrudOperation operation, CrudOutcome outcome, long durationNanos, int resultSize) {
+		AtomicReferenceArray<Recorder> entityRecorders = recorders.computeIfAbsent(entityClass,
+				key -> new AtomicReferenceArray<>(OPERATIONS.length * OUTCOMES.length));
+		int index = operation.ordinal() * OUTCOMES.length + outcome.ordinal();
+		Recorder recorder = entityRecorders.get(index);
+		if (recorder == null) {
+			entityRecorders.compareAndSet(index, null, new Recorder());
+			recorder = entityRecorders.get(index);
+		}
+		recorder.record(durationNanos, resultSize);
+	}
+
+	/**
+	 * @param entityClass the entity type
+	 * @param operation the operation
+	 * @param outcome the outcome
+	 * @return the measurements of the combination, or null if it was never recorded
+	 */
+	public OperationStats stats(Class<?> entityClass, CrudOperation operation, CrudOutcome outcome) {
+		AtomicReferenceArray<Recorder> entityRecorders = recorders.get(entityClass);
+		if (entityRecorders == null) {
+			return null;
+		}
+		Recorder recorder = entityRecorders.get(operation.ordinal() * OUTCOMES.length + outcome.ordinal());
+		return recorder == null ? null : recorder.stats(entityClass, operation, outcome);
+	}
+
+	/**
+	 * @return the measurements of every recorded combination of entity type, operation and outcome
+	 */
+	public List<OperationStats> snapshot() {
+		List<OperationStats> snapshot = new ArrayList<>();
+		recorders.forEach((entityClass, entityRecorders) -> {
+			for (CrudOperation operation : OPERATIONS) {
+				for (CrudOutcome outcome : OUTCOMES) {
+					Recorder recorder = entityRecorders.get(operation.ordinal() * OUTCOMES.length + outcome.ordinal());
+					if (recorder != null) {
+						snapshot.add(recorder.stats(entityClass, operation, outcome));
+					}
+				}
+			}
+		});
+		return snapshot;
+	}
+
+	private static final class Recorder {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+		private final LongAccumulator maxResultSize = new LongAccumulator(Math::max, 0);
+		private final Histogram latency = new Histogram();
+		private final Histogram resultSize = new Histogram();
+
+		private void record(long durationNanos, int size) {
+			count.increment();
+			totalNanos.add(durationNanos);
+			maxNanos.accumulate(durationNanos);
+			maxResultSize.accumulate(size);
+			latency.record(durationNanos);
+			resultSize.record(size);
+		}
+
+		private OperationStats stats(Class<?> entityClass, CrudOperation operation, CrudOutcome outcome) {
+			long max = maxNanos.get();
+			long maxSize = maxResultSize.get();
+			return new OperationStats(entityClass, operation, outcome, count.sum(), totalNanos.sum(), max,
+					Math.min(max, latency.percentile(0.50)), Math.min(max, latency.percentile(0.95)),
+					Math.min(max, latency.percentile(0.99)), Math.min(maxSize, resultSize.percentile(0.50)),
+					Math.min(maxSize, resultSize.percentile(0.99)), maxSize);
+		}
+
+	}
+
+	/**
+	 * Counts values in buckets that are exact below 8 and then split each power of two in 8 buckets.
+	 */
+	private static final class Histogram {
+
+		private static final int SUB_BUCKET_BITS = 3;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+		private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+
+		private void record(long value) {
+			counts.incrementAndGet(bucketOf(Math.max(0, value)));
+		}
+
+		private long percentile(double percentile) {
+			long total = 0;
+			for (int i = 0; i < counts.length(); i++) {
+				total += counts.get(i);
+			}
+			if (total == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(percentile * total));
+			long seen = 0;
+			for (int i = 0; i < counts.length(); i++) {
+				seen += counts.get(i);
+				if (seen >= rank) {
+					return highestValueOf(i);
+				}
+			}
+			return highestValueOf(counts.length() - 1);
+		}
+
+		private static int bucketOf(long value) {
+			if (value < SUB_BUCKETS) {
+				return (int) value;
+			}
+			int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+			int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+			return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+		}
+
+		private static long highestValueOf(int bucket) {
+			if (bucket < SUB_BUCKETS) {
+				return bucket;
+			}
+			int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+			long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+			return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+		}
+
+	}
+
+}
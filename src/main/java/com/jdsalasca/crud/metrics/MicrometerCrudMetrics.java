@@ -0,0 +1,107 @@
+package com.jdsalasca.crud.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntSupplier;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes the operations to a Micrometer {@link MeterRegistry}:
+ * <ul>
+ * <li>{@code crud.operation}, a timer with the 50th, 95th and 99th percentiles, tagged with {@code entity}, {@code operation} and {@code outcome}</li>
+ * <li>{@code crud.result.size}, a distribution summary of the entities returned, with the same tags as the timer</li>
+ * <li>{@code crud.write_behind.depth}, a gauge of the saves waiting in a write-behind queue, tagged with {@code entity} only</li>
+ * <li>{@code crud.concurrency.limit}, a gauge of the adaptive concurrency limit, tagged with {@code entity} and {@code operation}</li>
+ * </ul>
+ * The {@code entity} tag is the simple name of the entity class. The timer and the summary are looked up once
+ * per combination of tags, recording afterwards does not allocate.
+ * <p>
+ * Requires {@code io.micrometer:micrometer-core}, which is an optional dependency of this library.
+ */
+public class MicrometerCrudMetrics implements CrudMetrics {
+
+	public static final String OPERATION_METER = "crud.operation";
+
+	public static final String RESULT_SIZE_METER = "crud.result.size";
+
+	public static final String WRITE_BEHIND_DEPTH_METER = "crud.write_behind.depth";
+
+	public static final String CONCURRENCY_LIMIT_METER = "crud.concurrency.limit";
+
+	private static final int OUTCOMES = CrudOutcome.values().length;
+
+	private final MeterRegistry registry;
+
+	private final Map<Class<?>, AtomicReferenceArray<Meters>> meters = new ConcurrentHashMap<>();
+
+	public MicrometerCrudMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void record(Class<?> entityClass, CrudOperation operation, CrudOutcome outcome, long durationNanos, int resultSize) {
+		Meters operationMeters = metersFor(entityClass, operation, outcome);
+		operationMeters.timer.record(durationNanos, TimeUnit.NANOSECONDS);
+		operationMeters.resultSize.record(resultSize);
+	}
+
+	@Override
+	public void monitorWriteBehindDepth(Class<?> entityClass, IntSupplier depth) {
+		Gauge.builder(WRITE_BEHIND_DEPTH_METER, depth, IntSupplier::getAsInt)
+				.description("Saves waiting in the write-behind queue of the CRUD services")
+				.tag("entity", entityClass.getSimpleName())
+				.strongReference(true)
+				.register(registry);
+	}
+
+	@Override
+	public void monitorConcurrencyLimit(Class<?> entityClass, CrudOperation operation, IntSupplier limit) {
+		Gauge.builder(CONCURRENCY_LIMIT_METER, limit, IntSupplier::getAsInt)
+				.description("Adaptive limit of the calls in flight of the CRUD services")
+				.tag("entity", entityClass.getSimpleName())
+				.tag("operation", operation.value())
+				.strongReference(true)
+				.register(registry);
+	}
+
+	private Meters metersFor(Class<?> entityClass, CrudOperation operation, CrudOutcome outcome) {
+		AtomicReferenceArray<Meters> entityMeters = meters.computeIfAbsent(entityClass,
+				key -> new AtomicReferenceArray<>(CrudOperation.values().length * OUTCOMES));
+		int index = operation.ordinal() * OUTCOMES + outcome.ordinal();
+		Meters found = entityMeters.get(index);
+		if (found == null) {
+			found = new Meters(entityClass, operation, outcome);
+			if (!entityMeters.compareAndSet(index, null, found)) {
+				found = entityMeters.get(index);
+			}
+		}
+		return found;
+	}
+
+	private final class Meters {
+
+		private final Timer timer;
+		private final DistributionSummary resultSize;
+
+		private Meters(Class<?> entityClass, CrudOperation operation, CrudOutcome outcome) {
+			String[] tags = { "entity", entityClass.getSimpleName(), "operation", operation.value(), "outcome", outcome.value() };
+			this.timer = Timer.builder(OPERATION_METER)
+					.description("Time spent in the operations of the CRUD services")
+					.tags(tags)
+					.publishPercentiles(0.5, 0.95, 0.99)
+					.register(registry);
+			this.resultSize = DistributionSummary.builder(RESULT_SIZE_METER)
+					.description("Entities returned by the operations of the CRUD services")
+					.tags(tags)
+					.register(registry);
+		}
+
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.jdsalasca.crud.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the measurements of one operation and outcome of an entity type, taken by
+ * {@link InMemoryCrudMetrics}. Percentiles are accurate to within 12.5%.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OperationStats {
+
+	private final Class<?> entityClass;
+	private final CrudOperation operation;
+	private final CrudOutcome outcome;
+	private final long count;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long p50Nanos;
+	private final long p95Nanos;
+	private final long p99Nanos;
+	private final long resultSizeP50;
+	private final long resultSizeP99;
+	private final long maxResultSize;
+
+	/**
+	 * @return the mean time of the operation in nanoseconds, or 0 if it was not recorded
+	 */
+	public long meanNanos() {
+		return count == 0 ? 0 : totalNanos / count;
+	}
+
+}
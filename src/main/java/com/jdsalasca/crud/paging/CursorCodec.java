@@ -0,0 +1,177 @@
+package com.jdsalasca.crud.paging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Encodes the keyset of the last row of a window into an opaque, URL safe continuation token
+ * and back. Only simple key types are supported so a token never goes through Java
+ * deserialization; anything else is rejected with an {@link IllegalArgumentException}.
+ */
+public final class CursorCodec {
+
+	private static final byte VERSION = 1;
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte LONG = 2;
+	private static final byte INTEGER = 3;
+	private static final byte SHORT = 4;
+	private static final byte DOUBLE = 5;
+	private static final byte FLOAT = 6;
+	private static final byte BOOLEAN = 7;
+	private static final byte BIG_DECIMAL = 8;
+	private static final byte BIG_INTEGER = 9;
+	private static final byte UUID_TYPE = 10;
+	private static final byte LOCAL_DATE = 11;
+	private static final byte LOCAL_DATE_TIME = 12;
+	private static final byte INSTANT = 13;
+
+	private CursorCodec() {
+	}
+
+	/**
+	 * Encodes the given keyset.
+	 * @param keys the sort property names and the values of the last row
+	 * @return the opaque token
+	 * @throws IllegalArgumentException if a key value type is not supported
+	 */
+	public static String encode(Map<String, ?> keys) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(VERSION);
+			out.writeShort(keys.size());
+			for (Map.Entry<String, ?> key : keys.entrySet()) {
+				out.writeUTF(key.getKey());
+				writeValue(out, key.getValue());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+
+	/**
+	 * Decodes a token created by {@link #encode(Map)}.
+	 * @param cursor the opaque token sent by the client
+	 * @return the keyset, in the original order
+	 * @throws IllegalArgumentException if the token is malformed
+	 */
+	public static Map<String, Object> decode(String cursor) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+			if (in.readByte() != VERSION) {
+				throw new IllegalArgumentException("Unsupported cursor version");
+			}
+			int size = in.readShort();
+			Map<String, Object> keys = new LinkedHashMap<>();
+			for (int i = 0; i < size; i++) {
+				keys.put(in.readUTF(), readValue(in));
+			}
+			if (in.available() > 0) {
+				throw new IllegalArgumentException("Trailing bytes in cursor");
+			}
+			return keys;
+		} catch (IOException | DateTimeException e) {
+			throw new IllegalArgumentException("Malformed cursor", e);
+		}
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		} else if (value instanceof String) {
+			out.writeByte(STRING);
+			out.writeUTF((String) value);
+		} else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		} else if (value instanceof Short) {
+			out.writeByte(SHORT);
+			out.writeShort((Short) value);
+		} else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		} else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof BigDecimal) {
+			out.writeByte(BIG_DECIMAL);
+			out.writeUTF(value.toString());
+		} else if (value instanceof BigInteger) {
+			out.writeByte(BIG_INTEGER);
+			out.writeUTF(value.toString());
+		} else if (value instanceof UUID) {
+			out.writeByte(UUID_TYPE);
+			out.writeLong(((UUID) value).getMostSignificantBits());
+			out.writeLong(((UUID) value).getLeastSignificantBits());
+		} else if (value instanceof LocalDate) {
+			out.writeByte(LOCAL_DATE);
+			out.writeUTF(value.toString());
+		} else if (value instanceof LocalDateTime) {
+			out.writeByte(LOCAL_DATE_TIME);
+			out.writeUTF(value.toString());
+		} else if (value instanceof Instant) {
+			out.writeByte(INSTANT);
+			out.writeUTF(value.toString());
+		} else {
+			throw new IllegalArgumentException("Unsupported cursor key type " + value.getClass().getName());
+		}
+	}
+
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL:
+			return null;
+		case STRING:
+			return in.readUTF();
+		case LONG:
+			return in.readLong();
+		case INTEGER:
+			return in.readInt();
+		case SHORT:
+			return in.readShort();
+		case DOUBLE:
+			return in.readDouble();
+		case FLOAT:
+			return in.readFloat();
+		case BOOLEAN:
+			return in.readBoolean();
+		case BIG_DECIMAL:
+			return new BigDecimal(in.readUTF());
+		case BIG_INTEGER:
+			return new BigInteger(in.readUTF());
+		case UUID_TYPE:
+			return new UUID(in.readLong(), in.readLong());
+		case LOCAL_DATE:
+			return LocalDate.parse(in.readUTF());
+		case LOCAL_DATE_TIME:
+			return LocalDateTime.parse(in.readUTF());
+		case INSTANT:
+			return Instant.parse(in.readUTF());
+		default:
+			throw new IllegalArgumentException("Unknown cursor key type " + type);
+		}
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.jdsalasca.crud.paging;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import com.jdsalasca.defaultresponse.CursorInformation;
+
+import lombok.Getter;
+
+/**
+ * A {@link org.springframework.data.domain.Slice} produced by keyset (cursor) pagination.
+ * Besides the usual slice information it carries the opaque token the client must send
+ * back to fetch the next window, or {@code null} when the last window was reached.
+ *
+ * @param <T> the entity type
+ */
+@Getter
+public class CursorSlice<T> extends SliceImpl<T> implements CursorInformation {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String nextCursor;
+
+	public CursorSlice(List<T> content, Pageable pageable, boolean hasNext, String nextCursor) {
+		super(content, pageable, hasNext);
+		this.nextCursor = nextCursor;
+	}
+
+}
@@ -0,0 +1,209 @@
+package com.jdsalasca.crud.projection;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.spi.PropertyInfo;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.ProjectionInformation;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+/**
+ * How the rows of an entity are turned into a projection type, resolved once per (entity, projection) pair.
+ * <p>
+ * When every property of the projection is a basic or embedded attribute of the entity with a compatible
+ * type, only those columns are selected and the projection is built from them:
+ * <ul>
+ * <li>an interface is a closed Spring Data projection backed by the selected values</li>
+ * <li>a class with a no-args constructor is filled through the setters of its properties</li>
+ * <li>any other class is created with its constructor, whose parameters must be named as the attributes</li>
+ * </ul>
+ * Other projections, such as open interfaces with {@code @Value} or DTOs with flattened properties
+ * ({@code customerName}), need the whole entity: it is loaded and converted with the
+ * {@link ProjectionFactory} for interfaces and with the {@link ModelMapper} for classes, as before.
+ * <p>
+ * A projection that cannot be built either way, such as a closed interface with a property the entity does not
+ * have, a class the {@link ModelMapper} leaves properties of unmapped or a class whose constructor parameters are
+ * not attributes of the entity, is rejected when it is first resolved instead of failing or returning nulls later.
+ *
+ * @param <P> the projection type
+ */
+public final class ColumnProjection<P> {
+
+	private final Class<P> type;
+	private final List<String> attributes;
+	private final List<Method> setters;
+	private final Constructor<P> constructor;
+	private final ProjectionFactory projectionFactory;
+	private final ModelMapper modelMapper;
+
+	private ColumnProjection(Class<P> type, List<String> attributes, List<Method> setters, Constructor<P> constructor,
+			ProjectionFactory projectionFactory, ModelMapper modelMapper) {
+		this.type = type;
+		this.attributes = attributes;
+		this.setters = setters;
+		this.constructor = constructor;
+		this.projectionFactory = projectionFactory;
+		this.modelMapper = modelMapper;
+	}
+
+	/**
+	 * @param <P> the projection type
+	 * @param entityType the metamodel of the entity
+	 * @param type the projection type
+	 * @param projectionFactory creates the interface projections
+	 * @param modelMapper maps the entities into the class projections that cannot be built from columns
+	 * @return how to build the projection
+	 * @throws IllegalArgumentException if the projection has properties that cannot be read from the entity
+	 */
+	public static <P> ColumnProjection<P> of(EntityType<?> entityType, Class<P> type, ProjectionFactory projectionFactory,
+			ModelMapper modelMapper) {
+		List<String> attributes = new ArrayList<>();
+		List<Method> setters = new ArrayList<>();
+		Constructor<P> constructor = null;
+		boolean columns;
+		if (type.isInterface()) {
+			ProjectionInformation information = projectionFactory.getProjectionInformation(type);
+			columns = information.isClosed();
+			for (PropertyDescriptor property : information.getInputProperties()) {
+				columns &= isColumn(entityType, property.getName(), property.getPropertyType());
+				attributes.add(property.getName());
+			}
+		} else {
+			constructor = BeanUtils.getResolvableConstructor(type);
+			if (constructor.getParameterCount() == 0) {
+				columns = true;
+				for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(type)) {
+					if (property.getWriteMethod() != null) {
+						columns &= isColumn(entityType, property.getName(), property.getPropertyType());
+						attributes.add(property.getName());
+						ReflectionUtils.makeAccessible(property.getWriteMethod());
+						setters.add(property.getWriteMethod());
+					}
+				}
+			} else {
+				columns = parameterNamesAreColumns(entityType, constructor, attributes);
+			}
+		}
+		columns &= !attributes.isEmpty();
+		if (!columns) {
+			checkEntityProjection(entityType, type, constructor, projectionFactory, modelMapper);
+		}
+		return new ColumnProjection<>(type, columns ? Collections.unmodifiableList(attributes) : null, setters, constructor,
+				projectionFactory, modelMapper);
+	}
+
+	private static void checkEntityProjection(EntityType<?> entityType, Class<?> type, Constructor<?> constructor,
+			ProjectionFactory projectionFactory, ModelMapper modelMapper) {
+		Class<?> entityClass = entityType.getJavaType();
+		List<String> unknown = new ArrayList<>();
+		if (type.isInterface()) {
+			ProjectionInformation information = projectionFactory.getProjectionInformation(type);
+			if (information.isClosed()) {
+				for (PropertyDescriptor property : information.getInputProperties()) {
+					PropertyDescriptor entityProperty = BeanUtils.getPropertyDescriptor(entityClass, property.getName());
+					if (entityProperty == null || entityProperty.getReadMethod() == null) {
+						unknown.add(property.getName());
+					}
+				}
+			}
+		} else if (constructor.getParameterCount() > 0) {
+			throw new IllegalArgumentException("The constructor parameters of projection " + type.getName()
+					+ " must be named as basic or embedded attributes of " + entityClass.getName());
+		} else {
+			unknown.addAll(modelMapper.typeMap(entityClass, type).getUnmappedProperties().stream()
+					.map(PropertyInfo::getName).collect(Collectors.toList()));
+		}
+		if (!unknown.isEmpty()) {
+			throw new IllegalArgumentException("Projection " + type.getName() + " has properties " + unknown
+					+ " that cannot be read from " + entityClass.getName());
+		}
+	}
+
+	private static boolean parameterNamesAreColumns(EntityType<?> entityType, Constructor<?> constructor, List<String> attributes) {
+		String[] names;
+		try {
+			names = BeanUtils.getParameterNames(constructor);
+		} catch (IllegalStateException e) {
+			return false;
+		}
+		boolean columns = true;
+		for (int i = 0; i < names.length; i++) {
+			columns &= isColumn(entityType, names[i], constructor.getParameterTypes()[i]);
+			attributes.add(names[i]);
+		}
+		return columns;
+	}
+
+	private static boolean isColumn(EntityType<?> entityType, String name, Class<?> propertyType) {
+		for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+			if (attribute.getName().equals(name)) {
+				PersistentAttributeType attributeType = attribute.getPersistentAttributeType();
+				return (attributeType == PersistentAttributeType.BASIC || attributeType == PersistentAttributeType.EMBEDDED)
+						&& ClassUtils.isAssignable(propertyType, attribute.getJavaType());
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether the projection is built from the selected columns instead of the whole entity
+	 */
+	public boolean selectsColumns() {
+		return attributes != null;
+	}
+
+	/**
+	 * @return the attributes to select, in the order {@link #fromColumns} expects them
+	 */
+	public List<String> attributes() {
+		return attributes;
+	}
+
+	/**
+	 * @param values the selected values, in the order of {@link #attributes()}
+	 * @return the projection
+	 */
+	public P fromColumns(Object[] values) {
+		if (type.isInterface()) {
+			Map<String, Object> source = new LinkedHashMap<>();
+			for (int i = 0; i < values.length; i++) {
+				source.put(attributes.get(i), values[i]);
+			}
+			return projectionFactory.createProjection(type, source);
+		}
+		if (setters.isEmpty()) {
+			return BeanUtils.instantiateClass(constructor, values);
+		}
+		P projection = BeanUtils.instantiateClass(constructor);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null) {
+				ReflectionUtils.invokeMethod(setters.get(i), projection, values[i]);
+			}
+		}
+		return projection;
+	}
+
+	/**
+	 * @param entity a loaded entity
+	 * @return the projection of the entity
+	 */
+	public P fromEntity(Object entity) {
+		return type.isInterface() ? projectionFactory.createProjection(type, entity) : modelMapper.map(entity, type);
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.jdsalasca.crud.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions to a replica and every other connection to the
+ * primary database.
+ * <p>
+ * The read methods of {@link com.jdsalasca.crud.CrudServiceImpl} run in read-only transactions, so
+ * with this data source they read from the replica, while writes and reads inside a read-write
+ * transaction stay on the primary. The transaction manager takes the connection before the
+ * transaction is marked read-only, so the routing data source has to be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which {@link #of} does, for the choice to be made on the
+ * first statement. The replica is expected to be a copy of the primary; reads there may lag behind
+ * the last writes.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	/**
+	 * The target data sources.
+	 */
+	public enum Route {
+		PRIMARY, REPLICA
+	}
+
+	/**
+	 * @param primary the data source of the writes and the read-write transactions
+	 * @param replica the data source of the read-only transactions
+	 */
+	public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(Route.PRIMARY, primary);
+		targets.put(Route.REPLICA, replica);
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	/**
+	 * @param primary the data source of the writes and the read-write transactions
+	 * @param replica the data source of the read-only transactions
+	 * @return the data source to give to the entity manager factory
+	 */
+	public static DataSource of(DataSource primary, DataSource replica) {
+		return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica));
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+	}
+
+}
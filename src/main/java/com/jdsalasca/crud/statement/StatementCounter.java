@@ -0,0 +1,118 @@
+package com.jdsalasca.crud.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts the SQL statements run on the current thread through a {@link StatementCountingDataSource}
+ * while a scope is open.
+ * <p>
+ * Scopes nest: a statement counts in every open scope of the thread. They are meant to be opened
+ * with try-with-resources, by {@link com.jdsalasca.crud.CrudServiceImpl} around each call, or by a
+ * test around a request to lock in its number of queries, serialization included:
+ *
+ * <pre>
+ * try (StatementCounter.Scope statements = StatementCounter.open()) {
+ *     mockMvc.perform(get("/orders"));
+ *     assertEquals(2, statements.count());
+ * }
+ * </pre>
+ *
+ * Statements run on other threads, such as those of the asynchronous services, are counted in the
+ * scopes of those threads only.
+ */
+public final class StatementCounter {
+
+	/**
+	 * Number of statements kept by a scope to describe what ran.
+	 */
+	public static final int RECORDED_STATEMENTS = 20;
+
+	private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+	private StatementCounter() {
+	}
+
+	/**
+	 * @return a new scope, nested in the one already open on this thread if any
+	 */
+	public static Scope open() {
+		Scope scope = new Scope(CURRENT.get());
+		CURRENT.set(scope);
+		return scope;
+	}
+
+	/**
+	 * @return whether a scope is open on this thread
+	 */
+	public static boolean isCounting() {
+		return CURRENT.get() != null;
+	}
+
+	/**
+	 * Counts one statement in the open scopes of this thread.
+	 * @param sql the statement, null if unknown
+	 */
+	static void executed(String sql) {
+		for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+			scope.add(sql);
+		}
+	}
+
+	/**
+	 * The statements counted between {@link StatementCounter#open()} and {@link #close()}.
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		private final Scope parent;
+		private final List<String> statements = new ArrayList<>();
+		private int count;
+		private boolean closed;
+
+		private Scope(Scope parent) {
+			this.parent = parent;
+		}
+
+		private void add(String sql) {
+			if (closed) {
+				return;
+			}
+			count++;
+			if (statements.size() < RECORDED_STATEMENTS) {
+				statements.add(sql);
+			}
+		}
+
+		/**
+		 * @return the number of statements run so far
+		 */
+		public int count() {
+			return count;
+		}
+
+		/**
+		 * @return the first {@link StatementCounter#RECORDED_STATEMENTS} statements
+		 */
+		public List<String> statements() {
+			return Collections.unmodifiableList(statements);
+		}
+
+		/**
+		 * Stops counting and makes the enclosing scope, if any, the current one again.
+		 */
+		@Override
+		public void close() {
+			closed = true;
+			if (CURRENT.get() == this) {
+				if (parent != null) {
+					CURRENT.set(parent);
+				} else {
+					CURRENT.remove();
+				}
+			}
+		}
+
+	}
+
+}
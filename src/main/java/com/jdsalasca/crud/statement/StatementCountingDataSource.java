@@ -0,0 +1,83 @@
+package com.jdsalasca.crud.statement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts the statements run through its connections in the {@link StatementCounter} scopes of the
+ * calling thread. Each prepared or callable statement counts once, however many rows a JDBC batch
+ * sends with it, and each statement run directly on a {@link Statement} counts once.
+ * <p>
+ * It is meant to wrap the data source given to the entity manager factory, in tests or when looking
+ * for N+1 queries; when no scope is open it only adds a proxy call per statement.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+	/**
+	 * @param targetDataSource the data source to count the statements of
+	 */
+	public StatementCountingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return counting(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return counting(super.getConnection(username, password));
+	}
+
+	private static Connection counting(Connection connection) {
+		return proxy(Connection.class, connection, (target, method, args) -> {
+			String name = method.getName();
+			if ((name.equals("prepareStatement") || name.equals("prepareCall")) && args != null && args[0] instanceof String) {
+				StatementCounter.executed((String) args[0]);
+			}
+			Object result = invoke(target, method, args);
+			if (name.equals("createStatement")) {
+				return counting((Statement) result);
+			}
+			return result;
+		});
+	}
+
+	private static Statement counting(Statement statement) {
+		return proxy(Statement.class, statement, (target, method, args) -> {
+			if (method.getName().startsWith("execute")) {
+				StatementCounter.executed((args != null && args.length > 0 && args[0] instanceof String) ? (String) args[0] : null);
+			}
+			return invoke(target, method, args);
+		});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private static <P> P proxy(Class<P> type, P target, TargetInvocationHandler handler) {
+		InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+		return type.cast(Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { type }, invocationHandler));
+	}
+
+	@FunctionalInterface
+	private interface TargetInvocationHandler {
+		Object invoke(Object target, Method method, Object[] args) throws Throwable;
+	}
+
+}
@@ -0,0 +1,232 @@
+package com.jdsalasca.crud.writebehind;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded queue drained by a background thread that hands the queued items to a writer in batches.
+ * <p>
+ * A batch is written once it has {@code flushSize} items, or once {@code flushInterval} has passed
+ * since its first item was taken, whichever comes first. When the queue is full {@link #offer} waits
+ * for room up to the given time and then gives up, so producers are slowed down or rejected instead
+ * of the memory growing without limit. {@link #close} stops accepting items and writes the ones
+ * already queued before returning.
+ * <p>
+ * The writer runs on the flusher thread, one batch at a time, and on the thread calling {@link #close}
+ * for the items the flusher did not write in time. It is expected to handle the failures of its
+ * items; an exception thrown by it is logged and the batch is dropped.
+ *
+ * @param <E> the type of the queued items
+ */
+@Slf4j
+public class WriteBehindQueue<E> {
+
+	private final BlockingQueue<E> queue;
+	private final int flushSize;
+	private final long flushIntervalNanos;
+	private final Consumer<List<E>> writer;
+	private final Thread flusher;
+
+	private final AtomicInteger offering = new AtomicInteger();
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	private volatile boolean closed;
+
+	/**
+	 * Guards {@link #flusherWriting}, so {@link #close} only interrupts the flusher while it waits for items,
+	 * never while the writer runs on it.
+	 */
+	private final Object wakeUp = new Object();
+	private boolean flusherWriting;
+
+	/**
+	 * Creates the queue and starts its flusher thread.
+	 * @param name the name of the flusher thread, after {@code crud-write-behind-}
+	 * @param capacity the maximum number of items waiting to be written
+	 * @param flushSize the number of items that makes a batch be written at once
+	 * @param flushInterval the longest time an item waits for its batch to fill
+	 * @param writer writes a batch of items
+	 */
+	public WriteBehindQueue(String name, int capacity, int flushSize, Duration flushInterval, Consumer<List<E>> writer) {
+		if (capacity < 1 || flushSize < 1) {
+			throw new IllegalArgumentException("capacity and flushSize must be positive");
+		}
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.flushSize = flushSize;
+		this.flushIntervalNanos = flushInterval.toNanos();
+		this.writer = writer;
+		this.flusher = new Thread(this::run, "crud-write-behind-" + name);
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	/**
+	 * Queues an item, waiting for room when the queue is full.
+	 * @param item the item to write
+	 * @param maxWait how long to wait for room, zero to give up at once
+	 * @return whether the item was queued; false if the queue stayed full or is closed
+	 */
+	public boolean offer(E item, Duration maxWait) {
+		offering.incrementAndGet();
+		try {
+			boolean queued = false;
+			if (!closed) {
+				queued = maxWait.isZero() ? queue.offer(item) : queue.offer(item, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			(queued ? accepted : rejected).increment();
+			return queued;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			rejected.increment();
+			return false;
+		} finally {
+			offering.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the number of items waiting to be written
+	 */
+	public int depth() {
+		return queue.size();
+	}
+
+	/**
+	 * @return whether {@link #close} was called
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return the number of items queued by {@link #offer}
+	 */
+	public long acceptedCount() {
+		return accepted.sum();
+	}
+
+	/**
+	 * @return the number of items {@link #offer} did not queue
+	 */
+	public long rejectedCount() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @return the number of batches handed to the writer
+	 */
+	public long flushCount() {
+		return flushes.sum();
+	}
+
+	/**
+	 * @return the number of items of the batches whose writer threw an exception
+	 */
+	public long droppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Stops accepting items and waits for the queued ones to be written. The flusher is woken up
+	 * instead of waiting for its batch to fill, and the items still queued when it does not finish
+	 * in time are written on the calling thread.
+	 * @param timeout how long to wait for the flusher thread
+	 */
+	public void close(Duration timeout) {
+		closed = true;
+		synchronized (wakeUp) {
+			if (!flusherWriting) {
+				flusher.interrupt();
+			}
+		}
+		try {
+			flusher.join(Math.max(1, timeout.toMillis()));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		while (offering.get() > 0) {
+			Thread.onSpinWait();
+		}
+		List<E> batch = new ArrayList<>(flushSize);
+		while (queue.drainTo(batch, flushSize) > 0) {
+			flush(batch);
+			batch = new ArrayList<>(flushSize);
+		}
+	}
+
+	private void run() {
+		while (!closed || !queue.isEmpty()) {
+			List<E> batch = new ArrayList<>(flushSize);
+			try {
+				E first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + flushIntervalNanos;
+				while (batch.size() < flushSize) {
+					queue.drainTo(batch, flushSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= flushSize || remaining <= 0 || closed) {
+						break;
+					}
+					E next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				if (!closed) {
+					log.debug("write-behind flusher {} interrupted", Thread.currentThread().getName());
+					write(batch);
+					return;
+				}
+			}
+			write(batch);
+		}
+	}
+
+	/**
+	 * Writes a batch on the flusher thread, clearing the interrupt {@link #close} may have sent just before.
+	 */
+	private void write(List<E> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		synchronized (wakeUp) {
+			flusherWriting = true;
+		}
+		Thread.interrupted();
+		try {
+			flush(batch);
+		} finally {
+			synchronized (wakeUp) {
+				flusherWriting = false;
+			}
+		}
+	}
+
+	private void flush(List<E> batch) {
+		flushes.increment();
+		try {
+			writer.accept(batch);
+		} catch (RuntimeException e) {
+			dropped.add(batch.size());
+			log.error("write-behind batch of {} items dropped: {}", batch.size(), e.getLocalizedMessage());
+		}
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.jdsalasca.defaultresponse;
+
+/**
+ * Implemented by the {@link org.springframework.data.domain.Slice} of a keyset (cursor) pagination, so
+ * {@link PageInformation} can write the token of its next window without depending on who produced it.
+ */
+public interface CursorInformation {
+
+	/**
+	 * @return the opaque token to request the next window, or null when the last window was reached
+	 */
+	String getNextCursor();
+
+}
@@ -3,14 +3,21 @@ package com.jdsalasca.defaultresponse;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 
 
 import lombok.*;
@@ -26,7 +33,35 @@ public class DefaultResponse<T> {
 	protected List<Error> error  = Collections.emptyList();
 	protected MESSAGETYPES messageType = MESSAGETYPES.INFO;
 	protected DATATYPE dataType = DATATYPE.LIST;
+	@JsonSerialize(using = PageInformationSerializer.class)
 	protected Page<T> pageableInformation;
+	/**
+	 * Information of a slice or a keyset window, which are not counted, written only when set.
+	 */
+	@JsonSerialize(using = PageInformationSerializer.class)
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	protected Slice<T> sliceInformation;
+	/**
+	 * The data of an {@link DATATYPE#OBJECT} response built by {@link #onThrow200ResponseObject}, kept without a list around it.
+	 */
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	protected T object;
+
+	private static final List<?>[][] MESSAGES = new List<?>[DEFAULTMESSAGES.values().length][MESSAGETYPES.values().length];
+	private static final List<?>[][] ERRORS = new List<?>[DEFAULTMESSAGES.values().length][MESSAGETYPES.values().length];
+	private static final ResponseEntity<?>[] NOT_FOUND_RESPONSES = new ResponseEntity<?>[DEFAULTMESSAGES.values().length];
+
+	static {
+		for (DEFAULTMESSAGES text : DEFAULTMESSAGES.values()) {
+			for (MESSAGETYPES type : MESSAGETYPES.values()) {
+				MESSAGES[text.ordinal()][type.ordinal()] = List.of(new Message.Shared(text.value(), type));
+				ERRORS[text.ordinal()][type.ordinal()] = List.of(new Error.Shared(text.value(), type));
+			}
+			NOT_FOUND_RESPONSES[text.ordinal()] = toResponseEntity(
+					new Shared<>(HttpStatus.NOT_FOUND, MESSAGETYPES.INFO, messages(text, MESSAGETYPES.INFO)));
+		}
+	}
 
 	public DefaultResponse(List<T> data, HttpStatus status, List<Message> message, List<Error> error,
 			MESSAGETYPES messageType) {
@@ -71,7 +106,22 @@ public class DefaultResponse<T> {
 		SUCCESS_MESSAGE("Operación terminada correctamente"), INTERNAL_SERVER_ERROR("Error interno del sistema"),
 		NOT_INFO_FOUND_MESSAGE("No se encontro información relacionada"),
 		DATA_SAVED_MESSAGE("Información Guardada con éxito!"), NOT_DATA_SAVED_MESSAGE("Información no almacenada"),
-		INFO_UPDATED_MESSAGE("Información actualizada con éxito!");
+		INFO_UPDATED_MESSAGE("Información actualizada con éxito!"),
+		INVALID_CURSOR_MESSAGE("El cursor de paginación no es válido"),
+		INVALID_FILTER_MESSAGE("El filtro de la consulta no es válido: "),
+		SERVICE_UNAVAILABLE_MESSAGE("Servicio no disponible, intente nuevamente más tarde"),
+		CONCURRENT_MODIFICATION_MESSAGE("La información fue modificada por otro usuario, consúltela nuevamente"),
+		INFO_DELETED_MESSAGE("Información eliminada con éxito!"), AFFECTED_ROWS_MESSAGE("Registros afectados: "),
+		DATA_ACCEPTED_MESSAGE("Información recibida, será almacenada en breve"),
+		TOO_MANY_REQUESTS_MESSAGE("Demasiadas solicitudes, intente nuevamente más tarde");
+
+		private static final Map<String, DEFAULTMESSAGES> BY_VALUE = new HashMap<>();
+
+		static {
+			for (DEFAULTMESSAGES message : values()) {
+				BY_VALUE.put(message.value, message);
+			}
+		}
 
 		private String value;
 
@@ -83,6 +133,42 @@ public class DefaultResponse<T> {
 		public String value() {
 			return this.value;
 		}
+
+		/**
+		 * @param value a message text
+		 * @return the default message with exactly this text, or null
+		 */
+		public static DEFAULTMESSAGES of(String value) {
+			return (value == null) ? null : BY_VALUE.get(value);
+		}
+	}
+
+	/**
+	 * @param message the text
+	 * @param messageType the type of the message
+	 * @return the shared list with the single message, neither the list nor the message can be changed
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<Message> messages(DEFAULTMESSAGES message, MESSAGETYPES messageType) {
+		return (List<Message>) MESSAGES[message.ordinal()][messageType.ordinal()];
+	}
+
+	/**
+	 * @param error the text
+	 * @param messageType the type of the error
+	 * @return the shared list with the single error, neither the list nor the error can be changed
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<Error> errors(DEFAULTMESSAGES error, MESSAGETYPES messageType) {
+		return (List<Error>) ERRORS[error.ordinal()][messageType.ordinal()];
+	}
+
+	/**
+	 * The response entities are built on the shared empty headers, which cannot be changed anyway
+	 * once in a {@link ResponseEntity}, instead of an empty header map per response.
+	 */
+	private static <T> ResponseEntity<DefaultResponse<T>> toResponseEntity(DefaultResponse<T> messageResult) {
+		return new ResponseEntity<>(messageResult, HttpHeaders.EMPTY, messageResult.catchHttpStatus());
 	}
 
 	public static <T> ResponseEntity<DefaultResponse<T>> onThrow500ErrorResponse(List<String> errorMessage) {
@@ -91,7 +177,7 @@ public class DefaultResponse<T> {
 		messageResult.setMessageType(MESSAGETYPES.ERROR);
 		messageResult.setMessage(DEFAULTMESSAGES.INTERNAL_SERVER_ERROR.value());
 		messageResult.setErrorStringList(errorMessage);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 
 	}
 
@@ -101,7 +187,7 @@ public class DefaultResponse<T> {
 		messageResult.setMessageType(MESSAGETYPES.ERROR);
 		messageResult.setMessage(DEFAULTMESSAGES.INTERNAL_SERVER_ERROR.value());
 		messageResult.setError(errorMessage);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 
 	}
 
@@ -111,7 +197,51 @@ public class DefaultResponse<T> {
 		messageResult.setMessageType(MESSAGETYPES.ERROR);
 		messageResult.setMessage(DEFAULTMESSAGES.INTERNAL_SERVER_ERROR.value());
 		messageResult.setError(errorMessage);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
+	}
+
+	public static <T> ResponseEntity<DefaultResponse<T>> onThrow409Response(String message) {
+		DefaultResponse<T> messageResult = new DefaultResponse<>();
+		messageResult.setStatus(HttpStatus.CONFLICT);
+		messageResult.setMessageType(MESSAGETYPES.WARN);
+		messageResult.setMessage(message);
+		return toResponseEntity(messageResult);
+	}
+
+	/**
+	 * @param eTag the current validator of the representation the client already has
+	 * @return a 304 response without body, so nothing is serialized
+	 */
+	public static <T> ResponseEntity<DefaultResponse<T>> onThrow304Response(String eTag) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+	}
+
+	/**
+	 * @param response the response to copy
+	 * @param eTag the validator of the response body, ignored when null
+	 * @return the response with the {@code ETag} header set
+	 */
+	public static <T> ResponseEntity<DefaultResponse<T>> withETag(ResponseEntity<DefaultResponse<T>> response, String eTag) {
+		if (eTag == null) {
+			return response;
+		}
+		return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).eTag(eTag).body(response.getBody());
+	}
+
+	public static <T> ResponseEntity<DefaultResponse<T>> onThrow429Response(String message) {
+		DefaultResponse<T> messageResult = new DefaultResponse<>();
+		messageResult.setStatus(HttpStatus.TOO_MANY_REQUESTS);
+		messageResult.setMessageType(MESSAGETYPES.WARN);
+		messageResult.setMessage(message);
+		return toResponseEntity(messageResult);
+	}
+
+	public static <T> ResponseEntity<DefaultResponse<T>> onThrow503Response(String message) {
+		DefaultResponse<T> messageResult = new DefaultResponse<>();
+		messageResult.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+		messageResult.setMessageType(MESSAGETYPES.ERROR);
+		messageResult.setMessage(message);
+		return toResponseEntity(messageResult);
 	}
 
 	public static <T> ResponseEntity<DefaultResponse<T>> onThrow400ResponseTypeInfo(String message) {
@@ -119,7 +249,7 @@ public class DefaultResponse<T> {
 		messageResult.setStatus(HttpStatus.BAD_REQUEST);
 		messageResult.setMessageType(MESSAGETYPES.INFO);
 		messageResult.setMessage(message);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 
 	}
 
@@ -128,7 +258,7 @@ public class DefaultResponse<T> {
 		messageResult.setStatus(HttpStatus.BAD_REQUEST);
 		messageResult.setMessageType(MESSAGETYPES.ERROR);
 		messageResult.setMessage(message);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 
 	}
 
@@ -137,16 +267,27 @@ public class DefaultResponse<T> {
 		messageResult.setStatus(HttpStatus.BAD_REQUEST);
 		messageResult.setMessageType(MESSAGETYPES.ERROR);
 		messageResult.setMessage(message);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 
 	}
 
+	/**
+	 * @param message the text of the response
+	 * @return a 404 response; for a {@link DEFAULTMESSAGES} text it is shared and the setters of its body
+	 * throw {@link UnsupportedOperationException}, which callers that changed it before have to replace
+	 * with a response of their own
+	 */
+	@SuppressWarnings("unchecked")
 	public static <T> ResponseEntity<DefaultResponse<T>> onThrow404Response(String message) {
+		DEFAULTMESSAGES defaultMessage = DEFAULTMESSAGES.of(message);
+		if (defaultMessage != null) {
+			return (ResponseEntity<DefaultResponse<T>>) NOT_FOUND_RESPONSES[defaultMessage.ordinal()];
+		}
 		DefaultResponse<T> messageResult = new DefaultResponse<>();
 		messageResult.setStatus(HttpStatus.NOT_FOUND);
 		messageResult.setMessageType(MESSAGETYPES.INFO);
 		messageResult.setMessage(message);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 	}
 
 	public static <T> ResponseEntity<DefaultResponse<T>> onThrow404ResponseWithData(String message, List<T> data) {
@@ -155,7 +296,7 @@ public class DefaultResponse<T> {
 		messageResult.setData(data);
 		messageResult.setMessageType(MESSAGETYPES.INFO);
 		messageResult.setMessage(message);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 	}
 
 	public static <T> ResponseEntity<DefaultResponse<T>> onThrow400ResponseBindingResult(BindingResult bindingResult) {
@@ -167,7 +308,7 @@ public class DefaultResponse<T> {
 		messageResult.setStatus(HttpStatus.BAD_REQUEST);
 		messageResult.setMessageType(MESSAGETYPES.INFO);
 		messageResult.setMessage(listErrors);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 
 	}
 
@@ -178,7 +319,27 @@ public class DefaultResponse<T> {
 		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
 		messageResult.setMessage(DEFAULTMESSAGES.SUCCESS_MESSAGE.value());
 		messageResult.setPageableInformation(page);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
+
+	}
+
+	/**
+	 * @param data the content of the slice
+	 * @param slice a slice or a keyset window, set as the {@code sliceInformation}, or a page, set as the {@code pageableInformation}
+	 * @return a 200 response
+	 */
+	public static <T> ResponseEntity<DefaultResponse<T>> onThrow200Response(List<T> data, Slice<T> slice) {
+		DefaultResponse<T> messageResult = new DefaultResponse<>();
+		messageResult.setData(data);
+		messageResult.setStatus(HttpStatus.OK);
+		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
+		messageResult.setMessage(DEFAULTMESSAGES.SUCCESS_MESSAGE.value());
+		if (slice instanceof Page) {
+			messageResult.setPageableInformation((Page<T>) slice);
+		} else {
+			messageResult.setSliceInformation(slice);
+		}
+		return toResponseEntity(messageResult);
 
 	}
 
@@ -188,7 +349,7 @@ public class DefaultResponse<T> {
 		messageResult.setStatus(HttpStatus.OK);
 		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
 		messageResult.setMessage(DEFAULTMESSAGES.SUCCESS_MESSAGE.value());
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 
 	}
 
@@ -200,7 +361,7 @@ public class DefaultResponse<T> {
 		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
 		messageResult.setMessage(messages);
 		messageResult.setError(errors);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 	}
 
 	public static <T> ResponseEntity<DefaultResponse<T>> onThrow200ResponseListMessage(List<T> data,
@@ -210,7 +371,7 @@ public class DefaultResponse<T> {
 		messageResult.setStatus(HttpStatus.OK);
 		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
 		messageResult.setMessage(messages);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 	}
 
 	public static <T> ResponseEntity<DefaultResponse<T>> onThrow201Response(List<T> data) {
@@ -219,7 +380,7 @@ public class DefaultResponse<T> {
 		messageResult.setStatus(HttpStatus.CREATED);
 		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
 		messageResult.setMessage(DEFAULTMESSAGES.INFO_UPDATED_MESSAGE.value());
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
 
 	}
 
@@ -228,7 +389,15 @@ public class DefaultResponse<T> {
 		messageResult.setStatus(HttpStatus.CREATED);
 		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
 		messageResult.setMessage(string);
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
+	}
+
+	public static <T> ResponseEntity<DefaultResponse<T>> onThrow202Response(String message) {
+		DefaultResponse<T> messageResult = new DefaultResponse<>();
+		messageResult.setStatus(HttpStatus.ACCEPTED);
+		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
+		messageResult.setMessage(message);
+		return toResponseEntity(messageResult);
 	}
 
 	public static <T> ResponseEntity<DefaultResponse<T>> onThrow200ResponseObjectData(List<T> data) {
@@ -238,7 +407,21 @@ public class DefaultResponse<T> {
 		messageResult.setDataType(DATATYPE.OBJECT);
 		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
 		messageResult.setMessage(DEFAULTMESSAGES.SUCCESS_MESSAGE.value());
-		return new ResponseEntity<>(messageResult, messageResult.catchHttpStatus());
+		return toResponseEntity(messageResult);
+	}
+
+	/**
+	 * @param data the entity, written as the {@code data} object without a list around it
+	 * @return a 200 response of {@link DATATYPE#OBJECT}
+	 */
+	public static <T> ResponseEntity<DefaultResponse<T>> onThrow200ResponseObject(T data) {
+		DefaultResponse<T> messageResult = new DefaultResponse<>();
+		messageResult.object = data;
+		messageResult.setStatus(HttpStatus.OK);
+		messageResult.setDataType(DATATYPE.OBJECT);
+		messageResult.setMessageType(MESSAGETYPES.SUCCESS);
+		messageResult.setMessage(DEFAULTMESSAGES.SUCCESS_MESSAGE.value());
+		return toResponseEntity(messageResult);
 	}
 
 	public DefaultResponse(List<T> data, HttpStatus status, List<Message> message) {
@@ -255,12 +438,17 @@ public class DefaultResponse<T> {
 	public T getData() {
 
 		if (this.dataType.equals(DATATYPE.OBJECT)) {
-			return this.data.get(0);
+			return (this.object != null) ? this.object : this.data.get(0);
 		} else {
 			return castToListOfT();
 		}
 	}
 
+	public void setData(List<T> data) {
+		this.data = data;
+		this.object = null;
+	}
+
 	@SuppressWarnings("unchecked")
 	private <U> U castToListOfT() {
 		return (U) this.data;
@@ -278,8 +466,13 @@ public class DefaultResponse<T> {
 		this.error = List.of(error);
 	}
 
+	/**
+	 * @param error the text of the single error, a {@link DEFAULTMESSAGES} text takes the shared list of {@link #errors}
+	 */
 	public void setError(String error) {
-		this.error = List.of(new Error(error, (this.messageType != null) ? this.messageType : MESSAGETYPES.ERROR));
+		MESSAGETYPES type = (this.messageType != null) ? this.messageType : MESSAGETYPES.ERROR;
+		DEFAULTMESSAGES defaultMessage = DEFAULTMESSAGES.of(error);
+		this.error = (defaultMessage != null) ? errors(defaultMessage, type) : List.of(new Error(error, type));
 	}
 
 	public void setError(List<Error> error) {
@@ -295,9 +488,13 @@ public class DefaultResponse<T> {
 		this.message = List.of(message);
 	}
 
+	/**
+	 * @param message the text of the single message, a {@link DEFAULTMESSAGES} text takes the shared list of {@link #messages}
+	 */
 	public void setMessage(String message) {
-
-		this.message = List.of(new Message(message, (this.messageType != null) ? this.messageType : MESSAGETYPES.INFO));
+		MESSAGETYPES type = (this.messageType != null) ? this.messageType : MESSAGETYPES.INFO;
+		DEFAULTMESSAGES defaultMessage = DEFAULTMESSAGES.of(message);
+		this.message = (defaultMessage != null) ? messages(defaultMessage, type) : List.of(new Message(message, type));
 	}
 
 	public int getStatus() {
@@ -308,4 +505,85 @@ public class DefaultResponse<T> {
 		return this.status;
 	}
 
+	/**
+	 * A response that cannot be changed, shared by the 404 responses with a {@link DEFAULTMESSAGES} text.
+	 */
+	static final class Shared<T> extends DefaultResponse<T> {
+
+		Shared(HttpStatus status, MESSAGETYPES messageType, List<Message> message) {
+			this.status = status;
+			this.messageType = messageType;
+			this.message = message;
+		}
+
+		@Override
+		public void setData(List<T> data) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setStatus(HttpStatus status) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setMessageType(MESSAGETYPES messageType) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setDataType(DATATYPE dataType) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setPageableInformation(Page<T> pageableInformation) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setSliceInformation(Slice<T> sliceInformation) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setErrorStringList(List<String> errorsList) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setError(Error error) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setError(String error) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setError(List<Error> error) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setMessage(List<Message> message) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setMessage(Message message) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setMessage(String message) {
+			throw unsupported();
+		}
+
+		private static UnsupportedOperationException unsupported() {
+			return new UnsupportedOperationException("Shared response cannot be changed");
+		}
+	}
+
 }
@@ -0,0 +1,78 @@
+package com.jdsalasca.defaultresponse;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Binary encodings of {@link DefaultResponse} for service to service calls: CBOR
+ * ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}).
+ * <p>
+ * Both are written by the same serializers as JSON, {@link DefaultResponseModule} included, so the
+ * envelope, {@link Message}, {@link Error} and {@link PageInformation} keep their fields and values and
+ * only the encoding changes. They are opt-in: the converters are meant to be appended after the JSON
+ * one, e.g. from {@code WebMvcConfigurer.extendMessageConverters}, so they are only chosen when the
+ * {@code Accept} header asks for them. Requires {@code jackson-dataformat-cbor} and
+ * {@code jackson-dataformat-smile}, which are optional dependencies of this library.
+ */
+public final class DefaultResponseFormats {
+
+	/**
+	 * Media type of Smile, as written by Jackson.
+	 */
+	public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+	private DefaultResponseFormats() {
+	}
+
+	/**
+	 * @param objectMapper the JSON mapper of the application, its modules and settings are copied
+	 * @return a mapper that reads and writes CBOR, with the {@link DefaultResponseModule} registered
+	 */
+	public static ObjectMapper cborMapper(ObjectMapper objectMapper) {
+		return objectMapper.copyWith(new CBORFactory()).registerModule(new DefaultResponseModule());
+	}
+
+	/**
+	 * @param objectMapper the JSON mapper of the application, its modules and settings are copied
+	 * @return a mapper that reads and writes Smile, with the {@link DefaultResponseModule} registered
+	 */
+	public static ObjectMapper smileMapper(ObjectMapper objectMapper) {
+		return objectMapper.copyWith(new SmileFactory()).registerModule(new DefaultResponseModule());
+	}
+
+	/**
+	 * @param objectMapper the JSON mapper of the application
+	 * @return a converter for {@code application/cbor}
+	 */
+	public static HttpMessageConverter<Object> cborConverter(ObjectMapper objectMapper) {
+		return new MappingJackson2CborHttpMessageConverter(cborMapper(objectMapper));
+	}
+
+	/**
+	 * @param objectMapper the JSON mapper of the application
+	 * @return a converter for {@code application/x-jackson-smile}
+	 */
+	public static HttpMessageConverter<Object> smileConverter(ObjectMapper objectMapper) {
+		return new MappingJackson2SmileHttpMessageConverter(smileMapper(objectMapper));
+	}
+
+	/**
+	 * Appends the CBOR and Smile converters, after the existing ones so JSON stays the default
+	 * for requests that accept any media type.
+	 * @param converters the converters of the application
+	 * @param objectMapper the JSON mapper of the application
+	 */
+	public static void addBinaryConverters(List<HttpMessageConverter<?>> converters, ObjectMapper objectMapper) {
+		converters.add(cborConverter(objectMapper));
+		converters.add(smileConverter(objectMapper));
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.jdsalasca.defaultresponse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * Jackson module that writes {@link DefaultResponse}, {@link Message} and {@link Error} with the
+ * hand written {@link DefaultResponseSerializer}, {@link MessageSerializer} and {@link ErrorSerializer}.
+ * <p>
+ * They produce the same bytes as the bean serializer for the default mapper settings. When the mapper
+ * changes how these beans are written (inclusion rules, naming strategy, sorted properties, mixins,
+ * default typing, enums as indexes...) the module keeps the bean serializer instead.
+ * <p>
+ * Spring Boot registers it when it is declared as a bean; it is also found by
+ * {@code ObjectMapper.findAndRegisterModules()}.
+ */
+public class DefaultResponseModule extends SimpleModule {
+
+	private static final long serialVersionUID = 1L;
+
+	public DefaultResponseModule() {
+		super(DefaultResponseModule.class.getSimpleName());
+		setSerializerModifier(new BeanSerializerModifier() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDescription,
+					JsonSerializer<?> serializer) {
+				Class<?> type = beanDescription.getBeanClass();
+				if ((type == DefaultResponse.class || type == DefaultResponse.Shared.class) && isDefaultShape(config, DefaultResponse.class)) {
+					return new DefaultResponseSerializer();
+				}
+				if ((type == Message.class || type == Message.Shared.class) && isDefaultShape(config, Message.class)) {
+					return MessageSerializer.INSTANCE;
+				}
+				if ((type == Error.class || type == Error.Shared.class) && isDefaultShape(config, Error.class)) {
+					return ErrorSerializer.INSTANCE;
+				}
+				return serializer;
+			}
+		});
+	}
+
+	private static boolean isDefaultShape(SerializationConfig config, Class<?> type) {
+		JsonInclude.Include inclusion = config.getDefaultPropertyInclusion(type).getValueInclusion();
+		return (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS)
+				&& config.getPropertyNamingStrategy() == null
+				&& !config.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+				&& config.isEnabled(MapperFeature.DEFAULT_VIEW_INCLUSION)
+				&& !config.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+				&& !config.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)
+				&& config.findMixInClassFor(type) == null
+				&& config.getDefaultTyper(config.constructType(Object.class)) == null;
+	}
+
+}
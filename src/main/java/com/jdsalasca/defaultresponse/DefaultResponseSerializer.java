@@ -0,0 +1,155 @@
+package com.jdsalasca.defaultresponse;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.jdsalasca.defaultresponse.DefaultResponse.DATATYPE;
+
+/**
+ * Writes a {@link DefaultResponse} with the streaming API, in the same order and with the same
+ * values as the bean serializer, without resolving its properties reflectively on each call.
+ * Registered by {@link DefaultResponseModule}.
+ */
+@SuppressWarnings("rawtypes")
+public class DefaultResponseSerializer extends StdSerializer<DefaultResponse> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final SerializableString DATA = new SerializedString("data");
+	private static final SerializableString STATUS = new SerializedString("status");
+	private static final SerializableString MESSAGE = new SerializedString("message");
+	private static final SerializableString ERROR = new SerializedString("error");
+	private static final SerializableString MESSAGE_TYPE = new SerializedString("messageType");
+	private static final SerializableString DATA_TYPE = new SerializedString("dataType");
+	private static final SerializableString PAGEABLE_INFORMATION = new SerializedString("pageableInformation");
+	private static final SerializableString SLICE_INFORMATION = new SerializedString("sliceInformation");
+	private static final SerializableString[] DATA_TYPE_VALUES = new SerializableString[DATATYPE.values().length];
+
+	private static final PageInformationSerializer PAGE_INFORMATION_SERIALIZER = new PageInformationSerializer();
+
+	static {
+		for (DATATYPE dataType : DATATYPE.values()) {
+			DATA_TYPE_VALUES[dataType.ordinal()] = new SerializedString(dataType.name());
+		}
+	}
+
+	/**
+	 * Serializers already resolved for the runtime classes of {@code data}, as a bean property keeps them.
+	 */
+	private transient PropertySerializerMap dataSerializers = PropertySerializerMap.emptyForProperties();
+
+	public DefaultResponseSerializer() {
+		super(DefaultResponse.class);
+	}
+
+	@Override
+	public void serialize(DefaultResponse raw, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		DefaultResponse<?> value = raw;
+		Object data;
+		int status;
+		String messageType;
+		try {
+			data = value.getData();
+			status = value.getStatus();
+		} catch (RuntimeException e) {
+			throw JsonMappingException.from(provider, "Invalid DefaultResponse data or status", e);
+		}
+		try {
+			messageType = value.getMessageType();
+		} catch (RuntimeException e) {
+			throw MessageSerializer.missingMessageType(value, provider, e);
+		}
+
+		generator.writeStartObject(value);
+		generator.writeFieldName(DATA);
+		writeData(data, generator, provider);
+		generator.writeFieldName(STATUS);
+		generator.writeNumber(status);
+		generator.writeFieldName(MESSAGE);
+		writeMessages(value.getMessage(), generator, provider);
+		generator.writeFieldName(ERROR);
+		writeErrors(value.getError(), generator, provider);
+		generator.writeFieldName(MESSAGE_TYPE);
+		MessageSerializer.writeMessageType(generator, messageType);
+		generator.writeFieldName(DATA_TYPE);
+		writeDataType(value.getDataType(), generator);
+		generator.writeFieldName(PAGEABLE_INFORMATION);
+		if (value.getPageableInformation() == null) {
+			generator.writeNull();
+		} else {
+			PAGE_INFORMATION_SERIALIZER.serialize(value.getPageableInformation(), generator, provider);
+		}
+		if (value.getSliceInformation() != null) {
+			generator.writeFieldName(SLICE_INFORMATION);
+			PAGE_INFORMATION_SERIALIZER.serialize(value.getSliceInformation(), generator, provider);
+		}
+		generator.writeEndObject();
+	}
+
+	private void writeData(Object data, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		if (data == null) {
+			provider.defaultSerializeNull(generator);
+			return;
+		}
+		PropertySerializerMap serializers = dataSerializers;
+		JsonSerializer<Object> serializer = serializers.serializerFor(data.getClass());
+		if (serializer == null) {
+			PropertySerializerMap.SerializerAndMapResult result = serializers
+					.findAndAddSecondarySerializer(data.getClass(), provider, null);
+			dataSerializers = result.map;
+			serializer = result.serializer;
+		}
+		serializer.serialize(data, generator, provider);
+	}
+
+	private static void writeMessages(List<Message> messages, JsonGenerator generator, SerializerProvider provider)
+			throws IOException {
+		if (messages == null) {
+			generator.writeNull();
+			return;
+		}
+		generator.writeStartArray(messages, messages.size());
+		for (Message message : messages) {
+			if (message != null && (message.getClass() == Message.class || message.getClass() == Message.Shared.class)) {
+				MessageSerializer.INSTANCE.serialize(message, generator, provider);
+			} else {
+				provider.defaultSerializeValue(message, generator);
+			}
+		}
+		generator.writeEndArray();
+	}
+
+	private static void writeErrors(List<Error> errors, JsonGenerator generator, SerializerProvider provider)
+			throws IOException {
+		if (errors == null) {
+			generator.writeNull();
+			return;
+		}
+		generator.writeStartArray(errors, errors.size());
+		for (Error error : errors) {
+			if (error != null && (error.getClass() == Error.class || error.getClass() == Error.Shared.class)) {
+				ErrorSerializer.INSTANCE.serialize(error, generator, provider);
+			} else {
+				provider.defaultSerializeValue(error, generator);
+			}
+		}
+		generator.writeEndArray();
+	}
+
+	private static void writeDataType(DATATYPE dataType, JsonGenerator generator) throws IOException {
+		if (dataType == null) {
+			generator.writeNull();
+		} else {
+			generator.writeString(DATA_TYPE_VALUES[dataType.ordinal()]);
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+package com.jdsalasca.defaultresponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jdsalasca.defaultresponse.DefaultResponse.DATATYPE;
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
+import com.jdsalasca.defaultresponse.DefaultResponse.MESSAGETYPES;
+
+/**
+ * Writes a {@link DefaultResponse} row by row to an {@link OutputStream}, so the memory used
+ * does not depend on the number of rows. In {@link STREAMFORMAT#JSON_ARRAY} mode the output has
+ * the same shape as a serialized {@link DefaultResponse} with a list of data; in
+ * {@link STREAMFORMAT#NDJSON} mode every row is written as one JSON document per line.
+ * <p>
+ * The envelope is completed by {@link #writeEnd()} once every row is written, or by {@link #writeError()} when
+ * reading the rows fails. {@link #close()} does not complete it, so a stream closed after a failure without
+ * either call ends as an unterminated document rather than a valid one reporting success over truncated data.
+ * <p>
+ * The underlying stream is flushed but never closed, it belongs to the caller.
+ */
+public class DefaultResponseStreamWriter implements Closeable {
+
+	public enum STREAMFORMAT {
+		JSON_ARRAY("application/json"), NDJSON("application/x-ndjson");
+
+		private String value;
+
+		STREAMFORMAT(String value) {
+			this.value = value;
+		}
+
+		/**
+		 * @return the media type to send in the Content-Type header
+		 */
+		public String value() {
+			return this.value;
+		}
+	}
+
+	private final ObjectWriter objectWriter;
+	private final JsonGenerator generator;
+	private final STREAMFORMAT format;
+	private boolean started;
+	private boolean finished;
+
+	public DefaultResponseStreamWriter(ObjectMapper objectMapper, OutputStream outputStream, STREAMFORMAT format)
+			throws IOException {
+		this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.format = format;
+		this.generator = objectMapper.getFactory().createGenerator(outputStream);
+		this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+		if (format == STREAMFORMAT.NDJSON) {
+			this.generator.setRootValueSeparator(null);
+		}
+	}
+
+	/**
+	 * Writes one row, opening the envelope on the first call.
+	 * @param row the row to write
+	 * @throws IOException if the output stream fails
+	 */
+	public void writeRow(Object row) throws IOException {
+		if (!started) {
+			writeStart();
+		}
+		objectWriter.writeValue(generator, row);
+		if (format == STREAMFORMAT.NDJSON) {
+			generator.writeRaw('\n');
+		}
+	}
+
+	/**
+	 * Writes the 404 envelope used when there is nothing to stream. It does nothing in
+	 * {@link STREAMFORMAT#NDJSON} mode, where an empty result is an empty body.
+	 * @throws IOException if the output stream fails
+	 */
+	public void writeNotFound() throws IOException {
+		if (started || format == STREAMFORMAT.NDJSON) {
+			return;
+		}
+		started = true;
+		finished = true;
+		generator.writeStartObject();
+		generator.writeArrayFieldStart("data");
+		generator.writeEndArray();
+		writeEnvelope(HttpStatus.NOT_FOUND, MESSAGETYPES.INFO, DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE);
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Closes the envelope with status 200 once all the rows are written.
+	 * @throws IOException if the output stream fails
+	 */
+	public void writeEnd() throws IOException {
+		writeTrailer(HttpStatus.OK, MESSAGETYPES.SUCCESS, DEFAULTMESSAGES.SUCCESS_MESSAGE);
+	}
+
+	/**
+	 * Closes the envelope with status 500 after reading the rows failed, so a client that reads the
+	 * envelope does not take the rows written so far for the whole result. It does nothing in
+	 * {@link STREAMFORMAT#NDJSON} mode, where the caller must abort the response instead.
+	 * @throws IOException if the output stream fails
+	 */
+	public void writeError() throws IOException {
+		writeTrailer(HttpStatus.INTERNAL_SERVER_ERROR, MESSAGETYPES.ERROR, DEFAULTMESSAGES.INTERNAL_SERVER_ERROR);
+	}
+
+	/**
+	 * Flushes the output stream. An envelope not completed by {@link #writeEnd()}, {@link #writeNotFound()}
+	 * or {@link #writeError()} is left open.
+	 */
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+
+	private void writeTrailer(HttpStatus status, MESSAGETYPES messageType, DEFAULTMESSAGES message) throws IOException {
+		if (!started) {
+			writeStart();
+		}
+		if (!finished && format == STREAMFORMAT.JSON_ARRAY) {
+			finished = true;
+			generator.writeEndArray();
+			writeEnvelope(status, messageType, message);
+			generator.writeEndObject();
+		}
+	}
+
+	private void writeStart() throws IOException {
+		started = true;
+		if (format == STREAMFORMAT.JSON_ARRAY) {
+			generator.writeStartObject();
+			generator.writeArrayFieldStart("data");
+		}
+	}
+
+	private void writeEnvelope(HttpStatus status, MESSAGETYPES messageType, DEFAULTMESSAGES message)
+			throws IOException {
+		generator.writeNumberField("status", status.value());
+		generator.writeFieldName("message");
+		objectWriter.writeValue(generator, List.of(new Message(message.value(), messageType)));
+		generator.writeArrayFieldStart("error");
+		generator.writeEndArray();
+		generator.writeStringField("messageType", messageType.value());
+		generator.writeStringField("dataType", DATATYPE.LIST.name());
+		generator.writeNullField("pageableInformation");
+	}
+
+}
@@ -3,6 +3,7 @@ package com.jdsalasca.defaultresponse;
 
 
 
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
 import com.jdsalasca.defaultresponse.DefaultResponse.MESSAGETYPES;
 
 import lombok.*;
@@ -17,4 +18,33 @@ public class Error {
 		public String getMessageType() {
 			return messageType.value();
 		}
+
+	/**
+	 * @param error the text
+	 * @param messageType the type of the error
+	 * @return the shared error with this text and type, which cannot be changed
+	 */
+	public static Error of(DEFAULTMESSAGES error, MESSAGETYPES messageType) {
+		return DefaultResponse.errors(error, messageType).get(0);
+	}
+
+	/**
+	 * An error with a {@link DEFAULTMESSAGES} text, one instance per text and type shared by every response.
+	 */
+	static final class Shared extends Error {
+
+		Shared(String message, MESSAGETYPES messageType) {
+			super(message, messageType);
+		}
+
+		@Override
+		public void setMessage(String message) {
+			throw new UnsupportedOperationException("Shared error cannot be changed");
+		}
+
+		@Override
+		public void setMessageType(MESSAGETYPES messageType) {
+			throw new UnsupportedOperationException("Shared error cannot be changed");
+		}
+	}
 }
@@ -0,0 +1,43 @@
+package com.jdsalasca.defaultresponse;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes an {@link Error} exactly as the bean serializer does, with pre-encoded names and values.
+ */
+public class ErrorSerializer extends StdSerializer<Error> {
+
+	private static final long serialVersionUID = 1L;
+
+	static final ErrorSerializer INSTANCE = new ErrorSerializer();
+
+	private static final SerializableString MESSAGE = new SerializedString("message");
+	private static final SerializableString MESSAGE_TYPE = new SerializedString("messageType");
+
+	public ErrorSerializer() {
+		super(Error.class);
+	}
+
+	@Override
+	public void serialize(Error value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		String messageType;
+		try {
+			messageType = value.getMessageType();
+		} catch (RuntimeException e) {
+			throw MessageSerializer.missingMessageType(value, provider, e);
+		}
+		generator.writeStartObject(value);
+		generator.writeFieldName(MESSAGE);
+		generator.writeString(value.getMessage());
+		generator.writeFieldName(MESSAGE_TYPE);
+		MessageSerializer.writeMessageType(generator, messageType);
+		generator.writeEndObject();
+	}
+
+}
@@ -1,4 +1,5 @@
 package com.jdsalasca.defaultresponse;
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
 import com.jdsalasca.defaultresponse.DefaultResponse.MESSAGETYPES;
 
 import lombok.*;
@@ -12,5 +13,34 @@ public class Message{
 
 	public String getMessageType() {
 		return messageType.value();
-	} 
+	}
+
+	/**
+	 * @param message the text
+	 * @param messageType the type of the message
+	 * @return the shared message with this text and type, which cannot be changed
+	 */
+	public static Message of(DEFAULTMESSAGES message, MESSAGETYPES messageType) {
+		return DefaultResponse.messages(message, messageType).get(0);
+	}
+
+	/**
+	 * A message with a {@link DEFAULTMESSAGES} text, one instance per text and type shared by every response.
+	 */
+	static final class Shared extends Message {
+
+		Shared(String messageDesc, MESSAGETYPES messageType) {
+			super(messageDesc, messageType);
+		}
+
+		@Override
+		public void setMessageDesc(String messageDesc) {
+			throw new UnsupportedOperationException("Shared message cannot be changed");
+		}
+
+		@Override
+		public void setMessageType(MESSAGETYPES messageType) {
+			throw new UnsupportedOperationException("Shared message cannot be changed");
+		}
+	}
 }
@@ -0,0 +1,73 @@
+package com.jdsalasca.defaultresponse;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.jdsalasca.defaultresponse.DefaultResponse.MESSAGETYPES;
+
+/**
+ * Writes a {@link Message} exactly as the bean serializer does, with pre-encoded names and values.
+ */
+public class MessageSerializer extends StdSerializer<Message> {
+
+	private static final long serialVersionUID = 1L;
+
+	static final MessageSerializer INSTANCE = new MessageSerializer();
+
+	private static final SerializableString MESSAGE_DESC = new SerializedString("messageDesc");
+	private static final SerializableString MESSAGE_TYPE = new SerializedString("messageType");
+	private static final MESSAGETYPES[] MESSAGE_TYPES = MESSAGETYPES.values();
+	private static final SerializableString[] MESSAGE_TYPE_VALUES = new SerializableString[MESSAGE_TYPES.length];
+
+	static {
+		for (MESSAGETYPES messageType : MESSAGE_TYPES) {
+			MESSAGE_TYPE_VALUES[messageType.ordinal()] = new SerializedString(messageType.value());
+		}
+	}
+
+	public MessageSerializer() {
+		super(Message.class);
+	}
+
+	@Override
+	public void serialize(Message value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		String messageType;
+		try {
+			messageType = value.getMessageType();
+		} catch (RuntimeException e) {
+			throw missingMessageType(value, provider, e);
+		}
+		generator.writeStartObject(value);
+		generator.writeFieldName(MESSAGE_DESC);
+		generator.writeString(value.getMessageDesc());
+		generator.writeFieldName(MESSAGE_TYPE);
+		writeMessageType(generator, messageType);
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Reports a failing {@code getMessageType()} as a mapping error, as the bean serializer does.
+	 */
+	static JsonMappingException missingMessageType(Object value, SerializerProvider provider, RuntimeException cause) {
+		return JsonMappingException.from(provider, value.getClass().getSimpleName() + " without messageType", cause);
+	}
+
+	/**
+	 * Writes one of the {@link MESSAGETYPES#value()} strings from its pre-encoded form.
+	 */
+	static void writeMessageType(JsonGenerator generator, String messageType) throws IOException {
+		for (MESSAGETYPES candidate : MESSAGE_TYPES) {
+			if (candidate.value().equals(messageType)) {
+				generator.writeString(MESSAGE_TYPE_VALUES[candidate.ordinal()]);
+				return;
+			}
+		}
+		generator.writeString(messageType);
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.jdsalasca.defaultresponse;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact description of the page returned in {@link DefaultResponse#getData()}, written in place
+ * of the whole {@link Page}, whose content would otherwise be serialized a second time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageInformation {
+
+	private int number;
+	private int size;
+	/**
+	 * Total number of elements, null when it was not counted (slices and cursors).
+	 */
+	private Long totalElements;
+	private boolean hasNext;
+	/**
+	 * Token to request the next window with keyset pagination, null otherwise.
+	 */
+	private String nextCursor;
+
+	/**
+	 * @param slice the page, slice or cursor slice returned by the repository
+	 * @return its page information, or null if the slice is null
+	 */
+	public static PageInformation of(Slice<?> slice) {
+		if (slice == null) {
+			return null;
+		}
+		Long totalElements = (slice instanceof Page) ? ((Page<?>) slice).getTotalElements() : null;
+		String nextCursor = (slice instanceof CursorInformation) ? ((CursorInformation) slice).getNextCursor() : null;
+		return new PageInformation(slice.getNumber(), slice.getSize(), totalElements, slice.hasNext(), nextCursor);
+	}
+
+}
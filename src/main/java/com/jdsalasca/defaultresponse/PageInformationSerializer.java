@@ -0,0 +1,49 @@
+package com.jdsalasca.defaultresponse;
+
+import java.io.IOException;
+
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes {@link DefaultResponse#getPageableInformation()} and {@link DefaultResponse#getSliceInformation()} as a {@link PageInformation}.
+ * Mappers with the {@link #LEGACY_SHAPE_ATTRIBUTE} attribute set to true keep writing the
+ * whole {@link org.springframework.data.domain.Page}, as versions up to 0.0.4 did.
+ */
+@SuppressWarnings("rawtypes")
+public class PageInformationSerializer extends StdSerializer<Slice> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String LEGACY_SHAPE_ATTRIBUTE = "com.jdsalasca.defaultresponse.legacyPageableInformation";
+
+	public PageInformationSerializer() {
+		super(Slice.class);
+	}
+
+	/**
+	 * Makes the given mapper write the whole page, for clients that still read it.
+	 * @param objectMapper the mapper to configure
+	 * @return the same mapper
+	 */
+	public static ObjectMapper enableLegacyShape(ObjectMapper objectMapper) {
+		ContextAttributes attributes = objectMapper.getSerializationConfig().getAttributes();
+		objectMapper.setDefaultAttributes(attributes.withSharedAttribute(LEGACY_SHAPE_ATTRIBUTE, Boolean.TRUE));
+		return objectMapper;
+	}
+
+	@Override
+	public void serialize(Slice value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		if (Boolean.TRUE.equals(provider.getAttribute(LEGACY_SHAPE_ATTRIBUTE))) {
+			provider.findValueSerializer(value.getClass()).serialize(value, generator, provider);
+		} else {
+			provider.defaultSerializeValue(PageInformation.of(value), generator);
+		}
+	}
+
+}
@@ -15,4 +15,12 @@ public class EntityFoundException extends IOException {
 		return this.message;
 	}
 
+	/**
+	 * Stackless, it only tells the caller the entity already exists.
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
 }
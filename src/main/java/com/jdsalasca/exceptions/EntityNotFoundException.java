@@ -17,4 +17,13 @@ public class EntityNotFoundException  extends IOException {
 		return this.message;
 	}
 
+	/**
+	 * No stack trace is captured: the exception reports an expected state of the data, not a bug, and
+	 * walking the stack would cost more than the rest of the request.
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
 }
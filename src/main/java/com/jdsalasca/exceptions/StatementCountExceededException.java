@@ -0,0 +1,28 @@
+package com.jdsalasca.exceptions;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Thrown by {@link com.jdsalasca.crud.CrudServiceImpl} when a call runs more SQL statements than the
+ * threshold of {@code enableStatementCountCheck} and failing is enabled.
+ */
+@Getter
+public class StatementCountExceededException extends IllegalStateException {
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	/** the number of statements the call ran */
+	private final int count;
+	/** the first statements of the call */
+	private final transient List<String> statements;
+
+	public StatementCountExceededException(String message, int count, List<String> statements) {
+		super(message);
+		this.count = count;
+		this.statements = statements;
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+class BatchLoadingTest {
+
+	private static final int CALLS = 500;
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private List<Long> ids;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		TestRepository repository = context.getBean(TestRepository.class);
+		ids = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			ids.add(repository.save(new TestEntity("name-" + i, i)).getId());
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void asyncCallersDoNotStarveTheBatches() throws Exception {
+		service.enableBatchLoading(Duration.ofMillis(5), 50, Duration.ofSeconds(5));
+		AsyncCrudServiceImpl<TestEntity, TestDto, Long, TestRepository> asyncService = new AsyncCrudServiceImpl<>(service);
+
+		List<CompletableFuture<ResponseEntity<DefaultResponse<TestEntity>>>> responses = new ArrayList<>();
+		for (int i = 0; i < CALLS; i++) {
+			responses.add(asyncService.getById(ids.get(i % ids.size())));
+		}
+
+		for (CompletableFuture<ResponseEntity<DefaultResponse<TestEntity>>> response : responses) {
+			assertEquals(200, response.get(30, TimeUnit.SECONDS).getStatusCode().value());
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.Error;
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+/**
+ * {@link CrudServiceImpl#saveAll} and {@link CrudServiceImpl#updateAll} in chunks of two, counting the transactions of
+ * the chunks and of the items written one by one.
+ */
+class BulkWriteTest {
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private TestRepository repository;
+	private AtomicInteger transactions;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		repository = context.getBean(TestRepository.class);
+		transactions = new AtomicInteger();
+		PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+		service.setTransactionManager(new PlatformTransactionManager() {
+
+			@Override
+			public TransactionStatus getTransaction(TransactionDefinition definition) {
+				transactions.incrementAndGet();
+				return transactionManager.getTransaction(definition);
+			}
+
+			@Override
+			public void commit(TransactionStatus status) {
+				transactionManager.commit(status);
+			}
+
+			@Override
+			public void rollback(TransactionStatus status) {
+				transactionManager.rollback(status);
+			}
+
+		});
+		service.setBatchChunkSize(2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void savesInOneTransactionPerChunk() {
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.saveAll(dtos("a", "b", "c", "d", "e"), TestEntity.class);
+
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals(5, data(response).size());
+		assertTrue(response.getBody().getError().isEmpty());
+		assertEquals(3, transactions.get());
+		assertEquals(List.of("a", "b", "c", "d", "e"), names());
+	}
+
+	@Test
+	void savesTheItemsOfAFailingChunkOneByOne() {
+		repository.save(new TestEntity("c", 0));
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.saveAll(dtos("a", "b", "c", "d", "e"), TestEntity.class);
+
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals(4, data(response).size());
+		assertEquals(1, response.getBody().getError().size());
+		assertTrue(errorMessages(response).get(0).startsWith("[2] "), errorMessages(response).toString());
+		assertEquals(1 + 1 + 2 + 1, transactions.get());
+		assertEquals(List.of("a", "b", "c", "d", "e"), names());
+	}
+
+	@Test
+	void updatesTheFoundItemsAndReportsTheMissingOnes() {
+		Long a = repository.save(new TestEntity("a", 1)).getId();
+		Long b = repository.save(new TestEntity("b", 1)).getId();
+		Long c = repository.save(new TestEntity("c", 1)).getId();
+		Map<Long, TestDto> dtos = new LinkedHashMap<>();
+		dtos.put(a, new TestDto("a", 2));
+		dtos.put(b + 100, new TestDto("x", 2));
+		dtos.put(b, new TestDto("b", 2));
+		dtos.put(c + 100, new TestDto("y", 2));
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.updateAll(dtos, TestEntity.class);
+
+		assertEquals(2, data(response).size());
+		assertEquals(List.of("[" + (b + 100) + "] ", "[" + (c + 100) + "] "),
+				errorMessages(response).stream().map(message -> message.substring(0, message.indexOf(']') + 2)).collect(Collectors.toList()));
+		assertEquals(2, transactions.get());
+		assertEquals(List.of(2, 2, 1), repository.findAll(Sort.by("name")).stream().map(TestEntity::getQuantity).collect(Collectors.toList()));
+	}
+
+	@Test
+	void updatesTheItemsOfAFailingChunkOneByOne() {
+		Long a = repository.save(new TestEntity("a", 1)).getId();
+		Long b = repository.save(new TestEntity("b", 1)).getId();
+		Long c = repository.save(new TestEntity("c", 1)).getId();
+		Map<Long, TestDto> dtos = new LinkedHashMap<>();
+		dtos.put(a, new TestDto("a", 2));
+		dtos.put(b, new TestDto("c", 2));
+		dtos.put(c, new TestDto("c", 3));
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.updateAll(dtos, TestEntity.class);
+
+		assertEquals(2, data(response).size());
+		assertEquals(1, response.getBody().getError().size());
+		assertTrue(errorMessages(response).get(0).startsWith("[" + b + "] "), errorMessages(response).toString());
+		assertEquals(1 + 2 + 1, transactions.get());
+		assertEquals(List.of(2, 1, 3), repository.findAll(Sort.by("id")).stream().map(TestEntity::getQuantity).collect(Collectors.toList()));
+	}
+
+	private List<String> names() {
+		return repository.findAll(Sort.by("name")).stream().map(TestEntity::getName).collect(Collectors.toList());
+	}
+
+	private static List<TestDto> dtos(String... names) {
+		return Arrays.stream(names).map(name -> new TestDto(name, 1)).collect(Collectors.toList());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<TestEntity> data(ResponseEntity<DefaultResponse<TestEntity>> response) {
+		return (List<TestEntity>) response.getBody().getData();
+	}
+
+	private static List<String> errorMessages(ResponseEntity<DefaultResponse<TestEntity>> response) {
+		return response.getBody().getError().stream().map(Error::getMessage).collect(Collectors.toList());
+	}
+
+}
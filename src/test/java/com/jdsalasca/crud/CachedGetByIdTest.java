@@ -0,0 +1,105 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import com.jdsalasca.crud.cache.EntityCache;
+import com.jdsalasca.support.TestCategory;
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+class CachedGetByIdTest {
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private EntityCache<Long, TestEntity> cache;
+	private Long id;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		cache = new EntityCache<>(100, Duration.ofMinutes(1));
+		service.setEntityCache(cache);
+		id = context.getBean(TestRepository.class).save(new TestEntity("a", 1)).getId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void callersDoNotShareTheCachedEntity() {
+		TestEntity first = entity(service.getById(id).getBody().getData());
+		first.setQuantity(99);
+
+		TestEntity second = entity(service.getById(id).getBody().getData());
+
+		assertNotSame(first, second);
+		assertEquals(1, second.getQuantity());
+		assertEquals(1, cache.stats().getHitCount());
+	}
+
+	@Test
+	void updateEvictsTheCachedEntity() {
+		service.getById(id);
+		TestDto dto = new TestDto("a", 2);
+
+		service.update(id, dto, new BeanPropertyBindingResult(dto, "dto"), TestEntity.class);
+
+		assertEquals(0, cache.stats().getSize());
+		assertEquals(2, entity(service.getById(id).getBody().getData()).getQuantity());
+	}
+
+	@Test
+	void cachesTheEntityWithoutItsAssociations() {
+		Long withCategory = saveWithCategory("b");
+
+		TestEntity loaded = entity(service.getById(withCategory).getBody().getData());
+		TestEntity cached = entity(service.getById(withCategory).getBody().getData());
+
+		assertNotNull(loaded.getCategory());
+		assertNull(cached.getCategory());
+		assertEquals("b", cached.getName());
+		assertEquals(1, cache.stats().getHitCount());
+	}
+
+	private Long saveWithCategory(String name) {
+		EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+		try {
+			entityManager.getTransaction().begin();
+			TestCategory category = new TestCategory("category");
+			entityManager.persist(category);
+			TestEntity entity = new TestEntity(name, 1);
+			entity.setCategory(category);
+			entityManager.persist(entity);
+			entityManager.getTransaction().commit();
+			return entity.getId();
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	private static TestEntity entity(Object data) {
+		return (TestEntity) ((List<?>) data).get(0);
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.MappingException;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.spi.ErrorMessage;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import com.jdsalasca.crud.mapping.CompiledEntityMapper;
+import com.jdsalasca.crud.mapping.EntityMapper;
+import com.jdsalasca.crud.metrics.CrudOperation;
+import com.jdsalasca.crud.metrics.CrudOutcome;
+import com.jdsalasca.crud.metrics.InMemoryCrudMetrics;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+class CrudMetricsRecordingTest {
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private InMemoryCrudMetrics metrics;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		metrics = new InMemoryCrudMetrics();
+		service.setCrudMetrics(metrics);
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void recordsBulkWrites() {
+		service.saveAll(Arrays.asList(new TestDto("a", 1), new TestDto("b", 2)), TestEntity.class);
+		service.updateAll(Collections.singletonMap(1L, new TestDto("c", 3)), TestEntity.class);
+
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.SAVE_ALL, CrudOutcome.OK).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.UPDATE_ALL, CrudOutcome.OK).getCount());
+	}
+
+	@Test
+	void recordsPagedReads() {
+		service.saveAll(Arrays.asList(new TestDto("a", 1), new TestDto("b", 2)), TestEntity.class);
+
+		service.getAll(PageRequest.of(0, 1));
+		service.getAllSlice(PageRequest.of(0, 1, Sort.by("name")));
+		service.getAllByCursor(null, 1, Sort.by("name"));
+		service.getAll(PageRequest.of(5, 1));
+
+		assertEquals(3, metrics.stats(TestEntity.class, CrudOperation.GET_ALL, CrudOutcome.OK).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.GET_ALL, CrudOutcome.NOT_FOUND).getCount());
+	}
+
+	@Test
+	void recordsReadsByOutcome() {
+		service.getAll();
+		Long id = context.getBean(TestRepository.class).save(new TestEntity("a", 1)).getId();
+		service.getAll();
+		service.getById(id);
+		service.getById(id + 1);
+
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.GET_ALL, CrudOutcome.OK).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.GET_ALL, CrudOutcome.OK).getMaxResultSize());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.GET_ALL, CrudOutcome.NOT_FOUND).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.GET_BY_ID, CrudOutcome.OK).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.GET_BY_ID, CrudOutcome.NOT_FOUND).getCount());
+	}
+
+	@Test
+	void recordsSavesByOutcome() {
+		assertEquals(200, save(service, new TestDto("a", 1)).getStatusCode().value());
+		assertEquals(400, save(service, new TestDto("a", 2)).getStatusCode().value());
+		assertEquals(400, service.save(new TestDto("b", 1), rejected(new TestDto("b", 1)), TestEntity.class).getStatusCode().value());
+		assertEquals(400, save(unmappableService(), new TestDto("c", 1)).getStatusCode().value());
+
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.SAVE, CrudOutcome.OK).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.SAVE, CrudOutcome.INTEGRITY_VIOLATION).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.SAVE, CrudOutcome.BAD_REQUEST).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.SAVE, CrudOutcome.MAPPING_FAILURE).getCount());
+	}
+
+	@Test
+	void recordsUpdatesByOutcome() {
+		TestRepository repository = context.getBean(TestRepository.class);
+		Long a = repository.save(new TestEntity("a", 1)).getId();
+		repository.save(new TestEntity("b", 1));
+		TestDto renamed = new TestDto("c", 2);
+		TestDto taken = new TestDto("b", 2);
+
+		assertEquals(200, service.update(a, renamed, new BeanPropertyBindingResult(renamed, "dto"), TestEntity.class).getStatusCode().value());
+		assertEquals(400, service.update(a + 100, renamed, new BeanPropertyBindingResult(renamed, "dto"), TestEntity.class).getStatusCode().value());
+		assertEquals(400, service.update(a, renamed, rejected(renamed), TestEntity.class).getStatusCode().value());
+		assertEquals(400, service.update(a, taken, new BeanPropertyBindingResult(taken, "dto"), TestEntity.class).getStatusCode().value());
+
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.OK).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.NOT_FOUND).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.BAD_REQUEST).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.INTEGRITY_VIOLATION).getCount());
+	}
+
+	@Test
+	void recordsDeletesByOutcome() {
+		Long id = context.getBean(TestRepository.class).save(new TestEntity("a", 1)).getId();
+
+		assertEquals(200, service.deleteById(id).getStatusCode().value());
+		assertEquals(404, service.deleteById(id).getStatusCode().value());
+
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.DELETE_BY_ID, CrudOutcome.OK).getCount());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.DELETE_BY_ID, CrudOutcome.OK).getMaxResultSize());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.DELETE_BY_ID, CrudOutcome.NOT_FOUND).getCount());
+	}
+
+	private static ResponseEntity<DefaultResponse<TestEntity>> save(TestService service, TestDto dto) {
+		return service.save(dto, new BeanPropertyBindingResult(dto, "dto"), TestEntity.class);
+	}
+
+	private static BindingResult rejected(TestDto dto) {
+		BindingResult bindingResult = new BeanPropertyBindingResult(dto, "dto");
+		bindingResult.rejectValue("quantity", "invalid", "quantity is invalid");
+		return bindingResult;
+	}
+
+	/**
+	 * A service whose mapper cannot map any DTO.
+	 */
+	private TestService unmappableService() {
+		ModelMapper modelMapper = context.getBean(ModelMapper.class);
+		EntityMapper<TestDto, TestEntity> mapper = new CompiledEntityMapper<TestDto, TestEntity>(modelMapper) {
+			@Override
+			public TestEntity toEntity(TestDto dto, Class<TestEntity> entityClass) {
+				throw new MappingException(Collections.singletonList(new ErrorMessage("quantity cannot be converted")));
+			}
+		};
+		TestService unmappable = new TestService(context.getBean(TestRepository.class), modelMapper) {
+			@Override
+			protected EntityMapper<TestDto, TestEntity> getEntityMapper() {
+				return mapper;
+			}
+		};
+		context.getAutowireCapableBeanFactory().autowireBean(unmappable);
+		unmappable.setCrudMetrics(metrics);
+		return unmappable;
+	}
+
+}
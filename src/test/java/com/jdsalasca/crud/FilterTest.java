@@ -0,0 +1,101 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+import com.jdsalasca.crud.filter.CrudFilter;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+class FilterTest {
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		service.setFilterableAttributes(Set.of("name", "quantity"));
+		TestRepository repository = context.getBean(TestRepository.class);
+		repository.save(new TestEntity("a", 1));
+		repository.save(new TestEntity("b", 2));
+		repository.save(new TestEntity("c", 3));
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void readsOnlyThePrefixedParameters() {
+		CrudFilter filter = CrudFilter.parse(Map.of("filter.quantity.gte", List.of("2"), "page", List.of("0"),
+				"name", List.of("a"), "utm_source", List.of("mail")));
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.getAll(filter, Sort.by("name"), Pageable.unpaged());
+
+		assertEquals(1, filter.conditions().size());
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals(List.of("b", "c"), names(response));
+	}
+
+	@Test
+	void answersUnparsableParametersWith400() {
+		CrudFilter filter = CrudFilter.parse(Map.of("filter.quantity.between", List.of("1,2")));
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.getAll(filter, Sort.unsorted(), null);
+
+		assertTrue(filter.isInvalid());
+		assertEquals(400, response.getStatusCode().value());
+	}
+
+	@Test
+	void filtersWithARepositoryThatIsNotASpecificationExecutor() {
+		PlainRepository repository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(
+				context.getBean(EntityManagerFactory.class))).getRepository(PlainRepository.class);
+		CrudServiceImpl<TestEntity, TestDto, Long, PlainRepository> plainService =
+				new CrudServiceImpl<TestEntity, TestDto, Long, PlainRepository>(repository, context.getBean(ModelMapper.class)) {
+				};
+		context.getAutowireCapableBeanFactory().autowireBean(plainService);
+		plainService.setFilterableAttributes(Set.of("name"));
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = plainService.getAll(CrudFilter.empty().in("name", List.of("a", "c")),
+				Sort.by("name"), null);
+
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals(List.of("a", "c"), names(response));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> names(ResponseEntity<DefaultResponse<TestEntity>> response) {
+		return ((List<TestEntity>) response.getBody().getData()).stream().map(TestEntity::getName).collect(Collectors.toList());
+	}
+
+	interface PlainRepository extends JpaRepository<TestEntity, Long> {
+	}
+
+}
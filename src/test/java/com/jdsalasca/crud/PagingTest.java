@@ -0,0 +1,149 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+import com.jdsalasca.crud.paging.CursorCodec;
+import com.jdsalasca.crud.paging.CursorSlice;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+/**
+ * Offset, slice and keyset paging over seven rows whose quantities repeat, so the sort on the quantity alone is not unique.
+ */
+class PagingTest {
+
+	private static final int ROWS = 7;
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private List<TestEntity> rows;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		TestRepository repository = context.getBean(TestRepository.class);
+		rows = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			rows.add(repository.save(new TestEntity("name-" + i, i % 3)));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void readsAPageWithItsTotal() {
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.getAll(PageRequest.of(1, 3, Sort.by("name")));
+
+		assertEquals(List.of("name-3", "name-4", "name-5"), names(response));
+		assertEquals(ROWS, response.getBody().getPageableInformation().getTotalElements());
+		assertEquals(404, service.getAll(PageRequest.of(3, 3)).getStatusCode().value());
+	}
+
+	@Test
+	void readsSlicesUntilTheLastOne() {
+		ResponseEntity<DefaultResponse<TestEntity>> first = service.getAllSlice(PageRequest.of(0, 4, Sort.by("name")));
+		ResponseEntity<DefaultResponse<TestEntity>> last = service.getAllSlice(PageRequest.of(1, 4, Sort.by("name")));
+
+		assertEquals(List.of("name-0", "name-1", "name-2", "name-3"), names(first));
+		assertTrue(first.getBody().getSliceInformation().hasNext());
+		assertEquals(List.of("name-4", "name-5", "name-6"), names(last));
+		assertFalse(last.getBody().getSliceInformation().hasNext());
+		assertEquals(404, service.getAllSlice(PageRequest.of(2, 4)).getStatusCode().value());
+	}
+
+	@Test
+	void walksTheKeysetToTheEndOnANonUniqueSort() {
+		Sort sort = Sort.by(Sort.Order.desc("quantity"));
+		List<Long> walked = new ArrayList<>();
+		String cursor = null;
+		int windows = 0;
+		do {
+			ResponseEntity<DefaultResponse<TestEntity>> response = service.getAllByCursor(cursor, 2, sort);
+			assertEquals(200, response.getStatusCode().value());
+			walked.addAll(ids(response));
+			cursor = ((CursorSlice<?>) response.getBody().getSliceInformation()).getNextCursor();
+			windows++;
+		} while (cursor != null);
+
+		List<Long> expected = rows.stream()
+				.sorted(Comparator.comparing(TestEntity::getQuantity).reversed().thenComparing(TestEntity::getId))
+				.map(TestEntity::getId).collect(Collectors.toList());
+		assertEquals(expected, walked);
+		assertEquals(4, windows);
+	}
+
+	@Test
+	void reducesTheWindowToTheMaxCursorSize() {
+		service.setMaxCursorSize(3);
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.getAllByCursor(null, 100, Sort.by("name"));
+
+		assertEquals(3, ids(response).size());
+		assertEquals(3, response.getBody().getSliceInformation().getSize());
+		assertTrue(response.getBody().getSliceInformation().hasNext());
+	}
+
+	@Test
+	void rejectsACursorOfAnotherSortOrEntity() {
+		ResponseEntity<DefaultResponse<TestEntity>> byQuantity = service.getAllByCursor(null, 2, Sort.by("quantity"));
+		String cursor = ((CursorSlice<?>) byQuantity.getBody().getSliceInformation()).getNextCursor();
+		Map<String, Object> categoryKeys = new LinkedHashMap<>();
+		categoryKeys.put("label", "a");
+		categoryKeys.put("id", 1L);
+		Map<String, Object> wrongType = new LinkedHashMap<>();
+		wrongType.put("quantity", "1");
+		wrongType.put("id", 1L);
+
+		assertEquals(200, service.getAllByCursor(cursor, 2, Sort.by("quantity")).getStatusCode().value());
+		assertEquals(400, service.getAllByCursor(cursor, 2, Sort.by("name")).getStatusCode().value());
+		assertEquals(400, service.getAllByCursor(CursorCodec.encode(categoryKeys), 2, Sort.by("label")).getStatusCode().value());
+		assertEquals(400, service.getAllByCursor(CursorCodec.encode(wrongType), 2, Sort.by("quantity")).getStatusCode().value());
+	}
+
+	@Test
+	void answersMalformedCursorsWith400() {
+		assertEquals(400, service.getAllByCursor("%%%not-base64", 2, Sort.by("name")).getStatusCode().value());
+		assertEquals(400, service.getAllByCursor("AAAA", 2, Sort.by("name")).getStatusCode().value());
+		assertEquals(DEFAULTMESSAGES.INVALID_CURSOR_MESSAGE.value(),
+				service.getAllByCursor("AAAA", 2, Sort.by("name")).getBody().getMessage().get(0).getMessageDesc());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<TestEntity> data(ResponseEntity<DefaultResponse<TestEntity>> response) {
+		return (List<TestEntity>) response.getBody().getData();
+	}
+
+	private static List<String> names(ResponseEntity<DefaultResponse<TestEntity>> response) {
+		return data(response).stream().map(TestEntity::getName).collect(Collectors.toList());
+	}
+
+	private static List<Long> ids(ResponseEntity<DefaultResponse<TestEntity>> response) {
+		return data(response).stream().map(TestEntity::getId).collect(Collectors.toList());
+	}
+
+}
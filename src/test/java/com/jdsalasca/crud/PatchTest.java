@@ -0,0 +1,75 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+import lombok.Getter;
+
+class PatchTest {
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private TestRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		repository = context.getBean(TestRepository.class);
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void setsTheLastModifiedTimeAndVersionInTheSameUpdate() throws InterruptedException {
+		TestEntity saved = repository.save(new TestEntity("a", 1));
+		Thread.sleep(5);
+
+		assertEquals(200, service.patch(saved.getId(), new TestDto(null, 2), TestEntity.class).getStatusCode().value());
+
+		TestEntity patched = repository.findById(saved.getId()).get();
+		assertEquals(2, patched.getQuantity());
+		assertEquals("a", patched.getName());
+		assertEquals(saved.getVersion() + 1, patched.getVersion());
+		assertTrue(patched.getUpdatedAt().isAfter(saved.getUpdatedAt()), patched.getUpdatedAt() + " after " + saved.getUpdatedAt());
+	}
+
+	@Test
+	void answersConflictForAStaleVersionAndNotFoundForAMissingId() {
+		TestEntity saved = repository.save(new TestEntity("a", 1));
+
+		assertEquals(409, service.patch(saved.getId(), new VersionedDto(2, saved.getVersion() + 1), TestEntity.class).getStatusCode().value());
+		assertEquals(404, service.patch(saved.getId() + 100, new VersionedDto(2, saved.getVersion()), TestEntity.class).getStatusCode().value());
+		assertEquals(200, service.patch(saved.getId(), new VersionedDto(2, saved.getVersion()), TestEntity.class).getStatusCode().value());
+	}
+
+	/**
+	 * Carries the version the client read, so the patch only applies to it.
+	 */
+	@Getter
+	public static class VersionedDto extends TestDto {
+
+		private final Long version;
+
+		VersionedDto(Integer quantity, Long version) {
+			super(null, quantity);
+			this.version = version;
+		}
+
+	}
+
+}
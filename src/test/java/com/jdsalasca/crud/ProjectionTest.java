@@ -0,0 +1,208 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import com.jdsalasca.crud.statement.StatementCounter;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link CrudServiceImpl#getAllProjected} and {@link CrudServiceImpl#getByIdProjected} with the projection types of
+ * {@link com.jdsalasca.crud.projection.ColumnProjection}, checking the columns of the SELECT they run.
+ */
+class ProjectionTest {
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private Long id;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		TestRepository repository = context.getBean(TestRepository.class);
+		id = repository.save(new TestEntity("a", 1)).getId();
+		repository.save(new TestEntity("b", 2));
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void selectsTheColumnsOfAnInterfaceProjection() {
+		List<String> statements = statements(() -> service.getAllProjected(NameView.class));
+
+		List<NameView> views = data(service.getAllProjected(NameView.class));
+		assertEquals(List.of("a", "b"), views.stream().map(NameView::getName).sorted().collect(Collectors.toList()));
+		assertEquals(1, statements.size());
+		assertSelectsOnly(statements.get(0), "name", "quantity");
+	}
+
+	@Test
+	void selectsTheColumnsOfADtoProjection() {
+		List<String> statements = statements(() -> service.getByIdProjected(id, NameDto.class));
+
+		NameDto dto = data(service.getByIdProjected(id, NameDto.class)).get(0);
+		assertEquals("a", dto.getName());
+		assertEquals(1, dto.getQuantity());
+		assertSelectsOnly(statements.get(0), "name", "quantity");
+	}
+
+	@Test
+	void selectsTheColumnsOfAConstructorProjection() {
+		List<String> statements = statements(() -> service.getByIdProjected(id, NameValue.class));
+
+		NameValue value = data(service.getByIdProjected(id, NameValue.class)).get(0);
+		assertEquals("a", value.getName());
+		assertEquals(1, value.getQuantity());
+		assertSelectsOnly(statements.get(0), "name", "quantity");
+	}
+
+	@Test
+	void loadsTheEntityForAFlattenedProjection() {
+		List<String> statements = statements(() -> service.getByIdProjected(id, CategoryDto.class));
+
+		CategoryDto dto = data(service.getByIdProjected(id, CategoryDto.class)).get(0);
+		assertEquals("a", dto.getName());
+		assertTrue(statements.get(0).toLowerCase(Locale.ROOT).contains("version"), statements.get(0));
+	}
+
+	@Test
+	void answers404ForAMissingId() {
+		assertEquals(404, service.getByIdProjected(id + 100, NameView.class).getStatusCode().value());
+		assertEquals(404, service.getByIdProjected(id + 100, NameValue.class).getStatusCode().value());
+	}
+
+	@Test
+	void rejectsProjectionsWithUnknownProperties() {
+		assertThrows(IllegalArgumentException.class, () -> service.getAllProjected(UnknownView.class));
+		assertThrows(IllegalArgumentException.class, () -> service.getByIdProjected(id, UnknownDto.class));
+		assertThrows(IllegalArgumentException.class, () -> service.getByIdProjected(id, UnknownValue.class));
+	}
+
+	private static List<String> statements(Supplier<ResponseEntity<?>> read) {
+		try (StatementCounter.Scope statements = StatementCounter.open()) {
+			assertEquals(200, read.get().getStatusCode().value());
+			return statements.statements();
+		}
+	}
+
+	/**
+	 * Checks the select list of the statement, between SELECT and FROM, names the given columns and no other one.
+	 */
+	private static void assertSelectsOnly(String sql, String... columns) {
+		String lower = sql.toLowerCase(Locale.ROOT);
+		String selectList = lower.substring(lower.indexOf("select") + "select".length(), lower.indexOf(" from "));
+		String[] selected = selectList.split(",");
+		assertEquals(columns.length, selected.length, sql);
+		for (String column : columns) {
+			assertTrue(selectList.matches(".*\\b\\w+\\." + column + "\\b.*"), sql);
+		}
+		assertFalse(selectList.contains("version") || selectList.contains("category"), sql);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <P> List<P> data(ResponseEntity<DefaultResponse<P>> response) {
+		return (List<P>) response.getBody().getData();
+	}
+
+	public interface NameView {
+
+		String getName();
+
+		Integer getQuantity();
+
+	}
+
+	public interface UnknownView {
+
+		String getName();
+
+		String getColour();
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	public static class NameDto {
+
+		private String name;
+		private Integer quantity;
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	public static class CategoryDto {
+
+		private String name;
+		private String categoryLabel;
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	public static class UnknownDto {
+
+		private String name;
+		private String colour;
+
+	}
+
+	public static class NameValue {
+
+		private final String name;
+		private final Integer quantity;
+
+		public NameValue(String name, Integer quantity) {
+			this.name = name;
+			this.quantity = quantity;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Integer getQuantity() {
+			return quantity;
+		}
+
+	}
+
+	public static class UnknownValue {
+
+		private final String colour;
+
+		public UnknownValue(String colour) {
+			this.colour = colour;
+		}
+
+		public String getColour() {
+			return colour;
+		}
+
+	}
+
+}
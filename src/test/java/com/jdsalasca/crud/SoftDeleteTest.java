@@ -0,0 +1,63 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+class SoftDeleteTest {
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private TestRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		service.setSoftDeleteAttribute("deleted");
+		repository = context.getBean(TestRepository.class);
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void marksTheRowAndBumpsVersionAndLastModifiedTime() throws InterruptedException {
+		TestEntity saved = repository.save(new TestEntity("a", 1));
+		Thread.sleep(5);
+
+		assertEquals(200, service.deleteById(saved.getId()).getStatusCode().value());
+
+		TestEntity deleted = repository.findById(saved.getId()).get();
+		assertEquals(Boolean.TRUE, deleted.getDeleted());
+		assertEquals(saved.getVersion() + 1, deleted.getVersion());
+		assertTrue(deleted.getUpdatedAt().isAfter(saved.getUpdatedAt()));
+	}
+
+	@Test
+	void deletesEachRowOnce() {
+		TestEntity first = repository.save(new TestEntity("a", 1));
+		TestEntity second = repository.save(new TestEntity("b", 1));
+		service.deleteById(first.getId());
+
+		assertEquals(200, service.deleteAllById(Arrays.asList(first.getId(), second.getId())).getStatusCode().value());
+
+		assertEquals(first.getVersion() + 1, repository.findById(first.getId()).get().getVersion());
+		assertEquals(second.getVersion() + 1, repository.findById(second.getId()).get().getVersion());
+		assertEquals(404, service.deleteById(first.getId()).getStatusCode().value());
+	}
+
+}
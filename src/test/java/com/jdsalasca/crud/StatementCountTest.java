@@ -0,0 +1,125 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jdsalasca.crud.fetch.FetchPlan;
+import com.jdsalasca.crud.statement.StatementCounter;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.exceptions.StatementCountExceededException;
+import com.jdsalasca.support.TestCategory;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Locks in the number of statements of the reads, the associations touched included, as a request would
+ * while serializing the response.
+ */
+class StatementCountTest {
+
+	private static final int ROWS = 3;
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private TransactionTemplate transaction;
+	private Long id;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		Categories categories = new Categories();
+		context.getAutowireCapableBeanFactory().autowireBean(categories);
+		TestRepository repository = context.getBean(TestRepository.class);
+		for (int i = 0; i < ROWS; i++) {
+			TestEntity entity = new TestEntity("name-" + i, i);
+			entity.setCategory(transaction.execute(status -> categories.persist(new TestCategory("category"))));
+			id = repository.save(entity).getId();
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void getAllLoadsTheAssociationsOneByOneWithoutAFetchPlan() {
+		assertEquals(1 + ROWS, statementsTouchingCategories(() -> service.getAll().getBody()));
+	}
+
+	@Test
+	void getAllWithPlanLoadsTheAssociationsInTheSameQuery() {
+		assertEquals(1, statementsTouchingCategories(() -> service.getAllWithPlan(FetchPlan.attributes("category")).getBody()));
+	}
+
+	@Test
+	void getByIdLoadsTheAssociationWithASecondQueryWithoutAFetchPlan() {
+		assertEquals(2, statementsTouchingCategories(() -> service.getById(id).getBody()));
+	}
+
+	@Test
+	void getByIdWithPlanLoadsTheAssociationInTheSameQuery() {
+		assertEquals(1, statementsTouchingCategories(() -> service.getByIdWithPlan(id, FetchPlan.attributes("category")).getBody()));
+	}
+
+	@Test
+	void countsThePagedReads() {
+		service.enableStatementCountCheck(1, true);
+
+		StatementCountExceededException error = assertThrows(StatementCountExceededException.class,
+				() -> service.getAll(PageRequest.of(0, 2)));
+
+		assertEquals(2, error.getCount());
+		assertEquals(200, service.getAllWithPlan(FetchPlan.attributes("category")).getStatusCode().value());
+	}
+
+	/**
+	 * Runs the read and touches the categories of the entities it returns in one transaction, as with open-in-view.
+	 */
+	private int statementsTouchingCategories(Supplier<DefaultResponse<TestEntity>> read) {
+		return transaction.execute(status -> {
+			try (StatementCounter.Scope statements = StatementCounter.open()) {
+				for (TestEntity entity : entities(read.get())) {
+					entity.getCategory().getLabel();
+				}
+				return statements.count();
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<TestEntity> entities(DefaultResponse<TestEntity> response) {
+		return (List<TestEntity>) response.getData();
+	}
+
+	static class Categories {
+
+		@PersistenceContext
+		private EntityManager entityManager;
+
+		TestCategory persist(TestCategory category) {
+			entityManager.persist(category);
+			return category;
+		}
+
+	}
+
+}
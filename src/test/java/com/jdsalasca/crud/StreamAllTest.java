@@ -0,0 +1,196 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.jdsalasca.defaultresponse.DefaultResponseStreamWriter.STREAMFORMAT;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestService;
+
+class StreamAllTest {
+
+	private static final int MILLION = 1_000_000;
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private JdbcTemplate jdbc;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		service = context.getBean(TestService.class);
+		jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void streamsMillionRowsWithoutRetainingThem() throws IOException {
+		jdbc.update("INSERT INTO TestEntity (id, name, quantity, version) SELECT X, 'name-' || X, MOD(X, 100), 0 FROM SYSTEM_RANGE(1, " + MILLION + ")");
+		HeapSamplingOutputStream output = new HeapSamplingOutputStream(8 * 1024 * 1024);
+
+		long count = service.streamAll(TestEntity.class, output, STREAMFORMAT.JSON_ARRAY);
+
+		assertEquals(MILLION, count);
+		assertTrue(output.samples > 5, "the heap was sampled while streaming");
+		assertTrue(output.maxGrowth < 64L * 1024 * 1024,
+				"heap grew by " + output.maxGrowth / (1024 * 1024) + " MB while streaming " + output.bytes / (1024 * 1024) + " MB");
+		assertTrue(output.tail().endsWith("\"messageType\":\"success\",\"dataType\":\"LIST\",\"pageableInformation\":null}"), output.tail());
+	}
+
+	@Test
+	void writesTheWholeEnvelopeWhenEveryRowIsRead() throws IOException {
+		insert("a", "b", "c");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		assertEquals(3, service.streamAll(TestEntity.class, output, STREAMFORMAT.JSON_ARRAY));
+
+		JsonNode response = new ObjectMapper().readTree(output.toByteArray());
+		assertEquals(200, response.get("status").asInt());
+		assertEquals(3, response.get("data").size());
+	}
+
+	@Test
+	void reportsErrorWhenReadingFailsHalfway() throws IOException {
+		insert("a", "b", TestEntity.UNREADABLE, "c");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		assertThrows(RuntimeException.class, () -> service.streamAll(TestEntity.class, output, STREAMFORMAT.JSON_ARRAY));
+
+		JsonNode response = new ObjectMapper().readTree(output.toByteArray());
+		assertEquals(500, response.get("status").asInt());
+		assertEquals("error", response.get("messageType").asText());
+		assertEquals(2, response.get("data").size());
+	}
+
+	@Test
+	void leavesDocumentOpenWhenWritingFailsHalfway() {
+		insert("a", "b", "c");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		service.setObjectMapper(new ObjectMapper().registerModule(new SimpleModule().addSerializer(new FailingSerializer("b"))));
+
+		assertThrows(IOException.class, () -> service.streamAll(TestEntity.class, output, STREAMFORMAT.JSON_ARRAY));
+
+		String written = output.toString(StandardCharsets.UTF_8);
+		assertFalse(written.contains("\"status\""), written);
+		assertThrows(JsonProcessingException.class, () -> new ObjectMapper().readTree(written));
+	}
+
+	private void insert(String... names) {
+		for (String name : names) {
+			jdbc.update("INSERT INTO TestEntity (id, name, quantity, version) VALUES (NEXT VALUE FOR TestEntity_SEQ, ?, 1, 0)", name);
+		}
+	}
+
+	/**
+	 * Writes the name of the entities, failing on the given one.
+	 */
+	private static final class FailingSerializer extends StdSerializer<TestEntity> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String failingName;
+
+		FailingSerializer(String failingName) {
+			super(TestEntity.class);
+			this.failingName = failingName;
+		}
+
+		@Override
+		public void serialize(TestEntity value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+			if (failingName.equals(value.getName())) {
+				throw new IllegalStateException(value.getName() + " cannot be written");
+			}
+			generator.writeString(value.getName());
+		}
+
+	}
+
+	/**
+	 * Discards what is written, sampling the used heap after a collection every {@code interval} bytes.
+	 */
+	private static final class HeapSamplingOutputStream extends OutputStream {
+
+		private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		private final long interval;
+		private final long baseline;
+		private final byte[] tail = new byte[256];
+		private long bytes;
+		private long nextSample;
+		private long maxGrowth;
+		private int samples;
+
+		HeapSamplingOutputStream(long interval) {
+			this.interval = interval;
+			this.nextSample = interval;
+			this.baseline = usedHeap();
+		}
+
+		@Override
+		public void write(int b) {
+			tail[(int) (bytes % tail.length)] = (byte) b;
+			count(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (int i = Math.max(0, len - tail.length); i < len; i++) {
+				tail[(int) ((bytes + i) % tail.length)] = b[off + i];
+			}
+			count(len);
+		}
+
+		private void count(int len) {
+			bytes += len;
+			if (bytes >= nextSample) {
+				nextSample += interval;
+				samples++;
+				maxGrowth = Math.max(maxGrowth, usedHeap() - baseline);
+			}
+		}
+
+		private long usedHeap() {
+			System.gc();
+			return memory.getHeapMemoryUsage().getUsed();
+		}
+
+		String tail() {
+			int length = (int) Math.min(bytes, tail.length);
+			byte[] last = new byte[length];
+			for (int i = 0; i < length; i++) {
+				last[i] = tail[(int) ((bytes - length + i) % tail.length)];
+			}
+			return new String(last, StandardCharsets.UTF_8);
+		}
+
+	}
+
+}
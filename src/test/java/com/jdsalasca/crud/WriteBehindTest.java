@@ -0,0 +1,236 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import com.jdsalasca.crud.mapping.CompiledEntityMapper;
+import com.jdsalasca.crud.mapping.EntityMapper;
+import com.jdsalasca.crud.metrics.CrudOperation;
+import com.jdsalasca.crud.metrics.CrudOutcome;
+import com.jdsalasca.crud.metrics.InMemoryCrudMetrics;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+class WriteBehindTest {
+
+	private static final Duration LONG = Duration.ofHours(1);
+
+	private AnnotationConfigApplicationContext context;
+	private TestRepository repository;
+	private DepthMetrics metrics;
+	private final List<TestService> services = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		repository = context.getBean(TestRepository.class);
+		metrics = new DepthMetrics();
+	}
+
+	@AfterEach
+	void tearDown() {
+		services.forEach(TestService::destroy);
+		context.close();
+	}
+
+	@Test
+	void acceptsSavesAndWritesThemInBatchesOfFlushSize() throws InterruptedException {
+		TestService service = service(null);
+		service.enableWriteBehind(10, 2, LONG, Duration.ZERO);
+
+		assertEquals(202, save(service, "a").getStatusCode().value());
+		assertEquals(202, save(service, "b").getStatusCode().value());
+		assertEquals(202, save(service, "c").getStatusCode().value());
+
+		waitFor(() -> flushes(CrudOutcome.OK) == 1);
+		assertEquals(2, repository.count());
+		assertEquals(3, metrics.stats(TestEntity.class, CrudOperation.SAVE, CrudOutcome.OK).getCount());
+	}
+
+	@Test
+	void writesAPartialBatchOnceTheIntervalPasses() throws InterruptedException {
+		TestService service = service(null);
+		service.enableWriteBehind(10, 100, Duration.ofMillis(50), Duration.ZERO);
+
+		save(service, "a");
+
+		waitFor(() -> flushes(CrudOutcome.OK) == 1);
+		assertEquals(1, repository.count());
+	}
+
+	@Test
+	void answers429WhenFullWithoutWaiting() throws InterruptedException {
+		BlockedMapper blocked = new BlockedMapper(context.getBean(ModelMapper.class));
+		TestService service = service(blocked);
+		service.enableWriteBehind(1, 1, LONG, Duration.ZERO);
+		fill(service, blocked);
+
+		assertEquals(429, save(service, "c").getStatusCode().value());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.SAVE, CrudOutcome.REJECTED).getCount());
+		blocked.release.countDown();
+	}
+
+	@Test
+	void answers503AfterWaitingOrOnceClosed() throws InterruptedException {
+		BlockedMapper blocked = new BlockedMapper(context.getBean(ModelMapper.class));
+		TestService service = service(blocked);
+		service.enableWriteBehind(1, 1, LONG, Duration.ofMillis(50));
+		fill(service, blocked);
+
+		assertEquals(503, save(service, "c").getStatusCode().value());
+		blocked.release.countDown();
+		service.destroy();
+		assertEquals(503, save(service, "d").getStatusCode().value());
+		assertEquals(2, repository.count());
+	}
+
+	@Test
+	void destroyWritesTheQueuedSaves() {
+		TestService service = service(null);
+		service.enableWriteBehind(10, 100, Duration.ofMillis(200), Duration.ZERO);
+		for (String name : List.of("a", "b", "c")) {
+			save(service, name);
+		}
+
+		service.destroy();
+
+		assertEquals(3, repository.count());
+		assertEquals(0, metrics.depth());
+	}
+
+	@Test
+	void savesABatchOneByOneWhenAnItemViolatesAConstraint() throws InterruptedException {
+		repository.save(new TestEntity("b", 1));
+		TestService service = service(null);
+		service.enableWriteBehind(10, 3, LONG, Duration.ZERO);
+
+		for (String name : List.of("a", "b", "c")) {
+			save(service, name);
+		}
+
+		waitFor(() -> flushes(CrudOutcome.ERROR) == 1);
+		assertEquals(3, repository.count());
+		assertEquals(2, metrics.stats(TestEntity.class, CrudOperation.WRITE_BEHIND_FLUSH, CrudOutcome.ERROR).getMaxResultSize());
+	}
+
+	@Test
+	void reportsTheDepthOfTheCurrentQueue() throws InterruptedException {
+		BlockedMapper blocked = new BlockedMapper(context.getBean(ModelMapper.class));
+		TestService service = service(blocked);
+		service.enableWriteBehind(1, 1, LONG, Duration.ZERO);
+		service.enableWriteBehind(1, 1, LONG, Duration.ZERO);
+		fill(service, blocked);
+
+		assertEquals(1, metrics.gauges.size());
+		assertEquals(1, metrics.depth());
+		blocked.release.countDown();
+	}
+
+	/**
+	 * Queues "a", which the flusher takes and blocks on, and "b", which fills the queue of one.
+	 */
+	private void fill(TestService service, BlockedMapper blocked) throws InterruptedException {
+		assertEquals(202, save(service, "a").getStatusCode().value());
+		assertTrue(blocked.mapping.await(5, TimeUnit.SECONDS));
+		assertEquals(202, save(service, "b").getStatusCode().value());
+	}
+
+	private long flushes(CrudOutcome outcome) {
+		return (metrics.stats(TestEntity.class, CrudOperation.WRITE_BEHIND_FLUSH, outcome) != null)
+				? metrics.stats(TestEntity.class, CrudOperation.WRITE_BEHIND_FLUSH, outcome).getCount() : 0;
+	}
+
+	private static ResponseEntity<DefaultResponse<TestEntity>> save(TestService service, String name) {
+		TestDto dto = new TestDto(name, 1);
+		return service.save(dto, new BeanPropertyBindingResult(dto, "dto"), TestEntity.class);
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "condition not met in time");
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * A service with the given mapper, or the default one when null.
+	 */
+	private TestService service(EntityMapper<TestDto, TestEntity> mapper) {
+		TestService service = new TestService(repository, context.getBean(ModelMapper.class)) {
+			@Override
+			protected EntityMapper<TestDto, TestEntity> getEntityMapper() {
+				return (mapper != null) ? mapper : super.getEntityMapper();
+			}
+		};
+		context.getAutowireCapableBeanFactory().autowireBean(service);
+		service.setCrudMetrics(metrics);
+		service.setWriteBehindDrainTimeout(Duration.ofSeconds(5));
+		services.add(service);
+		return service;
+	}
+
+	/**
+	 * Blocks the first mapping of a DTO to an entity, the flusher being the only caller, until released.
+	 */
+	private static final class BlockedMapper extends CompiledEntityMapper<TestDto, TestEntity> {
+
+		private final CountDownLatch mapping = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		BlockedMapper(ModelMapper modelMapper) {
+			super(modelMapper);
+		}
+
+		@Override
+		public TestEntity toEntity(TestDto dto, Class<TestEntity> entityClass) {
+			mapping.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.toEntity(dto, entityClass);
+		}
+
+	}
+
+	/**
+	 * Keeps the write-behind depth gauges registered, as a meter registry would.
+	 */
+	private static final class DepthMetrics extends InMemoryCrudMetrics {
+
+		private final List<IntSupplier> gauges = new ArrayList<>();
+
+		@Override
+		public void monitorWriteBehindDepth(Class<?> entityClass, IntSupplier depth) {
+			gauges.add(depth);
+		}
+
+		int depth() {
+			return gauges.get(0).getAsInt();
+		}
+
+	}
+
+}
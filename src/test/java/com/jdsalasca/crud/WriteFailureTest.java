@@ -0,0 +1,122 @@
+package com.jdsalasca.crud;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.function.BiConsumer;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.MappingException;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.spi.ErrorMessage;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import com.jdsalasca.crud.mapping.CompiledEntityMapper;
+import com.jdsalasca.crud.mapping.EntityMapper;
+import com.jdsalasca.crud.metrics.CrudOperation;
+import com.jdsalasca.crud.metrics.CrudOutcome;
+import com.jdsalasca.crud.metrics.InMemoryCrudMetrics;
+import com.jdsalasca.defaultresponse.DefaultResponse;
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+class WriteFailureTest {
+
+	private AnnotationConfigApplicationContext context;
+	private InMemoryCrudMetrics metrics;
+	private Long id;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		metrics = new InMemoryCrudMetrics();
+		id = context.getBean(TestRepository.class).save(new TestEntity("a", 1)).getId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void answersViolatedConstraintsWith400() {
+		TestService service = service((dto, entity) -> { });
+		TestDto dto = new TestDto("a", 2);
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.save(dto, new BeanPropertyBindingResult(dto, "dto"), TestEntity.class);
+
+		assertEquals(400, response.getStatusCode().value());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.SAVE, CrudOutcome.INTEGRITY_VIOLATION).getCount());
+	}
+
+	@Test
+	void answersConcurrentModificationsWith409() {
+		JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+		TestService service = service((dto, entity) -> jdbc.update("UPDATE TestEntity SET version = version + 1 WHERE id = ?", id));
+		TestDto dto = new TestDto("b", 2);
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.update(id, dto, new BeanPropertyBindingResult(dto, "dto"), TestEntity.class);
+
+		assertEquals(409, response.getStatusCode().value());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.CONFLICT).getCount());
+	}
+
+	@Test
+	void answersMappingFailuresWith400() {
+		TestService service = service((dto, entity) -> {
+			throw new MappingException(Collections.singletonList(new ErrorMessage("quantity cannot be converted")));
+		});
+		TestDto dto = new TestDto("b", 2);
+
+		ResponseEntity<DefaultResponse<TestEntity>> response = service.update(id, dto, new BeanPropertyBindingResult(dto, "dto"), TestEntity.class);
+
+		assertEquals(400, response.getStatusCode().value());
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.MAPPING_FAILURE).getCount());
+	}
+
+	@Test
+	void throwsUnexpectedFailures() {
+		TestService service = service((dto, entity) -> {
+			throw new IllegalStateException("mapper is broken");
+		});
+		TestDto dto = new TestDto("b", 2);
+
+		assertThrows(IllegalStateException.class, () -> service.update(id, dto, new BeanPropertyBindingResult(dto, "dto"), TestEntity.class));
+		assertEquals(1, metrics.stats(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.ERROR).getCount());
+	}
+
+	/**
+	 * A service whose mapper runs {@code onCopy} after copying a DTO into an entity.
+	 */
+	private TestService service(BiConsumer<TestDto, TestEntity> onCopy) {
+		ModelMapper modelMapper = context.getBean(ModelMapper.class);
+		EntityMapper<TestDto, TestEntity> mapper = new CompiledEntityMapper<TestDto, TestEntity>(modelMapper) {
+			@Override
+			public void copy(TestDto dto, TestEntity entity) {
+				super.copy(dto, entity);
+				onCopy.accept(dto, entity);
+			}
+		};
+		TestService service = new TestService(context.getBean(TestRepository.class), modelMapper) {
+			@Override
+			protected EntityMapper<TestDto, TestEntity> getEntityMapper() {
+				return mapper;
+			}
+		};
+		context.getAutowireCapableBeanFactory().autowireBean(service);
+		service.setCrudMetrics(metrics);
+		return service;
+	}
+
+}
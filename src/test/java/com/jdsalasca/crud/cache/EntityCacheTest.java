@@ -0,0 +1,50 @@
+package com.jdsalasca.crud.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class EntityCacheTest {
+
+	private final EntityCache<Long, String> cache = new EntityCache<>(100, Duration.ofMinutes(1));
+
+	@Test
+	void storesReadWhenNothingWasWrittenMeanwhile() {
+		long generation = cache.generation(1L);
+
+		assertTrue(cache.putIfCurrent(1L, "read", generation));
+		assertEquals("read", cache.get(1L));
+	}
+
+	@Test
+	void dropsReadStartedBeforeAnEviction() {
+		long generation = cache.generation(1L);
+		cache.evict(1L);
+
+		assertFalse(cache.putIfCurrent(1L, "stale", generation));
+		assertNull(cache.get(1L));
+	}
+
+	@Test
+	void keepsWriteMadeWhileReading() {
+		long generation = cache.generation(1L);
+		cache.put(1L, "written");
+
+		assertFalse(cache.putIfCurrent(1L, "stale", generation));
+		assertEquals("written", cache.get(1L));
+	}
+
+	@Test
+	void dropsReadStartedBeforeAClear() {
+		long generation = cache.generation(1L);
+		cache.clear();
+
+		assertFalse(cache.putIfCurrent(1L, "stale", generation));
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.jdsalasca.crud.conditional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestRepository;
+import com.jdsalasca.support.TestService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+class EntityTagTest {
+
+	private static final String A = UUID.randomUUID().toString();
+	private static final String B = UUID.randomUUID().toString();
+	private static final String C = UUID.randomUUID().toString();
+
+	private AnnotationConfigApplicationContext context;
+	private EntityTag entityTag;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class);
+		entityTag = EntityTag.of(context.getBean(EntityManagerFactory.class).getMetamodel().entity(TestEntity.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void rowTagChangesWhenARowIsReplacedByAnother() {
+		String before = entityTag.forRows(rows(A, 0L, B, 0L));
+
+		assertNotEquals(before, entityTag.forRows(rows(A, 0L, C, 0L)));
+		assertNotEquals(before, entityTag.forRows(rows(A, 1L, B, 0L)));
+		assertEquals(before, entityTag.forRows(rows(B, 0L, A, 0L)));
+		assertNull(entityTag.forRows(rows()));
+	}
+
+	@Test
+	void listTagOfNumericIdsChangesWhenARowIsDeletedAndAnotherInserted() {
+		TestService service = context.getBean(TestService.class);
+		TestRepository repository = context.getBean(TestRepository.class);
+		repository.save(new TestEntity("a", 1));
+		TestEntity deleted = repository.save(new TestEntity("b", 1));
+		String before = service.getAllIfNoneMatch(null).getHeaders().getETag();
+
+		repository.delete(deleted);
+		repository.save(new TestEntity("c", 1));
+
+		assertTrue(entityTag.aggregatesRows());
+		assertNotEquals(before, service.getAllIfNoneMatch(null).getHeaders().getETag());
+		assertEquals(304, service.getAllIfNoneMatch(service.getAllIfNoneMatch(null).getHeaders().getETag()).getStatusCode().value());
+	}
+
+	private static Iterator<Object[]> rows(Object... values) {
+		Object[][] rows = new Object[values.length / 2][];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = new Object[] { values[2 * i], values[2 * i + 1] };
+		}
+		return Arrays.asList(rows).iterator();
+	}
+
+}
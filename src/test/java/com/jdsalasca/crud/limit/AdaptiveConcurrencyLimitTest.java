@@ -0,0 +1,97 @@
+package com.jdsalasca.crud.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Simulates rounds of clients against a resource: each round takes every slot the limit allows, then
+ * the calls complete one by one, slow when more calls were in flight than the resource keeps up with.
+ */
+class AdaptiveConcurrencyLimitTest {
+
+	private static final long THRESHOLD_NANOS = Duration.ofMillis(100).toNanos();
+	private static final long FAST = THRESHOLD_NANOS / 10;
+	private static final long SLOW = THRESHOLD_NANOS * 10;
+
+	private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 200, Duration.ofNanos(THRESHOLD_NANOS), 0.9);
+
+	@Test
+	void decreasesOncePerWindowOfSlowCalls() {
+		assertEquals(50, round(SLOW));
+
+		assertEquals(45, limit.limit());
+		assertEquals(45, round(SLOW));
+		assertEquals(40, limit.limit());
+	}
+
+	@Test
+	void shrinksOneStepPerRoundWhileEveryCallIsSlow() {
+		int previous = limit.limit();
+		for (int i = 0; i < 100; i++) {
+			round(SLOW);
+			assertTrue(limit.limit() >= Math.max(1, (int) (previous * 0.9)), "round " + i + ": " + limit.limit());
+			previous = limit.limit();
+		}
+
+		assertEquals(1, limit.limit());
+	}
+
+	@Test
+	void growsByOnePerWindowWhileEveryCallIsFast() {
+		int previous = limit.limit();
+		for (int i = 0; i < 1000; i++) {
+			round(FAST);
+			assertTrue(limit.limit() - previous <= 1, "round " + i + ": " + previous + " to " + limit.limit());
+			previous = limit.limit();
+		}
+
+		assertEquals(200, limit.limit());
+	}
+
+	@Test
+	void settlesAroundTheCapacityOfTheResource() {
+		int capacity = 30;
+		int lowest = Integer.MAX_VALUE;
+		int highest = 0;
+		for (int i = 0; i < 2000; i++) {
+			int calls = acquireAll();
+			releaseAll(calls, (calls > capacity) ? SLOW : FAST);
+			if (i >= 500) {
+				lowest = Math.min(lowest, limit.limit());
+				highest = Math.max(highest, limit.limit());
+			}
+		}
+
+		assertTrue(lowest >= (int) (capacity * 0.9) - 1, "lowest limit " + lowest);
+		assertTrue(highest <= capacity + 1, "highest limit " + highest);
+		assertEquals(0, limit.inFlight());
+	}
+
+	/**
+	 * @return the number of calls of the round
+	 */
+	private int round(long latencyNanos) {
+		int calls = acquireAll();
+		releaseAll(calls, latencyNanos);
+		return calls;
+	}
+
+	private int acquireAll() {
+		int calls = 0;
+		while (limit.tryAcquire()) {
+			calls++;
+		}
+		return calls;
+	}
+
+	private void releaseAll(int calls, long latencyNanos) {
+		for (int i = 0; i < calls; i++) {
+			limit.release(latencyNanos, false);
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.jdsalasca.crud.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BatchEntityLoaderTest {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void completesEachCallerWithItsEntityWhateverTheOrderFound() throws Exception {
+		BatchEntityLoader<Long, String> loader = loader(ids -> {
+			List<String> found = new ArrayList<>();
+			ids.forEach(id -> found.add("entity-" + id));
+			Collections.reverse(found);
+			return found;
+		}, Duration.ofSeconds(5));
+
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (long id = 1; id <= 4; id++) {
+			futures.add(loader.load(id));
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			assertEquals("entity-" + (i + 1), futures.get(i).get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(List.of(List.of(1L, 2L, 3L, 4L)), batches);
+	}
+
+	@Test
+	void completesMissingIdsWithNull() throws Exception {
+		BatchEntityLoader<Long, String> loader = loader(ids -> List.of("entity-2"), Duration.ofSeconds(5));
+
+		CompletableFuture<String> missing = loader.load(1L);
+		CompletableFuture<String> present = loader.load(2L);
+
+		assertNull(missing.get(5, TimeUnit.SECONDS));
+		assertEquals("entity-2", present.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void sharesTheLoadOfAnIdOnlyWhileItsBatchCollects() throws Exception {
+		BatchEntityLoader<Long, String> loader = loader(ids -> {
+			await();
+			return List.of("entity-" + ids.get(0));
+		}, Duration.ofSeconds(5));
+
+		CompletableFuture<String> first = loader.load(1L);
+		assertSame(first, loader.load(1L));
+		while (batches.isEmpty()) {
+			Thread.sleep(1);
+		}
+		CompletableFuture<String> afterDispatch = loader.load(1L);
+		release.countDown();
+
+		assertNotSame(first, afterDispatch);
+		assertEquals("entity-1", first.get(5, TimeUnit.SECONDS));
+		assertEquals("entity-1", afterDispatch.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loader.deduplicatedCount());
+		assertEquals(2, batches.size());
+	}
+
+	@Test
+	void failsTheCallersWhenTheBatchTakesLongerThanTheTimeout() throws Exception {
+		BatchEntityLoader<Long, String> loader = loader(ids -> {
+			await();
+			return List.of("entity-1");
+		}, Duration.ofMillis(50));
+
+		CompletableFuture<String> future = loader.load(1L);
+
+		ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(TimeoutException.class, error.getCause());
+		release.countDown();
+		CompletableFuture<String> retry = loader.load(1L);
+		assertNotSame(future, retry);
+		assertEquals("entity-1", retry.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void failsTheCallersWhenTheFinderFails() {
+		BatchEntityLoader<Long, String> loader = loader(ids -> {
+			throw new IllegalStateException("database down");
+		}, Duration.ofSeconds(5));
+
+		CompletableFuture<String> future = loader.load(1L);
+
+		ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, error.getCause());
+	}
+
+	@Test
+	void sendsTheBatchOnceItIsFull() throws Exception {
+		BatchEntityLoader<Long, String> loader = new BatchEntityLoader<>(this::record, entity -> Long.valueOf(entity.substring(7)),
+				Duration.ofMinutes(1), 2, Duration.ofSeconds(5), executor);
+
+		CompletableFuture<String> first = loader.load(1L);
+		CompletableFuture<String> second = loader.load(2L);
+
+		assertEquals("entity-1", first.get(5, TimeUnit.SECONDS));
+		assertEquals("entity-2", second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loader.batchCount());
+		assertEquals(List.of(List.of(1L, 2L)), batches);
+	}
+
+	private BatchEntityLoader<Long, String> loader(Function<List<Long>, List<String>> finder, Duration timeout) {
+		return new BatchEntityLoader<>(ids -> {
+			batches.add(new ArrayList<>(ids));
+			return finder.apply(ids);
+		}, entity -> Long.valueOf(entity.substring(7)), Duration.ofMillis(20), 100, timeout, executor);
+	}
+
+	private List<String> record(List<Long> ids) {
+		batches.add(new ArrayList<>(ids));
+		List<String> found = new ArrayList<>();
+		ids.forEach(id -> found.add("entity-" + id));
+		return found;
+	}
+
+	private void await() {
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
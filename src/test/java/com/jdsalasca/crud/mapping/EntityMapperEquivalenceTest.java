@@ -0,0 +1,185 @@
+package com.jdsalasca.crud.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.config.Configuration.AccessLevel;
+import org.modelmapper.convention.MatchingStrategies;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Maps the same DTOs with a {@link CompiledEntityMapper} and a {@link ModelMapperEntityMapper}, each one over its own
+ * ModelMapper with the same configuration, and expects the same entities, whether the pair is compiled or falls back.
+ */
+class EntityMapperEquivalenceTest {
+
+	@Test
+	void compilesMatchingPropertiesOfValueTypes() {
+		ValueDto dto = new ValueDto("a", 3, 7L, true, new BigDecimal("1.50"), LocalDate.of(2024, 2, 29), Colour.RED);
+
+		assertSameMapping(modelMapper -> { }, dto, true);
+	}
+
+	@Test
+	void copiesNullsUnlessSkipNullIsEnabled() {
+		ValueDto dto = new ValueDto(null, null, 7L, false, null, null, null);
+
+		assertSameMapping(modelMapper -> { }, dto, true);
+		assertSameMapping(modelMapper -> modelMapper.getConfiguration().setSkipNullEnabled(true), dto, true);
+	}
+
+	@Test
+	void fallsBackBetweenPrimitivesAndWrappers() {
+		assertSameMapping(modelMapper -> { }, new PrimitiveDto(3, 7L), false);
+		assertSameMapping(modelMapper -> { }, new BoxedDto(3, 7L), false);
+		assertSameMapping(modelMapper -> { }, new BoxedDto(null, null), false);
+	}
+
+	@Test
+	void fallsBackWithAnExplicitTypeMap() {
+		ValueDto dto = new ValueDto("a", 3, 7L, true, null, null, null);
+
+		assertSameMapping(modelMapper -> modelMapper.createTypeMap(ValueDto.class, Target.class)
+				.addMappings(mapping -> mapping.skip(Target::setName)), dto, false);
+	}
+
+	@Test
+	void fallsBackWithFieldMatching() {
+		ValueDto dto = new ValueDto("a", 3, 7L, true, null, null, null);
+
+		assertSameMapping(modelMapper -> modelMapper.getConfiguration().setFieldMatchingEnabled(true)
+				.setFieldAccessLevel(AccessLevel.PRIVATE), dto, false);
+	}
+
+	@Test
+	void fallsBackWithLooseMatching() {
+		assertSameMapping(modelMapper -> modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.LOOSE),
+				new ValueDto("a", 3, 7L, true, null, null, null), false);
+	}
+
+	@Test
+	void fallsBackWithIncompatibleOrUnknownProperties() {
+		assertSameMapping(modelMapper -> { }, new TextDto("a", "3"), false);
+		assertSameMapping(modelMapper -> { }, new UnknownDto("a", "green"), false);
+	}
+
+	/**
+	 * Maps the DTO into a new entity and into an entity with every property set, with both mappers.
+	 */
+	private static <K> void assertSameMapping(Consumer<ModelMapper> configuration, K dto, boolean compiled) {
+		ModelMapper compiledModelMapper = new ModelMapper();
+		configuration.accept(compiledModelMapper);
+		ModelMapper referenceModelMapper = new ModelMapper();
+		configuration.accept(referenceModelMapper);
+		CompiledEntityMapper<K, Target> mapper = new CompiledEntityMapper<>(compiledModelMapper);
+		ModelMapperEntityMapper<K, Target> reference = new ModelMapperEntityMapper<>(referenceModelMapper);
+
+		assertEquals(compiled, mapper.isCompiled(dto.getClass(), Target.class));
+		assertEquals(reference.toEntity(dto, Target.class), mapper.toEntity(dto, Target.class));
+		Target expected = existing();
+		Target actual = existing();
+		reference.copy(dto, expected);
+		mapper.copy(dto, actual);
+		assertEquals(expected, actual);
+	}
+
+	private static Target existing() {
+		Target target = new Target();
+		target.setId(1L);
+		target.setName("old");
+		target.setQuantity(1);
+		target.setTotal(2L);
+		target.setActive(true);
+		target.setPrice(BigDecimal.TEN);
+		target.setDay(LocalDate.of(2000, 1, 1));
+		target.setColour(Colour.BLUE);
+		target.setCount(5);
+		target.setSize(6L);
+		return target;
+	}
+
+	public enum Colour {
+		RED, BLUE
+	}
+
+	@Data
+	@NoArgsConstructor
+	public static class Target {
+
+		private Long id;
+		private String name;
+		private Integer quantity;
+		private long total;
+		private boolean active;
+		private BigDecimal price;
+		private LocalDate day;
+		private Colour colour;
+		private Integer count;
+		private long size;
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class ValueDto {
+
+		private String name;
+		private Integer quantity;
+		private long total;
+		private boolean active;
+		private BigDecimal price;
+		private LocalDate day;
+		private Colour colour;
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class PrimitiveDto {
+
+		private int count;
+		private long size;
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class BoxedDto {
+
+		private Integer quantity;
+		private Long total;
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class TextDto {
+
+		private String name;
+		private String quantity;
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class UnknownDto {
+
+		private String name;
+		private String shade;
+
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.jdsalasca.crud.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.jdsalasca.support.TestEntity;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MicrometerCrudMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final MicrometerCrudMetrics metrics = new MicrometerCrudMetrics(registry);
+
+	@Test
+	void recordsTheTimeAndSizeTaggedWithEntityOperationAndOutcome() {
+		metrics.record(TestEntity.class, CrudOperation.GET_ALL, CrudOutcome.OK, TimeUnit.MILLISECONDS.toNanos(3), 10);
+		metrics.record(TestEntity.class, CrudOperation.GET_ALL, CrudOutcome.OK, TimeUnit.MILLISECONDS.toNanos(5), 20);
+		metrics.record(TestEntity.class, CrudOperation.GET_BY_ID, CrudOutcome.NOT_FOUND, TimeUnit.MILLISECONDS.toNanos(1), 0);
+
+		Timer getAll = registry.get(MicrometerCrudMetrics.OPERATION_METER)
+				.tags("entity", "TestEntity", "operation", "getAll", "outcome", CrudOutcome.OK.value()).timer();
+		DistributionSummary getAllSize = registry.get(MicrometerCrudMetrics.RESULT_SIZE_METER)
+				.tags("entity", "TestEntity", "operation", "getAll", "outcome", CrudOutcome.OK.value()).summary();
+		Timer getById = registry.get(MicrometerCrudMetrics.OPERATION_METER)
+				.tags("entity", "TestEntity", "operation", "getById", "outcome", CrudOutcome.NOT_FOUND.value()).timer();
+
+		assertEquals(2, getAll.count());
+		assertEquals(8, getAll.totalTime(TimeUnit.MILLISECONDS), 0.001);
+		assertEquals(30, getAllSize.totalAmount(), 0.001);
+		assertEquals(20, getAllSize.max(), 0.001);
+		assertEquals(1, getById.count());
+		assertEquals(2, registry.find(MicrometerCrudMetrics.OPERATION_METER).timers().size());
+	}
+
+	@Test
+	void publishesThePercentilesOfTheTimer() {
+		for (int millis = 1; millis <= 100; millis++) {
+			metrics.record(TestEntity.class, CrudOperation.SAVE, CrudOutcome.OK, TimeUnit.MILLISECONDS.toNanos(millis), 1);
+		}
+
+		ValueAtPercentile[] percentiles = registry.get(MicrometerCrudMetrics.OPERATION_METER).tag("operation", "save").timer()
+				.takeSnapshot().percentileValues();
+
+		Set<Double> published = Arrays.stream(percentiles).map(ValueAtPercentile::percentile).collect(Collectors.toSet());
+		assertEquals(Set.of(0.5, 0.95, 0.99), published);
+		for (ValueAtPercentile percentile : percentiles) {
+			assertEquals(percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS), 5);
+		}
+	}
+
+	@Test
+	void reusesTheMetersOfACombinationOfTags() {
+		metrics.record(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.CONFLICT, 1, 0);
+		Timer first = registry.get(MicrometerCrudMetrics.OPERATION_METER).tag("outcome", CrudOutcome.CONFLICT.value()).timer();
+
+		metrics.record(TestEntity.class, CrudOperation.UPDATE, CrudOutcome.CONFLICT, 1, 0);
+
+		assertSame(first, registry.get(MicrometerCrudMetrics.OPERATION_METER).tag("outcome", CrudOutcome.CONFLICT.value()).timer());
+		assertEquals(2, first.count());
+	}
+
+	@Test
+	void readsTheGaugesFromTheirSuppliers() {
+		AtomicInteger depth = new AtomicInteger(3);
+		AtomicInteger limit = new AtomicInteger(8);
+
+		metrics.monitorWriteBehindDepth(TestEntity.class, depth::get);
+		metrics.monitorConcurrencyLimit(TestEntity.class, CrudOperation.SAVE, limit::get);
+		depth.set(4);
+		limit.set(9);
+
+		Gauge depthGauge = registry.get(MicrometerCrudMetrics.WRITE_BEHIND_DEPTH_METER).tag("entity", "TestEntity").gauge();
+		Gauge limitGauge = registry.get(MicrometerCrudMetrics.CONCURRENCY_LIMIT_METER)
+				.tags("entity", "TestEntity", "operation", "save").gauge();
+		assertEquals(4, depthGauge.value(), 0);
+		assertNull(depthGauge.getId().getTag("operation"));
+		assertNull(depthGauge.getId().getTag("outcome"));
+		assertEquals(9, limitGauge.value(), 0);
+		assertNotNull(limitGauge.getId().getTag("operation"));
+		assertNull(limitGauge.getId().getTag("outcome"));
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.jdsalasca.crud.paging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class CursorCodecTest {
+
+	@Test
+	void decodesEveryKeyTypeInItsOrder() {
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("string", "ñandú/?&=");
+		keys.put("long", Long.MIN_VALUE);
+		keys.put("integer", 42);
+		keys.put("short", (short) -7);
+		keys.put("double", 0.1);
+		keys.put("float", 1.5f);
+		keys.put("boolean", true);
+		keys.put("bigDecimal", new BigDecimal("12345678901234567890.000001"));
+		keys.put("bigInteger", new BigInteger("-123456789012345678901234567890"));
+		keys.put("uuid", UUID.fromString("123e4567-e89b-12d3-a456-426614174000"));
+		keys.put("localDate", LocalDate.of(2024, 2, 29));
+		keys.put("localDateTime", LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_000_000));
+		keys.put("instant", Instant.ofEpochSecond(1_700_000_000L, 5));
+		keys.put("null", null);
+
+		String cursor = CursorCodec.encode(keys);
+
+		assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+		assertEquals(keys, CursorCodec.decode(cursor));
+		assertEquals(keys.keySet().toString(), CursorCodec.decode(cursor).keySet().toString());
+	}
+
+	@Test
+	void rejectsUnsupportedKeyTypes() {
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.encode(Collections.singletonMap("date", new Date())));
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		String valid = CursorCodec.encode(Collections.singletonMap("id", 1L));
+		byte[] bytes = Base64.getUrlDecoder().decode(valid);
+		byte[] otherVersion = bytes.clone();
+		otherVersion[0] = 2;
+		byte[] trailing = Arrays.copyOf(bytes, bytes.length + 1);
+		byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+		byte[] unknownType = bytes.clone();
+		unknownType[bytes.length - 9] = 99;
+
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(""));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(encode(otherVersion)));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(encode(trailing)));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(encode(truncated)));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(encode(unknownType)));
+	}
+
+	private static String encode(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+}
@@ -0,0 +1,164 @@
+package com.jdsalasca.crud.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import com.jdsalasca.defaultresponse.DefaultResponseStreamWriter.STREAMFORMAT;
+import com.jdsalasca.support.TestDto;
+import com.jdsalasca.support.TestEntity;
+import com.jdsalasca.support.TestJpaConfig;
+import com.jdsalasca.support.TestService;
+
+/**
+ * Runs {@link TestService} on a primary and a replica H2 database behind {@link ReadReplicaRoutingDataSource#of},
+ * with the {@link org.springframework.orm.jpa.JpaTransactionManager} of {@link TestJpaConfig}, counting the
+ * connections each database hands out.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+	private static final AtomicInteger DATABASES = new AtomicInteger();
+
+	private AnnotationConfigApplicationContext context;
+	private TestService service;
+	private CountingDataSource primary;
+	private CountingDataSource replica;
+	private Long id;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext(TestJpaConfig.class, RoutingConfig.class);
+		service = context.getBean(TestService.class);
+		primary = context.getBean("primary", CountingDataSource.class);
+		replica = context.getBean("replica", CountingDataSource.class);
+		JdbcTemplate jdbc = new JdbcTemplate(primary);
+		jdbc.update("INSERT INTO TestEntity (id, name, quantity, version) VALUES (NEXT VALUE FOR TestEntity_SEQ, 'a', 1, 0)");
+		id = jdbc.queryForObject("SELECT id FROM TestEntity", Long.class);
+		replicate();
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void readsFromTheReplica() throws IOException {
+		assertEquals(200, service.getAll().getStatusCode().value());
+		assertEquals(200, service.getById(id).getStatusCode().value());
+		assertEquals(1, service.streamAll(TestEntity.class, new ByteArrayOutputStream(), STREAMFORMAT.JSON_ARRAY));
+
+		assertEquals(0, primary.connections.get());
+		assertEquals(3, replica.connections.get());
+	}
+
+	@Test
+	void writesToThePrimary() {
+		TestDto created = new TestDto("b", 2);
+		TestDto updated = new TestDto("c", 3);
+
+		assertEquals(200, service.save(created, new BeanPropertyBindingResult(created, "dto"), TestEntity.class).getStatusCode().value());
+		assertEquals(200, service.update(id, updated, new BeanPropertyBindingResult(updated, "dto"), TestEntity.class).getStatusCode().value());
+		assertEquals(200, service.patch(id, new TestDto(null, 4), TestEntity.class).getStatusCode().value());
+		assertEquals(200, service.deleteById(id).getStatusCode().value());
+		assertEquals(200, service.deleteAllById(Collections.singletonList(id + 1)).getStatusCode().value());
+
+		assertEquals(0, replica.connections.get());
+		assertEquals(5, primary.connections.get());
+	}
+
+	@Test
+	void readsInsideAReadWriteTransactionFromThePrimary() {
+		TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+		transaction.executeWithoutResult(status -> {
+			TestDto dto = new TestDto("b", 2);
+			service.save(dto, new BeanPropertyBindingResult(dto, "dto"), TestEntity.class);
+			assertEquals(2, ((List<?>) service.getAll().getBody().getData()).size());
+			assertEquals(200, service.getById(id).getStatusCode().value());
+		});
+
+		assertEquals(0, replica.connections.get());
+		assertEquals(1, primary.connections.get());
+	}
+
+	/**
+	 * Copies the schema and the rows of the primary to the replica, as replication would.
+	 */
+	private void replicate() {
+		JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+		replicaJdbc.execute("DROP ALL OBJECTS");
+		for (String statement : new JdbcTemplate(primary).queryForList("SCRIPT", String.class)) {
+			replicaJdbc.execute(statement);
+		}
+		primary.connections.set(0);
+		replica.connections.set(0);
+	}
+
+	/**
+	 * Counts the connections taken from a data source.
+	 */
+	static final class CountingDataSource extends DelegatingDataSource {
+
+		private final AtomicInteger connections = new AtomicInteger();
+
+		CountingDataSource(DataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			connections.incrementAndGet();
+			return super.getConnection();
+		}
+
+	}
+
+	@Configuration
+	static class RoutingConfig {
+
+		@Bean
+		public CountingDataSource primary() {
+			return new CountingDataSource(database("primary"));
+		}
+
+		@Bean
+		public CountingDataSource replica() {
+			return new CountingDataSource(database("replica"));
+		}
+
+		@Bean
+		@Primary
+		public DataSource dataSource() {
+			return ReadReplicaRoutingDataSource.of(primary(), replica());
+		}
+
+		private static DataSource database(String name) {
+			return new DriverManagerDataSource("jdbc:h2:mem:" + name + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+		}
+
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.jdsalasca.crud.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class WriteBehindQueueTest {
+
+	private static final Duration LONG = Duration.ofHours(1);
+
+	private final BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+
+	@Test
+	void writesABatchOnceItIsFull() throws InterruptedException {
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("size", 10, 3, LONG, batches::add);
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(queue.offer(i, Duration.ZERO));
+		}
+
+		assertEquals(List.of(0, 1, 2), batches.poll(5, TimeUnit.SECONDS));
+		assertEquals(1, queue.flushCount());
+		queue.close(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void writesAPartialBatchOnceTheIntervalPasses() throws InterruptedException {
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("interval", 10, 100, Duration.ofMillis(50), batches::add);
+		long start = System.nanoTime();
+
+		queue.offer(1, Duration.ZERO);
+		queue.offer(2, Duration.ZERO);
+
+		assertEquals(List.of(1, 2), batches.poll(5, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		queue.close(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void rejectsAtOnceOrAfterTheWaitWhenFull() throws InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("full", 1, 1, LONG, batch -> {
+			writing.countDown();
+			await(release);
+		});
+		queue.offer(1, Duration.ZERO);
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+		assertTrue(queue.offer(2, Duration.ZERO));
+
+		assertFalse(queue.offer(3, Duration.ZERO));
+		long start = System.nanoTime();
+		assertFalse(queue.offer(4, Duration.ofMillis(50)));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertEquals(1, queue.depth());
+		assertEquals(2, queue.acceptedCount());
+		assertEquals(2, queue.rejectedCount());
+
+		release.countDown();
+		queue.close(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void writesTheQueuedItemsWhenClosedAndRejectsNewOnes() {
+		List<Integer> written = new ArrayList<>();
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("close", 10, 100, Duration.ofMillis(200), batch -> {
+			synchronized (written) {
+				written.addAll(batch);
+			}
+		});
+		for (int i = 0; i < 5; i++) {
+			queue.offer(i, Duration.ZERO);
+		}
+
+		queue.close(Duration.ofSeconds(5));
+
+		assertEquals(List.of(0, 1, 2, 3, 4), written);
+		assertTrue(queue.isClosed());
+		assertFalse(queue.offer(5, Duration.ofMillis(50)));
+	}
+
+	@Test
+	void dropsTheBatchesWhoseWriterThrows() throws InterruptedException {
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("failing", 10, 2, LONG, batch -> {
+			throw new IllegalStateException("database is down");
+		});
+
+		queue.offer(1, Duration.ZERO);
+		queue.offer(2, Duration.ZERO);
+		queue.close(Duration.ofSeconds(5));
+
+		assertEquals(2, queue.droppedCount());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.jdsalasca.defaultresponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Round trips of the {@link DefaultResponseSerializerGoldenTest} responses between JSON, CBOR and Smile:
+ * each encoding must read back as the same tree as the JSON one, and a tree read from one encoding must survive
+ * being written in the others.
+ */
+class DefaultResponseFormatsTest {
+
+	private static final ObjectMapper JSON = new ObjectMapper().registerModule(new DefaultResponseModule());
+	private static final ObjectMapper CBOR = DefaultResponseFormats.cborMapper(new ObjectMapper());
+	private static final ObjectMapper SMILE = DefaultResponseFormats.smileMapper(new ObjectMapper());
+
+	static Stream<Arguments> responses() {
+		return DefaultResponseSerializerGoldenTest.responses();
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("responses")
+	void binaryEncodingsReadBackAsTheJson(String name, DefaultResponse<?> response) throws IOException {
+		JsonNode json = JSON.readTree(JSON.writeValueAsBytes(response));
+		byte[] cbor = CBOR.writeValueAsBytes(response);
+		byte[] smile = SMILE.writeValueAsBytes(response);
+
+		assertEquals(json, CBOR.readTree(cbor), "CBOR");
+		assertEquals(json, SMILE.readTree(smile), "Smile");
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("responses")
+	void treesSurviveEveryEncoding(String name, DefaultResponse<?> response) throws IOException {
+		JsonNode json = JSON.readTree(JSON.writeValueAsBytes(response));
+
+		JsonNode fromCbor = CBOR.readTree(CBOR.writeValueAsBytes(json));
+		JsonNode fromSmile = SMILE.readTree(SMILE.writeValueAsBytes(fromCbor));
+		JsonNode backToJson = JSON.readTree(JSON.writeValueAsString(fromSmile));
+
+		assertEquals(json, fromCbor, "JSON to CBOR");
+		assertEquals(json, fromSmile, "CBOR to Smile");
+		assertEquals(json, backToJson, "Smile to JSON");
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.jdsalasca.defaultresponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdsalasca.crud.paging.CursorSlice;
+import com.jdsalasca.defaultresponse.DefaultResponse.DEFAULTMESSAGES;
+import com.jdsalasca.defaultresponse.DefaultResponse.MESSAGETYPES;
+
+/**
+ * Checks that {@link DefaultResponseModule} writes the same bytes as the bean serializer, against golden files
+ * written by the bean serializer. A change of either one, or of the golden file, fails the test.
+ */
+class DefaultResponseSerializerGoldenTest {
+
+	private static final ObjectMapper REFLECTIVE = new ObjectMapper();
+	private static final ObjectMapper MODULE = new ObjectMapper().registerModule(new DefaultResponseModule());
+
+	static Stream<Arguments> responses() {
+		List<Item> items = Arrays.asList(new Item(1L, "a"), new Item(2L, null));
+		BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Item(3L, "c"), "item");
+		bindingResult.rejectValue("name", "size", "el nombre es muy corto");
+		return Stream.of(
+				Arguments.of("list", DefaultResponse.onThrow200Response(items).getBody()),
+				Arguments.of("page", DefaultResponse.onThrow200Response(items, new PageImpl<>(items, PageRequest.of(0, 2, Sort.by("id")), 5)).getBody()),
+				Arguments.of("cursor", DefaultResponse.onThrow200Response(items, new CursorSlice<>(items, PageRequest.of(0, 2), true, "abc")).getBody()),
+				Arguments.of("object", DefaultResponse.onThrow200ResponseObject(items.get(0)).getBody()),
+				Arguments.of("notFound", DefaultResponse.onThrow404Response(DEFAULTMESSAGES.NOT_INFO_FOUND_MESSAGE.value()).getBody()),
+				Arguments.of("bindingResult", DefaultResponse.onThrow400ResponseBindingResult(bindingResult).getBody()),
+				Arguments.of("errors", DefaultResponse.onThrow200ResponseListMessageAndErrors(items,
+						DefaultResponse.messages(DEFAULTMESSAGES.SUCCESS_MESSAGE, MESSAGETYPES.WARN),
+						Arrays.asList(new Error("fallo \"parcial\"", MESSAGETYPES.ERROR), null)).getBody()),
+				Arguments.of("empty", new DefaultResponse<Item>()));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("responses")
+	void writesTheSameBytesAsTheBeanSerializer(String name, DefaultResponse<?> response) throws IOException {
+		String golden = golden(name);
+
+		assertEquals(golden, REFLECTIVE.writeValueAsString(response), "bean serializer");
+		assertEquals(golden, MODULE.writeValueAsString(response), "DefaultResponseModule");
+	}
+
+	private static String golden(String name) throws IOException {
+		try (InputStream input = DefaultResponseSerializerGoldenTest.class.getResourceAsStream("golden/" + name + ".json")) {
+			return new String(input.readAllBytes(), StandardCharsets.UTF_8).trim();
+		}
+	}
+
+	public static class Item {
+
+		private final Long id;
+		private final String name;
+
+		Item(Long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+	}
+
+}
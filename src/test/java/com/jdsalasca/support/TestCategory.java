@@ -0,0 +1,27 @@
+package com.jdsalasca.support;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lazy association of {@link TestEntity}, to count the statements of the reads with and without a fetch plan.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+public class TestCategory {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	private Long id;
+	private String label;
+
+	public TestCategory(String label) {
+		this.label = label;
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.jdsalasca.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestDto {
+
+	private String name;
+	private Integer quantity;
+
+}
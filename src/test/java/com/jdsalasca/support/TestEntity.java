@@ -0,0 +1,62 @@
+package com.jdsalasca.support;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.Version;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Entity
+@NoArgsConstructor
+public class TestEntity {
+
+	/**
+	 * Name of a row that fails to load, to test reads that fail halfway.
+	 */
+	public static final String UNREADABLE = "unreadable";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	private Long id;
+	@Column(unique = true)
+	private String name;
+	private Integer quantity;
+	@Version
+	private Long version;
+	@UpdateTimestamp
+	private Instant updatedAt;
+	/**
+	 * Soft delete flag, for the services configured with {@code setSoftDeleteAttribute("deleted")}.
+	 */
+	private Boolean deleted;
+	@ManyToOne(fetch = FetchType.LAZY)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private TestCategory category;
+
+	public TestEntity(String name, Integer quantity) {
+		this.name = name;
+		this.quantity = quantity;
+	}
+
+	@PostLoad
+	void failIfUnreadable() {
+		if (UNREADABLE.equals(name)) {
+			throw new IllegalStateException("Row " + id + " cannot be read");
+		}
+	}
+
+}
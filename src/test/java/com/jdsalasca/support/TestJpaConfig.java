@@ -0,0 +1,67 @@
+package com.jdsalasca.support;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import com.jdsalasca.crud.statement.StatementCountingDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Spring Data JPA over an in-memory H2 database, a new one for each context, for the tests that go through
+ * {@link TestService}. The schema is dropped when the context closes. Queries run lazily, as they would on a
+ * server database, instead of H2 reading their whole result first. The statements are counted in the open
+ * {@link com.jdsalasca.crud.statement.StatementCounter} scopes.
+ */
+@Configuration
+@ComponentScan(basePackageClasses = TestJpaConfig.class)
+@EnableJpaRepositories(basePackageClasses = TestJpaConfig.class)
+@EnableTransactionManagement(proxyTargetClass = true)
+public class TestJpaConfig {
+
+	private static final AtomicInteger DATABASES = new AtomicInteger();
+
+	@Bean
+	public DataSource dataSource() {
+		return new StatementCountingDataSource(new DriverManagerDataSource(
+				"jdbc:h2:mem:test" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE"));
+	}
+
+	@Bean
+	public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(dataSource);
+		factory.setPackagesToScan(TestJpaConfig.class.getPackageName());
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		Properties properties = new Properties();
+		properties.put("hibernate.hbm2ddl.auto", "create-drop");
+		properties.put("hibernate.jdbc.batch_size", "50");
+		properties.put("hibernate.order_inserts", "true");
+		factory.setJpaProperties(properties);
+		return factory;
+	}
+
+	@Bean
+	public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+		return new JpaTransactionManager(entityManagerFactory);
+	}
+
+	@Bean
+	public ModelMapper modelMapper() {
+		return new ModelMapper();
+	}
+
+}
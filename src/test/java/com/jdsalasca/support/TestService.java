@@ -0,0 +1,15 @@
+package com.jdsalasca.support;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Service;
+
+import com.jdsalasca.crud.CrudServiceImpl;
+
+@Service
+public class TestService extends CrudServiceImpl<TestEntity, TestDto, Long, TestRepository> {
+
+	public TestService(TestRepository repository, ModelMapper modelMapper) {
+		super(repository, modelMapper);
+	}
+
+}